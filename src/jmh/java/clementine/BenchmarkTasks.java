@@ -0,0 +1,69 @@
+package clementine;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+import clementine.task.Deadline;
+import clementine.task.Event;
+import clementine.task.Task;
+import clementine.task.Todo;
+
+/**
+ * Builds the task lists shared by the benchmarks. The lists are generated from a fixed seed,
+ * so every run measures the same data: a third each of todos, deadlines and events,
+ * with one task in four given a priority and one in three marked as done.
+ *
+ * @author zhiyu
+ */
+final class BenchmarkTasks {
+    static final String MATCHING_KEYWORD = "report";
+    static final String MISSING_KEYWORD = "zebra";
+
+    private static final String[] WORDS = {
+        "read", "book", "finish", "homework", "buy", "milk", "call", "mum", "project", "report",
+        "meeting", "essay", "gym", "lunch", "review", "slides", "quiz", "revise", "notes", "laundry"
+    };
+    private static final LocalDateTime FIRST_DATE = LocalDateTime.of(2025, 1, 1, 9, 0);
+    private static final long SEED = 2103L;
+
+    private BenchmarkTasks() {
+    }
+
+    /**
+     * Returns a list of the given number of generated tasks.
+     *
+     * @param count the number of tasks to generate
+     * @return the generated tasks
+     */
+    static ArrayList<Task> generate(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        ArrayList<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + i;
+            Priority priority = random.nextInt(4) == 0 ? Priority.of(1 + random.nextInt(5)) : null;
+            LocalDateTime date = FIRST_DATE.plusMinutes(random.nextInt(500_000));
+            Task task;
+            switch (i % 3) {
+            case 0:
+                task = priority == null ? new Todo(description) : new Todo(description, priority);
+                break;
+            case 1:
+                task = priority == null ? new Deadline(description, date) : new Deadline(description, date, priority);
+                break;
+            default:
+                LocalDateTime end = date.plusHours(2);
+                task = priority == null
+                        ? new Event(description, date, end)
+                        : new Event(description, date, end, priority);
+                break;
+            }
+            if (random.nextInt(3) == 0) {
+                task.taskDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,135 @@
+package clementine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+
+/**
+ * Measures creating chat bubbles, comparing the original FXML-loaded dialog box with the
+ * programmatically built {@link DialogBox}. Half of the bubbles are flipped, as in a real conversation.
+ * Bubbles are created in batches on the JavaFX application thread, so the hand-off to that thread
+ * is spread over the batch. Needs a display for the JavaFX toolkit.
+ *
+ * @author zhiyu
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(DialogBoxBenchmark.BATCH_SIZE)
+@State(Scope.Benchmark)
+public class DialogBoxBenchmark {
+    static final int BATCH_SIZE = 1_000;
+
+    private IntFunction<Node> fxmlBubbles;
+    private IntFunction<Node> programmaticBubbles;
+
+    /**
+     * Starts the JavaFX toolkit and loads the pictures shown in the bubbles.
+     *
+     * @throws InterruptedException if interrupted while the toolkit starts
+     */
+    @Setup
+    public void setUp() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+
+        Image userImage = new Image(DialogBoxBenchmark.class.getResourceAsStream("/images/user.jpeg"));
+        Image clementineImage = new Image(DialogBoxBenchmark.class.getResourceAsStream("/images/clementine.jpeg"));
+        fxmlBubbles = i -> new FxmlDialogBox("quack! message " + i,
+                i % 2 == 0 ? userImage : clementineImage, i % 2 != 0);
+        programmaticBubbles = i -> i % 2 == 0
+                ? DialogBox.getUserDialog("quack! message " + i, userImage)
+                : DialogBox.getClementineDialog("quack! message " + i, clementineImage);
+    }
+
+    @Benchmark
+    public Node createBubbles_fxml() throws ExecutionException, InterruptedException {
+        return createBatch(fxmlBubbles);
+    }
+
+    @Benchmark
+    public Node createBubbles_programmatic() throws ExecutionException, InterruptedException {
+        return createBatch(programmaticBubbles);
+    }
+
+    private static Node createBatch(IntFunction<Node> factory) throws ExecutionException, InterruptedException {
+        FutureTask<Node> batch = new FutureTask<>(() -> {
+            Node last = null;
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                last = factory.apply(i);
+            }
+            return last;
+        });
+        Platform.runLater(batch);
+        return batch.get();
+    }
+
+    /**
+     * The dialog box as it was before, parsing the FXML layout for every bubble and flipping
+     * replies by copying and reversing the children.
+     */
+    private static class FxmlDialogBox extends HBox {
+        private static final String STYLESHEET =
+                DialogBox.class.getResource("/css/dialog-box.css").toExternalForm();
+
+        @FXML
+        private Label dialog;
+        @FXML
+        private ImageView displayPicture;
+
+        FxmlDialogBox(String text, Image img, boolean isFlipped) {
+            try {
+                FXMLLoader fxmlLoader = new FXMLLoader(
+                        DialogBoxBenchmark.class.getResource("/view/FxmlDialogBox.fxml"));
+                fxmlLoader.setController(this);
+                fxmlLoader.setRoot(this);
+                fxmlLoader.load();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            getStylesheets().add(STYLESHEET);
+
+            dialog.setText(text);
+            displayPicture.setImage(img);
+            if (isFlipped) {
+                ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
+                Collections.reverse(tmp);
+                getChildren().setAll(tmp);
+                setAlignment(Pos.TOP_LEFT);
+                dialog.getStyleClass().add("reply-label");
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package clementine;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+import clementine.task.Deadline;
+import clementine.task.DescriptionArena;
+import clementine.task.Event;
+import clementine.task.Task;
+import clementine.task.Todo;
+
+/**
+ * Prints how many bytes of heap each kind of task keeps alive, including its description.
+ * For each kind, a large array of tasks is built the way the parser builds them, with every task
+ * getting its own description, dates and priority, and the growth of the used heap across a garbage
+ * collection is divided by the number of tasks. The same is then done for a corpus of todos whose
+ * descriptions repeat as they do in real lists, with and without a {@link DescriptionArena}.
+ * Run it with G1 and a fixed heap, as {@code gradle heapFootprint} does: the serial collector may
+ * leave dead objects in place after a full collection, which then still count as used.
+ *
+ * @author zhiyu
+ */
+public final class HeapFootprintReport {
+    private static final int TASK_COUNT = 1_000_000;
+    private static final String DESCRIPTION = "finish project report";
+    private static final LocalDateTime FIRST_DATE = LocalDateTime.of(2025, 1, 1, 9, 0);
+    private static final String[] WORDS = {
+        "read", "book", "finish", "homework", "buy", "milk", "call", "mum", "project", "report",
+        "meeting", "essay", "gym", "lunch", "review", "slides", "quiz", "revise", "notes", "laundry"
+    };
+    /** The share of corpus descriptions, in percent, that are one of the few hundred common ones. */
+    private static final int REPEATED_PERCENT = 75;
+    private static final long CORPUS_SEED = 2103L;
+
+    /** Shared by every measurement and cleared in between, so no stale copy keeps old tasks alive. */
+    private static final Task[] TASKS = new Task[TASK_COUNT];
+
+    private HeapFootprintReport() {
+    }
+
+    /**
+     * Prints the bytes per task for todos, deadlines and events, with and without a priority,
+     * and for the corpus of todos with and without a description arena.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        System.out.printf("%-24s %10s%n", "task", "bytes");
+        report("todo", i -> new Todo(description()));
+        report("todo + priority", i -> new Todo(description(), Priority.of(1 + i % 5)));
+        report("deadline", i -> new Deadline(description(), date(i)));
+        report("deadline + priority", i -> new Deadline(description(), date(i), Priority.of(1 + i % 5)));
+        report("event", i -> new Event(description(), date(i), date(i + 120)));
+        report("event + priority", i -> new Event(description(), date(i), date(i + 120), Priority.of(1 + i % 5)));
+
+        SplittableRandom random = new SplittableRandom(CORPUS_SEED);
+        report("corpus", i -> new Todo(corpusDescription(random, i)));
+        SplittableRandom arenaRandom = new SplittableRandom(CORPUS_SEED);
+        DescriptionArena arena = new DescriptionArena();
+        report("corpus + arena", i -> {
+            Task task = new Todo(corpusDescription(arenaRandom, i));
+            task.internDescription(arena);
+            return task;
+        });
+        System.out.printf("%d distinct descriptions in the corpus%n", arena.size());
+    }
+
+    /**
+     * Returns a new copy of the description, as the parser makes for every line it reads.
+     */
+    private static String description() {
+        return new String(DESCRIPTION.toCharArray());
+    }
+
+    /**
+     * Returns a description for the corpus. Most are one of the 400 pairs of common words,
+     * and the rest are made unique by the task number.
+     */
+    private static String corpusDescription(SplittableRandom random, int number) {
+        String words = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+        return random.nextInt(100) < REPEATED_PERCENT ? words : words + " " + number;
+    }
+
+    private static LocalDateTime date(int minutes) {
+        return FIRST_DATE.plusMinutes(minutes);
+    }
+
+    private static void report(String name, IntFunction<Task> factory) {
+        Arrays.fill(TASKS, null);
+        long before = usedHeap();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            TASKS[i] = factory.apply(i);
+        }
+        long after = usedHeap();
+        System.out.printf("%-24s %10.1f%n", name, (after - before) / (double) TASK_COUNT);
+    }
+
+    /**
+     * Returns the used heap once garbage collection stops freeing anything.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now == used) {
+                break;
+            }
+            used = now;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,75 @@
+package clementine;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import clementine.task.Task;
+
+/**
+ * Measures parsing of dates and stored task lines.
+ * Dates are parsed by trying each supported format in turn, so a date in the first format,
+ * a date only the last format accepts and a date no format accepts are measured separately.
+ *
+ * @author zhiyu
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+    // fields rather than constants, so the JIT cannot fold the inputs
+    private String firstFormatDate = "25/12/2024 1430";
+    private String lastFormatDate = "1/1/2025";
+    private String invalidDate = "next tuesday";
+    private String storedTodo = "T | 0 | read book | 2";
+    private String storedDeadline = "D | 1 | essay | /by 25/12/2024 1430";
+    private String storedEvent = "E | 0 | project meeting | /from 01/01/2025 1400 /to 01/01/2025 1600 | 1";
+
+    @Benchmark
+    public LocalDateTime parseDateTime_firstFormat() {
+        return Parser.parseDateTime(firstFormatDate);
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTime_lastFormat() {
+        return Parser.parseDateTime(lastFormatDate);
+    }
+
+    @Benchmark
+    public DateTimeParseException parseDateTime_noFormat() {
+        try {
+            Parser.parseDateTime(invalidDate);
+            throw new AssertionError("invalid date should not parse");
+        } catch (DateTimeParseException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Task parseTask_todo() {
+        return Parser.parseTask(storedTodo);
+    }
+
+    @Benchmark
+    public Task parseTask_deadline() {
+        return Parser.parseTask(storedDeadline);
+    }
+
+    @Benchmark
+    public Task parseTask_event() {
+        return Parser.parseTask(storedEvent);
+    }
+}
@@ -0,0 +1,77 @@
+package clementine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import clementine.task.Task;
+
+/**
+ * Measures writing the task list to its file and reading it back, including parsing the lines
+ * into tasks as happens at startup. Runs against a temporary file, so the results depend on the disk.
+ *
+ * @author zhiyu
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StorageBenchmark {
+    @Param({"1000", "100000"})
+    public int taskCount;
+
+    private Path file;
+    private Storage storage;
+    private ArrayList<Task> tasks;
+
+    @Setup
+    public void setUp() throws IOException, ClementineException {
+        file = Files.createTempFile("clementine-benchmark", ".txt");
+        storage = new Storage(file.toString());
+        tasks = BenchmarkTasks.generate(taskCount);
+        storage.save(tasks);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void save() throws ClementineException {
+        storage.save(tasks);
+    }
+
+    @Benchmark
+    public ArrayList<String> load() throws ClementineException {
+        return storage.load();
+    }
+
+    @Benchmark
+    public ArrayList<Task> saveAndLoad() throws ClementineException {
+        storage.save(tasks);
+        ArrayList<String> lines = storage.load();
+        ArrayList<Task> loaded = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            loaded.add(Parser.parseTask(line));
+        }
+        return loaded;
+    }
+}
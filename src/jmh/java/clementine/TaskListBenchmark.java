@@ -0,0 +1,56 @@
+package clementine;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import clementine.task.Task;
+
+/**
+ * Measures searching and sorting the task list at different sizes.
+ *
+ * @author zhiyu
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TaskListBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    private TaskList tasks;
+
+    @Setup
+    public void setUp() {
+        tasks = new TaskList(BenchmarkTasks.generate(taskCount));
+    }
+
+    @Benchmark
+    public ArrayList<Task> findTasks_matching() {
+        return tasks.findTasks(BenchmarkTasks.MATCHING_KEYWORD);
+    }
+
+    @Benchmark
+    public ArrayList<Task> findTasks_missing() {
+        return tasks.findTasks(BenchmarkTasks.MISSING_KEYWORD);
+    }
+
+    @Benchmark
+    public ArrayList<Task> getTasksByPriority() {
+        return tasks.getTasksByPriority();
+    }
+}
@@ -0,0 +1,64 @@
+package clementine;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import clementine.task.Task;
+
+/**
+ * Measures rendering the task list into a response: one default-sized page, the last page,
+ * and every task on a single page.
+ *
+ * @author zhiyu
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class UiBenchmark {
+    @Param({"1000", "100000"})
+    public int taskCount;
+
+    private final UI ui = new UI();
+    private ArrayList<Task> tasks;
+    private PageRequest firstPage;
+    private PageRequest lastPage;
+    private PageRequest wholeList;
+
+    @Setup
+    public void setUp() {
+        tasks = BenchmarkTasks.generate(taskCount);
+        firstPage = PageRequest.of(1, PageRequest.DEFAULT_PAGE_SIZE);
+        lastPage = PageRequest.of(firstPage.getPageCount(taskCount), PageRequest.DEFAULT_PAGE_SIZE);
+        wholeList = PageRequest.of(1, taskCount);
+    }
+
+    @Benchmark
+    public String showTaskList_firstPage() {
+        return ui.showTaskList(tasks, firstPage);
+    }
+
+    @Benchmark
+    public String showTaskList_lastPage() {
+        return ui.showTaskList(tasks, lastPage);
+    }
+
+    @Benchmark
+    public String showTaskList_wholeList() {
+        return ui.showTaskList(tasks, wholeList);
+    }
+}
@@ -0,0 +1,101 @@
+package clementine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+
+/**
+ * The Autocomplete class shows suggestions from a {@link CommandSuggester} in a popup above a text field.
+ * Lookups wait until the user pauses typing and then run on a background thread, so typing never
+ * waits for them; results that arrive after the text has changed again are dropped.
+ *
+ * @author zhiyu
+ */
+public class Autocomplete {
+    private static final Duration TYPING_PAUSE = Duration.millis(120);
+    private static final int MAX_SUGGESTIONS = 8;
+
+    private final TextField field;
+    private final CommandSuggester suggester;
+    private final ContextMenu popup = new ContextMenu();
+    private final PauseTransition debounce = new PauseTransition(TYPING_PAUSE);
+    private final ExecutorService lookupExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "clementine-autocomplete");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // only read and written on the JavaFX application thread
+    private long latestLookup = 0;
+    private boolean isApplyingSuggestion = false;
+
+    /**
+     * Attaches autocomplete to the given text field.
+     *
+     * @param field the text field the user types commands into
+     * @param suggester the source of suggestions
+     */
+    public Autocomplete(TextField field, CommandSuggester suggester) {
+        this.field = field;
+        this.suggester = suggester;
+        debounce.setOnFinished(event -> lookUp(field.getText()));
+        field.textProperty().addListener((observable, oldText, newText) -> {
+            if (!isApplyingSuggestion) {
+                popup.hide();
+                debounce.playFromStart();
+            }
+        });
+    }
+
+    /**
+     * Starts a background lookup for the given text, superseding any lookup still running.
+     */
+    private void lookUp(String text) {
+        long lookup = ++latestLookup;
+        if (text.isBlank()) {
+            popup.hide();
+            return;
+        }
+        CompletableFuture.supplyAsync(() -> suggester.suggest(text, MAX_SUGGESTIONS), lookupExecutor)
+                .thenAccept(suggestions -> Platform.runLater(() -> showSuggestions(lookup, suggestions)));
+    }
+
+    private void showSuggestions(long lookup, List<String> suggestions) {
+        if (lookup != latestLookup) {
+            return;
+        }
+        if (suggestions.isEmpty()) {
+            popup.hide();
+            return;
+        }
+        List<MenuItem> items = new ArrayList<>(suggestions.size());
+        for (String suggestion : suggestions) {
+            MenuItem item = new MenuItem(suggestion);
+            item.setMnemonicParsing(false);
+            item.setOnAction(event -> applySuggestion(suggestion));
+            items.add(item);
+        }
+        popup.getItems().setAll(items);
+        if (!popup.isShowing()) {
+            popup.show(field, Side.TOP, 0, 0);
+        }
+    }
+
+    private void applySuggestion(String suggestion) {
+        isApplyingSuggestion = true;
+        field.setText(suggestion);
+        field.positionCaret(suggestion.length());
+        isApplyingSuggestion = false;
+        latestLookup++;
+        popup.hide();
+    }
+}
@@ -1,7 +1,20 @@
 package clementine;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.List;
 
+import clementine.jfr.JfrEvents;
+import clementine.jfr.TaskParseEvent;
+import clementine.store.HeapTaskStore;
+import clementine.store.OffHeapTaskStore;
+import clementine.store.TaskStore;
+import clementine.store.TaskStoreException;
+import clementine.store.VersionedTaskStore;
+import clementine.task.DescriptionArena;
 import clementine.task.Task;
 
 
@@ -14,21 +27,42 @@ import clementine.task.Task;
  * @author zhiyu
  */
 public class Clementine {
+    private static final long DEFAULT_METRICS_INTERVAL_SECONDS = 60;
+    private static final boolean USES_DESCRIPTION_ARENA = Boolean.getBoolean("clementine.descriptionArena");
+    private static final String TASK_STORE = System.getProperty("clementine.taskStore", "heap");
+    private static final String MAPPED_STORE_SUFFIX = ".tasks";
 
     private Storage storage;
     private TaskList tasks;
     private UI ui;
     private CommandProcessor commandProcessor;
+    private final Renderer renderer;
+    private ConversationLog conversationLog;
 
     /**
      * Constructs a new Clementine application instance with the specified file path for data storage.
+     * Responses are only returned, not rendered, which suits the GUI and the server.
      * Initializes all components and attempts to load existing tasks from storage.
-     * If loading fails, starts with an empty task list and displays the error to the user.
+     * If loading fails, starts with an empty task list.
      * @param filePath the path to the file where tasks will be stored and loaded from
      */
     public Clementine(String filePath) {
+        this(filePath, Renderer.NONE);
+    }
+
+    /**
+     * Constructs a new Clementine application instance that also shows every response with the given renderer.
+     * Initializes all components and attempts to load existing tasks from storage.
+     * If loading fails, starts with an empty task list and displays the error to the user.
+     * @param filePath the path to the file where tasks will be stored and loaded from
+     * @param renderer the renderer that shows responses to the user
+     */
+    public Clementine(String filePath, Renderer renderer) {
+        this.renderer = renderer;
         initialiseComponents(filePath);
-        loadTasksFromStorage();
+        loadTasksFromStorage(filePath);
+        // how much undo history to keep depends on the kind of store the tasks were loaded into
+        commandProcessor = new CommandProcessor(ui, storage, CommandProcessor.undoDepthFor(tasks));
     }
 
     /**
@@ -41,16 +75,64 @@ public class Clementine {
         return this.ui;
     }
 
+    /**
+     * Returns the number of tasks currently loaded in this instance.
+     *
+     * @return the number of tasks in the task list
+     */
+    public int getTaskCount() {
+        return tasks.taskSize();
+    }
+
+    /**
+     * Registers a listener to be told about every task added to or removed from the task list,
+     * starting with the tasks already loaded. Must not be called while a command is running.
+     *
+     * @param listener the listener to register
+     */
+    public void addTaskListListener(TaskListListener listener) {
+        tasks.addListener(listener);
+    }
+
+    /**
+     * Starts recording every command and response in the given conversation log, which the
+     * history command then searches. Must not be called while a command is running.
+     *
+     * @param conversationLog the log to record the conversation in
+     */
+    public void enableConversationLog(ConversationLog conversationLog) {
+        this.conversationLog = conversationLog;
+        commandProcessor.setConversationLog(conversationLog);
+    }
+
+    /**
+     * Turns off the import and export commands, which read and write any file the command names.
+     * Used when the commands come from the network rather than from the user running Clementine.
+     * Must not be called while a command is running.
+     */
+    public void disableFileCommands() {
+        commandProcessor.disableFileCommands();
+    }
+
+    /**
+     * Writes the current task list to storage, regardless of whether it has changed.
+     * Used before an instance is discarded so that no state can be lost.
+     *
+     * @throws ClementineException if the tasks cannot be saved
+     */
+    public void flush() throws ClementineException {
+        tasks.saveTo(storage);
+    }
+
     /**
      * Initializes all core components of the Clementine application.
-     * Creates instances of UI, Storage, and CommandProcessor with the specified file path.
+     * Creates instances of UI and Storage with the specified file path.
      *
      * @param filePath the path to the file where tasks will be stored
      */
     private void initialiseComponents(String filePath) {
         ui = new UI();
         storage = new Storage(filePath);
-        commandProcessor = new CommandProcessor(ui, storage);
 
         assert ui != null : "UI should be initialised";
         assert storage != null : "Storage should be initialised";
@@ -60,20 +142,132 @@ public class Clementine {
      * Loads existing tasks from storage and initializes the task list.
      * If loading fails due to file issues or parsing errors, creates an empty task list
      * and displays an error message to the user.
+     * With the {@code clementine.taskStore} system property set to {@code mapped}, the tasks are kept in
+     * a file next to the data file, which is mapped into memory; once that file exists it is used instead,
+     * and the data file is never written again.
+     * If the tasks cannot be kept off the heap, the error is displayed and the tasks read from the data
+     * file are kept on the heap instead and saved back to it, so a store that fails never empties the list.
+     *
+     * @param filePath the path to the file where tasks are stored
      */
-    private void loadTasksFromStorage() {
+    private void loadTasksFromStorage(String filePath) {
+        Path mappedFile = Paths.get(filePath + MAPPED_STORE_SUFFIX);
+        boolean isMappedFileUsable = true;
+        if (TASK_STORE.equals("mapped") && Files.exists(mappedFile)) {
+            try {
+                long mapStart = System.nanoTime();
+                tasks = new TaskList(OffHeapTaskStore.map(mappedFile));
+                StartupTrace.record("map task store", mapStart);
+                return;
+            } catch (IOException e) {
+                // the mapped file is left as it is, and the data file is read as before it existed
+                renderer.render(ui.showLoadingError("couldn't map " + mappedFile + ", reading " + filePath
+                        + " instead: " + e.getMessage()));
+                isMappedFileUsable = false;
+            }
+        }
+
+        ArrayList<Task> parsedTasks;
         try {
+            long loadStart = System.nanoTime();
             ArrayList<String> fileLines = storage.load();
             assert fileLines != null : "Storage.load() should return non-null list";
-            ArrayList<Task> parsedTasks = parseTasksFromLines(fileLines);
-            tasks = new TaskList(parsedTasks);
+            StartupTrace.record("storage load", loadStart);
+            long parseStart = System.nanoTime();
+            parsedTasks = parseTasksFromLines(fileLines);
+            StartupTrace.record("parse", parseStart);
         } catch (ClementineException e) {
-            ui.showLoadingError(e.getMessage());
-            tasks = new TaskList();
+            renderer.render(ui.showLoadingError(e.getMessage()));
+            tasks = new TaskList(createTaskStore(new ArrayList<>()));
+            return;
+        }
+
+        if (!isMappedFileUsable) {
+            tasks = new TaskList(createTaskStore(parsedTasks));
+            return;
+        }
+        try {
+            tasks = new TaskList(createTaskStore(parsedTasks, mappedFile));
+        } catch (IOException | TaskStoreException e) {
+            renderer.render(ui.showLoadingError("couldn't keep the tasks off the heap, keeping them in "
+                    + filePath + " instead: " + e.getMessage()));
+            discardMappedFile(mappedFile);
+            tasks = new TaskList(createTaskStore(parsedTasks));
         }
         assert tasks != null : "TaskList should be initialised (either loaded or empty)";
     }
 
+    /**
+     * Deletes a mapped file that was only partly filled, so that it is not used in place of the
+     * data file the next time the tasks are loaded.
+     *
+     * @param mappedFile the file the tasks were being moved to
+     */
+    private void discardMappedFile(Path mappedFile) {
+        try {
+            Files.deleteIfExists(mappedFile);
+        } catch (IOException e) {
+            renderer.render(ui.showLoadingError("couldn't delete " + mappedFile + ", please delete it before "
+                    + "starting me again: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Returns a store holding the given tasks, of the kind chosen by the {@code clementine.taskStore}
+     * system property: {@code heap} (the default) for a plain list of tasks, {@code versioned} for
+     * immutable versions on the heap, {@code offheap} for direct memory, or {@code mapped} for the given
+     * file mapped into memory.
+     *
+     * @param parsedTasks the tasks to put in the store
+     * @param mappedFile the file to keep a mapped store in
+     * @return the store
+     * @throws IOException if the mapped file cannot be created
+     * @throws TaskStoreException if the tasks cannot be added to the store or written to its file
+     */
+    private static TaskStore createTaskStore(ArrayList<Task> parsedTasks, Path mappedFile) throws IOException {
+        OffHeapTaskStore store;
+        switch (TASK_STORE) {
+        case "offheap":
+            store = OffHeapTaskStore.allocate();
+            break;
+        case "mapped":
+            store = OffHeapTaskStore.map(mappedFile);
+            break;
+        default:
+            return createTaskStore(parsedTasks);
+        }
+        for (Task task : parsedTasks) {
+            store.add(task);
+        }
+        store.persist();
+        return store;
+    }
+
+    /**
+     * Returns a heap store holding the given tasks: immutable versions if the {@code clementine.taskStore}
+     * system property is {@code versioned}, and a plain list otherwise. This is also where the tasks
+     * are kept when they could not be loaded or moved off the heap.
+     *
+     * @param parsedTasks the tasks to put in the store
+     * @return the store
+     */
+    private static TaskStore createTaskStore(ArrayList<Task> parsedTasks) {
+        if (TASK_STORE.equals("versioned")) {
+            return new VersionedTaskStore(parsedTasks, createDescriptionArena());
+        }
+        return new HeapTaskStore(parsedTasks, createDescriptionArena());
+    }
+
+    /**
+     * Returns a new arena for the task list to share repeated descriptions through, if the
+     * {@code clementine.descriptionArena} system property is set to true.
+     *
+     * @return a new arena, or null to leave every task its own copy of its description
+     */
+    private static DescriptionArena createDescriptionArena() {
+        return USES_DESCRIPTION_ARENA ? new DescriptionArena() : null;
+    }
+
     /**
      * Parses raw file lines into Task objects.
      * Converts each line from storage into the appropriate Task type using the Parser.
@@ -83,23 +277,46 @@ public class Clementine {
      * @throws ClementineException if any line cannot be parsed into a valid task
      */
     private ArrayList<Task> parseTasksFromLines(ArrayList<String> fileLines) throws ClementineException {
+        TaskParseEvent event = JfrEvents.ENABLED ? new TaskParseEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
         ArrayList<Task> parsedTasks = new ArrayList<>();
         for (String line : fileLines) {
             parsedTasks.add(Parser.parseTask(line));
         }
+        if (event != null) {
+            event.setLines(fileLines.size());
+            event.setTasks((int) parsedTasks.stream().filter(task -> task != null).count());
+            event.commit();
+        }
         return parsedTasks;
     }
 
     /**
-     * Processes user input and returns an appropriate response.
+     * Processes user input, renders the response and returns it.
      * Validates the input, handles special commands like "bye", and delegates
      * other commands to the CommandProcessor for execution.
      *
      * @param input the user's command input
      * @return a response string to be displayed to the user
      */
-
     public String getResponse(String input) {
+        String response = respond(input);
+        if (renderer != Renderer.NONE) {
+            long renderStart = System.nanoTime();
+            renderer.render(response);
+            CommandMetrics.global().recordPhase(CommandMetrics.Phase.RENDER, System.nanoTime() - renderStart);
+        }
+        // history searches are not recorded, so that their replies don't turn up in later searches
+        if (conversationLog != null && input != null && !isHistoryCommand(input.trim())) {
+            conversationLog.record(Message.fromUser(input));
+            conversationLog.record(Message.fromClementine(response));
+        }
+        return response;
+    }
+
+    private String respond(String input) {
         if (!isValidInput(input)) {
             return "Quack! Please enter a command!";
         }
@@ -109,9 +326,39 @@ public class Clementine {
         if (isByeCommand(trimmedInput)) {
             return ui.showOutro();
         }
+        if (isPipeline(trimmedInput)) {
+            return processPipeline(trimmedInput);
+        }
         return processCommand(trimmedInput);
     }
 
+    /**
+     * Checks if the input is a pipeline of several commands separated by semicolons.
+     *
+     * @param input the trimmed user input to check
+     * @return true if every part after a semicolon starts with a command word, false otherwise
+     */
+    private boolean isPipeline(String input) {
+        return Parser.isPipeline(input);
+    }
+
+    /**
+     * Processes a semicolon-separated pipeline of commands as one transaction.
+     * Every command word is checked before anything runs; the commands are then applied
+     * together with a single save, or not at all if any of them fails.
+     *
+     * @param input the trimmed pipeline input
+     * @return the combined responses of all commands, or an error message
+     */
+    private String processPipeline(String input) {
+        try {
+            List<String> commands = Parser.parsePipeline(input);
+            return commandProcessor.executeBatch(commands, tasks);
+        } catch (ClementineException e) {
+            return ui.showError(e.getMessage());
+        }
+    }
+
     /**
      * Validates whether the user input is acceptable for processing.
      * Checks that input is not null and contains non-whitespace characters.
@@ -133,6 +380,16 @@ public class Clementine {
         return input.equals("bye");
     }
 
+    /**
+     * Checks if the given input is a history command, which searches the conversation log.
+     *
+     * @param input the trimmed user input to check
+     * @return true if the input starts with the word "history", false otherwise
+     */
+    private boolean isHistoryCommand(String input) {
+        return input.split(" ")[0].equalsIgnoreCase("history");
+    }
+
     /**
      * Processes a valid command through the CommandProcessor.
      * Handles any exceptions that occur during command execution and
@@ -157,37 +414,103 @@ public class Clementine {
      * @throws ClementineException if a critical error occurs during application execution
      */
     public void run() throws ClementineException {
-        ui.showIntro();
+        renderer.render(ui.showIntro());
         while (true) {
-            try {
-                String input = ui.readCommand();
-
-                if (isByeCommand(input)) {
-                    ui.showOutro();
-                    break;
-                }
-                commandProcessor.executeCommand(input, tasks);
-            } catch (ClementineException e) {
-                ui.showError(e.getMessage());
+            String input = ui.readCommand();
+            getResponse(input);
+            if (isByeCommand(input.trim())) {
+                break;
             }
         }
         ui.closeScanner();
+        shutdown();
+    }
+
+    /**
+     * Releases background resources, waiting for any running exports to complete
+     * and writing out the conversation log. Should be called once when the application exits.
+     */
+    public void shutdown() {
+        commandProcessor.shutdown();
+        if (conversationLog != null) {
+            conversationLog.close();
+        }
     }
 
     /**
      * The main entry point for the Clementine task management application.
      * Creates a new Clementine instance with the default data file path and starts the application.
+     * Supports {@code --import <file>} to bulk import task commands from a file before starting,
+     * {@code --output <console|json|none>} to choose how responses are shown (default console),
+     * and {@code --metrics-dump <file>} to append the command metrics to a file every
+     * {@code --metrics-interval <seconds>} (default 60).
      *
-     * @param args command line arguments (not used)
+     * @param args command line arguments
      */
     public static void main(String[] args) {
         assert args != null : "Command line arguments should not be null";
         try {
-            Clementine app = new Clementine("./data/clementine.txt");
+            String outputMode = findOptionValue(args, "--output");
+            Renderer renderer = Renderer.forMode(outputMode == null ? "console" : outputMode);
+            Clementine app = new Clementine("./data/clementine.txt", renderer);
             assert app != null : "Clementine instance should be created";
+            app.enableConversationLog(new ConversationLog(Paths.get("./data/history"),
+                    ConversationLog.DEFAULT_MEMORY_LIMIT));
+            String importPath = findOptionValue(args, "--import");
+            if (importPath != null) {
+                app.getResponse("import " + importPath);
+            }
+            String metricsPath = findOptionValue(args, "--metrics-dump");
+            if (metricsPath != null) {
+                long interval = parseMetricsInterval(findOptionValue(args, "--metrics-interval"));
+                CommandMetrics.global().startDumping(Paths.get(metricsPath), interval);
+            }
             app.run();
+            CommandMetrics.global().stopDumping();
         } catch (ClementineException e) {
             System.out.println("quack! something went wrong: " + e.getMessage());
         }
     }
+
+    /**
+     * Returns the number of seconds between metrics dumps given with {@code --metrics-interval}.
+     *
+     * @param interval the value given after the option, or null if the option is absent
+     * @return the interval in seconds, 60 if not given
+     * @throws ClementineException if the interval is not a positive number
+     */
+    public static long parseMetricsInterval(String interval) throws ClementineException {
+        if (interval == null) {
+            return DEFAULT_METRICS_INTERVAL_SECONDS;
+        }
+        try {
+            long seconds = Long.parseLong(interval);
+            if (seconds > 0) {
+                return seconds;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new ClementineException("the metrics interval must be a positive number of seconds");
+    }
+
+    /**
+     * Returns the value given after a command line flag such as {@code --import}, if any.
+     *
+     * @param args command line arguments
+     * @param flag the flag to look for
+     * @return the argument following the flag, or null if the flag is absent
+     * @throws ClementineException if the flag is not followed by a value
+     */
+    private static String findOptionValue(String[] args, String flag) throws ClementineException {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(flag)) {
+                if (i + 1 >= args.length) {
+                    throw new ClementineException("please specify a value after " + flag);
+                }
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
 }
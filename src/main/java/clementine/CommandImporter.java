@@ -0,0 +1,111 @@
+package clementine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.IntStream;
+
+import clementine.task.Task;
+
+/**
+ * The CommandImporter class bulk loads task creation commands from a text file.
+ * The file is streamed in fixed-size batches; each batch is parsed in parallel and the
+ * resulting tasks are collected in file order. The caller applies the collected tasks to
+ * the TaskList and persists them once, instead of saving after every single line.
+ *
+ * @author zhiyu
+ */
+public class CommandImporter {
+    private static final int BATCH_SIZE = 4096;
+
+    /**
+     * Reads and parses every command in the given file.
+     * Blank lines and lines starting with {@code #} are skipped. Lines that are not valid
+     * todo, deadline or event commands are recorded as errors and do not stop the import.
+     *
+     * @param filePath the path of the command file to import
+     * @return the outcome of the import, including the parsed tasks in file order
+     * @throws ClementineException if the file cannot be found or read
+     */
+    public ImportResult importFile(String filePath) throws ClementineException {
+        long startTime = System.nanoTime();
+        ImportResult result = new ImportResult("lines");
+        Path path = Paths.get(filePath);
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String[] batch = new String[BATCH_SIZE];
+            int batchSize = 0;
+            int firstLineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                batch[batchSize++] = line;
+                if (batchSize == BATCH_SIZE) {
+                    parseBatch(batch, batchSize, firstLineNumber, result);
+                    firstLineNumber += batchSize;
+                    batchSize = 0;
+                }
+            }
+            parseBatch(batch, batchSize, firstLineNumber, result);
+        } catch (NoSuchFileException e) {
+            throw new ClementineException("quack! i can't find the file " + filePath);
+        } catch (IOException e) {
+            throw new ClementineException("quack! error reading import file: " + e.getMessage());
+        }
+
+        result.finish(System.nanoTime() - startTime);
+        return result;
+    }
+
+    /**
+     * Parses one batch of lines in parallel, then records the outcome of each line in order.
+     *
+     * @param batch the buffer holding the lines of this batch
+     * @param batchSize the number of lines in the buffer that belong to this batch
+     * @param firstLineNumber the 1-indexed line number of the first line in the batch
+     * @param result the import result to record parsed tasks and errors into
+     */
+    private void parseBatch(String[] batch, int batchSize, int firstLineNumber, ImportResult result) {
+        Task[] parsedTasks = new Task[batchSize];
+        String[] errors = new String[batchSize];
+
+        IntStream.range(0, batchSize).parallel().forEach(i -> {
+            try {
+                parsedTasks[i] = parseLine(batch[i].trim());
+            } catch (ClementineException e) {
+                errors[i] = e.getMessage();
+            }
+        });
+
+        for (int i = 0; i < batchSize; i++) {
+            result.recordRead();
+            if (parsedTasks[i] != null) {
+                result.addTask(parsedTasks[i]);
+            } else if (errors[i] != null) {
+                result.recordError("line " + (firstLineNumber + i), errors[i]);
+            }
+        }
+    }
+
+    /**
+     * Parses a single line of the import file.
+     *
+     * @param line the trimmed line to parse
+     * @return the parsed Task, or null if the line is blank or a comment
+     * @throws ClementineException if the line is not a valid task creation command
+     */
+    private Task parseLine(String line) throws ClementineException {
+        if (line.isEmpty() || line.startsWith("#")) {
+            return null;
+        }
+
+        CommandType command = Parser.getCommandType(line);
+        if (command != CommandType.TODO && command != CommandType.DEADLINE && command != CommandType.EVENT) {
+            throw new ClementineException("only todo, deadline and event commands can be imported");
+        }
+        return Parser.parseNewTask(command, line);
+    }
+}
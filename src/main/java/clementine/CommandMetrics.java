@@ -0,0 +1,224 @@
+package clementine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CommandMetrics class keeps latency histograms for every command type, and for the phases
+ * a command goes through: parsing the command word, executing it, saving the tasks and rendering
+ * the response. One set of metrics is shared by every Clementine instance in the process, so the
+ * server reports on all of its users together.
+ *
+ * <p>The metrics can also be appended to a file at a fixed interval, one JSON object per line,
+ * so that they can be trended over time.
+ *
+ * @author zhiyu
+ */
+public class CommandMetrics {
+    private static final CommandMetrics GLOBAL = new CommandMetrics();
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    /**
+     * The phases a command goes through.
+     */
+    public enum Phase {
+        PARSE,
+        EXECUTE,
+        PERSIST,
+        RENDER
+    }
+
+    private final EnumMap<CommandType, LatencyHistogram> commandLatencies = new EnumMap<>(CommandType.class);
+    private final EnumMap<Phase, LatencyHistogram> phaseLatencies = new EnumMap<>(Phase.class);
+    private ScheduledExecutorService dumpExecutor;
+    private Path dumpFile;
+
+    /**
+     * Constructs an empty set of metrics. The histograms are all created up front, so recording
+     * only reads the maps and needs no locking.
+     */
+    CommandMetrics() {
+        for (CommandType command : CommandType.values()) {
+            commandLatencies.put(command, new LatencyHistogram());
+        }
+        for (Phase phase : Phase.values()) {
+            phaseLatencies.put(phase, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Returns the metrics shared by the whole process.
+     *
+     * @return the process-wide metrics
+     */
+    public static CommandMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Records how long a command took from start to finish, whether or not it succeeded.
+     *
+     * @param command the type of the command
+     * @param nanos the duration in nanoseconds
+     */
+    public void recordCommand(CommandType command, long nanos) {
+        commandLatencies.get(command).record(nanos);
+    }
+
+    /**
+     * Records how long one phase of a command took.
+     *
+     * @param phase the phase
+     * @param nanos the duration in nanoseconds
+     */
+    public void recordPhase(Phase phase, long nanos) {
+        phaseLatencies.get(phase).record(nanos);
+    }
+
+    /**
+     * Returns a table of the count and the p50, p90, p99 and maximum latency of each command type
+     * and phase that has been recorded at least once.
+     *
+     * @return the formatted table, or a note that nothing has been recorded
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        appendHeader(report, "command");
+        int rows = appendRows(report, commandLatencies);
+        if (rows == 0) {
+            return "no commands have been run yet";
+        }
+        appendHeader(report, "phase");
+        appendRows(report, phaseLatencies);
+        report.setLength(report.length() - 1);
+        return report.toString();
+    }
+
+    private static void appendHeader(StringBuilder report, String title) {
+        report.append(String.format("%-10s %8s %10s %10s %10s %10s\n", title, "count", "p50", "p90", "p99", "max"));
+    }
+
+    private static int appendRows(StringBuilder report, Map<? extends Enum<?>, LatencyHistogram> latencies) {
+        int rows = 0;
+        for (Map.Entry<? extends Enum<?>, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            report.append(String.format("%-10s %8d", entry.getKey().name().toLowerCase(), histogram.getCount()));
+            for (double percentile : PERCENTILES) {
+                report.append(String.format(" %10s", formatNanos(histogram.getPercentileNanos(percentile))));
+            }
+            report.append(String.format(" %10s\n", formatNanos(histogram.getMaxNanos())));
+            rows++;
+        }
+        return rows;
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + "ns";
+        } else if (nanos < 1_000_000) {
+            return String.format("%.1fus", nanos / 1_000.0);
+        } else if (nanos < 1_000_000_000) {
+            return String.format("%.1fms", nanos / 1_000_000.0);
+        }
+        return String.format("%.2fs", nanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Returns the metrics as a single-line JSON object with the time, and the count, percentiles
+     * and maximum in nanoseconds of each command type and phase recorded so far.
+     *
+     * @return the metrics as JSON
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\"time\":").append(Json.quote(Instant.now().toString()));
+        json.append(",\"commands\":");
+        appendJson(json, commandLatencies);
+        json.append(",\"phases\":");
+        appendJson(json, phaseLatencies);
+        return json.append('}').toString();
+    }
+
+    private static void appendJson(StringBuilder json, Map<? extends Enum<?>, LatencyHistogram> latencies) {
+        json.append('{');
+        boolean isFirst = true;
+        for (Map.Entry<? extends Enum<?>, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            if (!isFirst) {
+                json.append(',');
+            }
+            isFirst = false;
+            json.append(Json.quote(entry.getKey().name().toLowerCase()))
+                    .append(":{\"count\":").append(histogram.getCount());
+            for (double percentile : PERCENTILES) {
+                json.append(",\"p").append((int) percentile).append("\":")
+                        .append(histogram.getPercentileNanos(percentile));
+            }
+            json.append(",\"max\":").append(histogram.getMaxNanos()).append('}');
+        }
+        json.append('}');
+    }
+
+    /**
+     * Starts appending the metrics to the given file as JSON lines every {@code intervalSeconds},
+     * on a background thread. Failures to write are reported on standard error.
+     *
+     * @param file the file to append to; its directory is created if it doesn't exist
+     * @param intervalSeconds the number of seconds between dumps
+     */
+    public synchronized void startDumping(Path file, long intervalSeconds) {
+        stopDumping();
+        dumpFile = file;
+        dumpExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "clementine-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumpExecutor.scheduleAtFixedRate(() -> dump(file), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the periodic dump, if any, after appending the metrics one last time so that the
+     * final interval isn't lost.
+     */
+    public synchronized void stopDumping() {
+        if (dumpExecutor == null) {
+            return;
+        }
+        dumpExecutor.shutdownNow();
+        dumpExecutor = null;
+        dump(dumpFile);
+    }
+
+    private void dump(Path file) {
+        try {
+            Path parentDir = file.toAbsolutePath().getParent();
+            if (parentDir != null) {
+                Files.createDirectories(parentDir);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(toJson());
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            System.err.println("quack! error writing metrics to " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -1,7 +1,23 @@
 package clementine;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+import clementine.jfr.CommandEvent;
+import clementine.jfr.JfrEvents;
 import clementine.task.Task;
 
 /**
@@ -10,26 +26,94 @@ import clementine.task.Task;
  * and task creation commands. It coordinates between the UI, TaskList, and Storage components
  * to perform the requested operations and provide appropriate feedback to the user.
  *
+ * <p>A CommandProcessor is not thread-safe: the state of a batch in progress, the last page shown
+ * and the undo history are plain fields. Commands must be run one at a time, with each handed over
+ * through a lock or a single thread, as the GUI's command thread, the server's command lock and
+ * each tenant's lock do. Only the background export thread runs alongside, and it shares nothing
+ * but the queue of its failures.
+ *
  * @author zhiyu
  */
 public class CommandProcessor {
+    private static final int HISTORY_RESULT_LIMIT = 20;
+    private static final int DEFAULT_UNDO_DEPTH = 20;
+
     private final UI ui;
     private final Storage storage;
+    private final CommandImporter importer = new CommandImporter();
+    private final IcsImporter icsImporter = new IcsImporter();
+    private final TaskExporter exporter = new TaskExporter();
+    private final ExecutorService exportExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "clementine-export");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // failures of background exports, shown before the response to the next command
+    private final Queue<String> exportNotices = new ConcurrentLinkedQueue<>();
+    // the page each listing command showed last, so that 'list next' can continue from it
+    private final EnumMap<CommandType, PageRequest> lastPages = new EnumMap<>(CommandType.class);
+    private final CommandMetrics metrics = CommandMetrics.global();
+    private final UndoHistory undoHistory;
+    private ConversationLog conversationLog;
+    // time spent parsing and saving during the current command, which is not counted as executing it
+    private long parseNanos = 0;
+    private long persistNanos = 0;
+    private boolean isDeferringSave = false;
+    private boolean hasUnsavedChanges = false;
+    // whether the current command saved a change to the task list, which can then be undone
+    private boolean hasChangedTasks = false;
+    // whether import and export may read and write files named in the command
+    private boolean isFileAccessAllowed = true;
 
     /**
-     * Constructs a new CommandProcessor with the specified UI and Storage components.
+     * Constructs a new CommandProcessor that can undo up to the given number of changes.
      *
      * @param ui the UI component for displaying messages to the user
      * @param storage the Storage component for persisting task data
+     * @param undoDepth the number of changes that can be undone, or 0 to turn undo off
      */
-    public CommandProcessor(UI ui, Storage storage) {
+    public CommandProcessor(UI ui, Storage storage, int undoDepth) {
         this.ui = ui;
         this.storage = storage;
+        this.undoHistory = new UndoHistory(undoDepth);
+    }
+
+    /**
+     * Returns how many changes can be undone in the given task list: the {@code clementine.undoDepth}
+     * system property if it is set, and otherwise 20 for a versioned store, whose snapshots cost only
+     * the nodes later changes copy, and 0 for other stores, where every step would copy the whole list.
+     *
+     * @param tasks the task list the commands will change
+     * @return the undo depth to construct a CommandProcessor with
+     */
+    public static int undoDepthFor(TaskList tasks) {
+        int defaultDepth = tasks.isVersioned() ? DEFAULT_UNDO_DEPTH : 0;
+        return Math.max(0, Integer.getInteger("clementine.undoDepth", defaultDepth));
+    }
+
+    /**
+     * Sets the conversation log that the history command searches.
+     *
+     * @param conversationLog the log of this conversation, or null if none is kept
+     */
+    public void setConversationLog(ConversationLog conversationLog) {
+        this.conversationLog = conversationLog;
+    }
+
+    /**
+     * Stops the import and export commands from reading or writing files, for commands that come
+     * from users who should not reach the file system, such as the server's network clients.
+     */
+    public void disableFileCommands() {
+        isFileAccessAllowed = false;
     }
 
     /**
      * Executes the appropriate command based on the user input.
      * Parses the command type from the input and delegates to specific handler methods.
+     * Records how long the command took, and how long parsing, executing and saving took,
+     * in the process-wide {@link CommandMetrics}. A command that changes the task list is
+     * recorded in the undo history, unless it is part of a batch, which is recorded as a whole.
      *
      * @param input the user's command input string
      * @param tasks the TaskList containing all current tasks
@@ -37,11 +121,66 @@ public class CommandProcessor {
      * @throws ClementineException if the command is invalid or execution fails
      */
     public String executeCommand(String input, TaskList tasks) throws ClementineException {
-        CommandType command = Parser.getCommandType(input);
+        long startNanos = System.nanoTime();
+        parseNanos = 0;
+        persistNanos = 0;
+        CommandType command;
+        try {
+            command = parse(() -> Parser.getCommandType(input));
+        } catch (ClementineException e) {
+            metrics.recordPhase(CommandMetrics.Phase.PARSE, parseNanos);
+            throw e;
+        }
+        CommandEvent event = JfrEvents.ENABLED ? new CommandEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        boolean hasSucceeded = false;
+        boolean isUndoable = command.changesTasks() && !isDeferringSave && undoHistory.isEnabled();
+        TaskList.Snapshot before = isUndoable ? tasks.createSnapshot() : null;
+        hasChangedTasks = false;
+        try {
+            String response = prependExportNotices(runCommand(command, input, tasks));
+            hasSucceeded = true;
+            if (isUndoable && hasChangedTasks) {
+                undoHistory.record(before);
+            }
+            return response;
+        } finally {
+            long endNanos = System.nanoTime();
+            metrics.recordPhase(CommandMetrics.Phase.PARSE, parseNanos);
+            metrics.recordPhase(CommandMetrics.Phase.EXECUTE, endNanos - startNanos - parseNanos - persistNanos);
+            metrics.recordCommand(command, endNanos - startNanos);
+            if (event != null) {
+                event.setCommandType(command.name().toLowerCase());
+                event.setTaskCount(tasks.taskSize());
+                event.setSucceeded(hasSucceeded);
+                event.commit();
+            }
+        }
+    }
 
+    /**
+     * Runs one step of parsing the current command's input, adding the time it took to the command's
+     * parse time, so that parsing arguments and dates inside a handler is not counted as executing it.
+     *
+     * @param step the parsing to run
+     * @return the result of the step
+     * @throws ClementineException if the input cannot be parsed
+     */
+    private <T> T parse(ParseStep<T> step) throws ClementineException {
+        long startNanos = System.nanoTime();
+        try {
+            return step.parse();
+        } finally {
+            parseNanos += System.nanoTime() - startNanos;
+        }
+    }
+
+    private String runCommand(CommandType command, String input, TaskList tasks) throws ClementineException {
         switch(command) {
         case LIST:
-            return handleListCommand(tasks);
+            return handleListCommand(input, tasks);
         case FIND:
             return handleFindCommand(input, tasks);
         case MARK:
@@ -54,20 +193,111 @@ public class CommandProcessor {
         case TODO:
             return handleAddTaskCommand(command, input, tasks);
         case PRIORITY:
-            return handlePriorityCommand(tasks);
+            return handlePriorityCommand(input, tasks);
+        case IMPORT:
+            checkFileAccessAllowed(command);
+            return handleImportCommand(input, tasks);
+        case EXPORT:
+            checkFileAccessAllowed(command);
+            return handleExportCommand(input, tasks);
+        case HISTORY:
+            return handleHistoryCommand(input);
+        case METRICS:
+            return ui.showMetrics(metrics.report());
+        case UNDO:
+        case REDO:
+            return handleUndoCommand(command, tasks);
         default:
             return ui.showError("oh quack! i don't understand this command!");
         }
     }
 
+    private void checkFileAccessAllowed(CommandType command) throws ClementineException {
+        if (!isFileAccessAllowed) {
+            throw new ClementineException("quack! " + command.name().toLowerCase()
+                    + " isn't available here, i can't touch files for you!");
+        }
+    }
+
+    /**
+     * Executes a sequence of commands as a single transaction.
+     * The commands are applied in order and the task list is saved once at the end.
+     * If any command fails, every change made by the earlier commands is rolled back.
+     *
+     * @param inputs the commands to execute, in order
+     * @param tasks the TaskList containing all current tasks
+     * @return the responses of all commands, one after another
+     * @throws ClementineException if any command fails, in which case no changes are kept
+     */
+    public String executeBatch(List<String> inputs, TaskList tasks) throws ClementineException {
+        TaskList.Snapshot snapshot = tasks.createSnapshot();
+        StringBuilder response = new StringBuilder();
+        isDeferringSave = true;
+        hasUnsavedChanges = false;
+        try {
+            for (int i = 0; i < inputs.size(); i++) {
+                try {
+                    response.append(executeCommand(inputs.get(i), tasks));
+                } catch (ClementineException e) {
+                    throw new ClementineException("step " + (i + 1) + " (" + inputs.get(i) + ") failed: "
+                            + e.getMessage() + "\nnone of the commands were applied!");
+                }
+                if (i < inputs.size() - 1) {
+                    response.append("\n");
+                }
+            }
+            isDeferringSave = false;
+            if (hasUnsavedChanges) {
+                saveTasksToStorage(tasks);
+                undoHistory.record(snapshot);
+            }
+        } catch (ClementineException e) {
+            tasks.restore(snapshot);
+            throw e;
+        } finally {
+            isDeferringSave = false;
+            hasUnsavedChanges = false;
+        }
+        return response.toString();
+    }
+
     /**
-     * Handles the list command to display all tasks to the user.
+     * Handles the list command to display a page of tasks to the user.
      *
+     * @param input the user's list command input, with optional paging options
      * @param tasks the TaskList containing all current tasks
-     * @return a String response showing all tasks
+     * @return a String response showing the requested page of tasks
+     * @throws ClementineException if the paging options are invalid or the page is past the end
+     */
+    private String handleListCommand(String input, TaskList tasks) throws ClementineException {
+        List<Task> allTasks = tasks.readView();
+        PageRequest page = resolvePage(CommandType.LIST, input, allTasks.size());
+        return ui.showTaskList(allTasks, page);
+    }
+
+    /**
+     * Works out which page a listing command asks for, continuing from the last page shown
+     * for {@code next}, and remembers it for the next {@code next}.
+     *
+     * @param command the listing command
+     * @param input the user's command input
+     * @param taskCount the number of tasks in the listing
+     * @return the page to show
+     * @throws ClementineException if the paging options are invalid or the page is past the end
      */
-    private String handleListCommand(TaskList tasks) {
-        return ui.showTaskList(tasks.getTaskList());
+    private PageRequest resolvePage(CommandType command, String input, int taskCount) throws ClementineException {
+        PageRequest page = parse(() -> Parser.parsePageRequest(input, command.name().toLowerCase()));
+        if (page.isNext()) {
+            PageRequest lastPage = lastPages.get(command);
+            page = lastPage == null ? PageRequest.of(1, PageRequest.DEFAULT_PAGE_SIZE) : lastPage.following();
+        }
+        int pageCount = page.getPageCount(taskCount);
+        if (page.getPage() > pageCount) {
+            throw new ClementineException("quack! there " + (pageCount == 1 ? "is only 1 page" : "are only "
+                    + pageCount + " pages") + " to show!");
+        }
+        lastPages.put(command, page);
+        return page;
     }
 
     /**
@@ -79,11 +309,27 @@ public class CommandProcessor {
      * @throws ClementineException if the keyword is missing or invalid
      */
     private String handleFindCommand(String input, TaskList tasks) throws ClementineException {
-        String keyword = Parser.parseFindKeyword(input);
+        String keyword = parse(() -> Parser.parseFindKeyword(input));
         ArrayList<Task> matchingTasks = tasks.findTasks(keyword);
         return ui.showFindTasks(matchingTasks);
     }
 
+    /**
+     * Handles the history command to search earlier messages of the conversation for a keyword,
+     * including those that have been moved out of memory to disk.
+     *
+     * @param input the user's history command input
+     * @return a String response showing the most recent matching messages
+     * @throws ClementineException if the keyword is missing, no history is kept or it cannot be read
+     */
+    private String handleHistoryCommand(String input) throws ClementineException {
+        String keyword = parse(() -> Parser.parseHistoryKeyword(input));
+        if (conversationLog == null) {
+            throw new ClementineException("quack! i'm not keeping a history of this conversation!");
+        }
+        return ui.showHistory(keyword, conversationLog.search(keyword, HISTORY_RESULT_LIMIT));
+    }
+
     /**
      * Handles mark and unmark commands to change the completion status of tasks.
      *
@@ -95,22 +341,49 @@ public class CommandProcessor {
      */
     private String handleTaskStatusCommand(CommandType command, String input, TaskList tasks)
             throws ClementineException {
-        int taskNumber = Parser.parseTaskNumber(input, command.name().toLowerCase());
-        Task task = tasks.getTask(taskNumber);
+        if (parse(() -> Parser.isMultipleTaskSelection(input, command.name().toLowerCase()))) {
+            return handleBulkStatusCommand(command, input, tasks);
+        }
+        int taskNumber = parse(() -> Parser.parseTaskNumber(input, command.name().toLowerCase()));
 
         if (command == CommandType.MARK) {
             tasks.markTask(taskNumber);
             saveTasksToStorage(tasks);
-            return ui.showMarkedTask(task);
+            return ui.showMarkedTask(tasks.getTask(taskNumber));
         } else {
             tasks.unmarkTask(taskNumber);
             saveTasksToStorage(tasks);
-            return ui.showUnmarkedTask(task);
+            return ui.showUnmarkedTask(tasks.getTask(taskNumber));
+        }
+    }
+
+    /**
+     * Handles mark and unmark commands that select several tasks with a range or list.
+     * Every task number is validated before any task is changed, and the list is saved once.
+     *
+     * @param command the CommandType (MARK or UNMARK)
+     * @param input the user's command input
+     * @param tasks the TaskList containing the tasks to modify
+     * @return a String response confirming the status change
+     * @throws ClementineException if any task number or range is invalid
+     */
+    private String handleBulkStatusCommand(CommandType command, String input, TaskList tasks)
+            throws ClementineException {
+        int[] taskNumbers = parse(() -> Parser.parseTaskNumbers(input, command.name().toLowerCase(), tasks.taskSize()));
+        if (command == CommandType.MARK) {
+            tasks.markTasks(taskNumbers);
+            saveTasksToStorage(tasks);
+            return ui.showMarkedTasks(taskNumbers.length);
+        } else {
+            tasks.unmarkTasks(taskNumbers);
+            saveTasksToStorage(tasks);
+            return ui.showUnmarkedTasks(taskNumbers.length);
         }
     }
 
     /**
      * Handles the delete command to remove a task from the task list.
+     * Also accepts a range or list of task numbers, or {@code done} to remove all completed tasks.
      *
      * @param input the user's delete command input
      * @param tasks the TaskList containing the task to delete
@@ -118,7 +391,20 @@ public class CommandProcessor {
      * @throws ClementineException if the task number is invalid or out of bounds
      */
     private String handleDeleteCommand(String input, TaskList tasks) throws ClementineException {
-        int taskNumber = Parser.parseTaskNumber(input, "delete");
+        if (parse(() -> Parser.isDoneTaskSelection(input, "delete"))) {
+            int deletedCount = tasks.deleteDoneTasks();
+            if (deletedCount > 0) {
+                saveTasksToStorage(tasks);
+            }
+            return ui.showDeletedTasks(deletedCount, tasks.taskSize());
+        }
+        if (parse(() -> Parser.isMultipleTaskSelection(input, "delete"))) {
+            int[] taskNumbers = parse(() -> Parser.parseTaskNumbers(input, "delete", tasks.taskSize()));
+            int deletedCount = tasks.deleteTasks(taskNumbers);
+            saveTasksToStorage(tasks);
+            return ui.showDeletedTasks(deletedCount, tasks.taskSize());
+        }
+        int taskNumber = parse(() -> Parser.parseTaskNumber(input, "delete"));
         Task deleteTask = tasks.getTask(taskNumber);
         tasks.deleteTask(taskNumber);
         saveTasksToStorage(tasks);
@@ -136,50 +422,192 @@ public class CommandProcessor {
      */
     private String handleAddTaskCommand(CommandType command, String input, TaskList tasks)
             throws ClementineException {
-        Task newTask = parseNewTask(command, input);
+        Task newTask = parse(() -> Parser.parseNewTask(command, input));
         tasks.addTask(newTask);
         saveTasksToStorage(tasks);
         return ui.showTaskAdded(newTask, tasks.taskSize(), command);
     }
 
     /**
-     * Parses user input to create a new Task object based on the command type.
+     * Saves the current task list to storage, or only records that there are unsaved changes
+     * while a batch of commands is being executed.
      *
-     * @param command the CommandType indicating what type of task to create
-     * @param input the user's command input string
-     * @return a new Task object of the appropriate type
-     * @throws ClementineException if the command type is unknown or parsing fails
+     * @param tasks the TaskList to save to persistent storage
+     * @throws ClementineException if there's an error during the save operation
      */
-    private Task parseNewTask(CommandType command, String input) throws ClementineException {
-        switch (command) {
-        case EVENT:
-            return Parser.parseEventTask(input);
-        case DEADLINE:
-            return Parser.parseDeadlineTask(input);
-        case TODO:
-            return Parser.parseTodoTask(input);
-        default:
-            throw new ClementineException("Unknown task type: " + command);
+    private void saveTasksToStorage(TaskList tasks) throws ClementineException {
+        hasChangedTasks = true;
+        if (isDeferringSave) {
+            hasUnsavedChanges = true;
+            return;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            tasks.saveTo(storage);
+        } finally {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            persistNanos += elapsedNanos;
+            metrics.recordPhase(CommandMetrics.Phase.PERSIST, elapsedNanos);
         }
     }
 
     /**
-     * Saves the current task list to storage.
+     * Handles the undo and redo commands, which put the task list back to how it was before the last
+     * change, or make an undone change again. The restored list is saved like any other change.
      *
-     * @param tasks the TaskList to save to persistent storage
-     * @throws ClementineException if there's an error during the save operation
+     * @param command the CommandType (UNDO or REDO)
+     * @param tasks the TaskList to change
+     * @return a String response confirming the undo or redo
+     * @throws ClementineException if there is nothing to undo or redo, or it is part of a batch
      */
-    private void saveTasksToStorage(TaskList tasks) throws ClementineException {
-        storage.save(tasks.getTaskList());
+    private String handleUndoCommand(CommandType command, TaskList tasks) throws ClementineException {
+        if (isDeferringSave) {
+            throw new ClementineException("quack! undo and redo can't be run together with other commands!");
+        }
+        if (command == CommandType.UNDO) {
+            undoHistory.undo(tasks);
+        } else {
+            undoHistory.redo(tasks);
+        }
+        saveTasksToStorage(tasks);
+        return command == CommandType.UNDO ? ui.showUndone(tasks.taskSize()) : ui.showRedone(tasks.taskSize());
     }
 
     /**
-     * Handles the priority command to display tasks sorted by priority level.
+     * Handles the priority command to display a page of tasks sorted by priority level.
      *
+     * @param input the user's priority command input, with optional paging options
      * @param tasks the TaskList containing tasks to filter and sort by priority
      * @return a String response showing tasks ordered by priority
+     * @throws ClementineException if the paging options are invalid or the page is past the end
+     */
+    private String handlePriorityCommand(String input, TaskList tasks) throws ClementineException {
+        ArrayList<Task> priorityTasks = tasks.getTasksByPriority();
+        PageRequest page = resolvePage(CommandType.PRIORITY, input, priorityTasks.size());
+        return ui.showPriorityTasks(priorityTasks, page);
+    }
+
+    /**
+     * Handles the import command to bulk add tasks from a file.
+     * Files ending in {@code .ics} are read as iCalendar files; any other file is read as
+     * one task creation command per line. All new tasks are appended in file order and the
+     * task list is saved once at the end.
+     *
+     * @param input the user's import command input
+     * @param tasks the TaskList to add the imported tasks to
+     * @return a String response summarising the import
+     * @throws ClementineException if the file cannot be read or saving fails
+     */
+    private String handleImportCommand(String input, TaskList tasks) throws ClementineException {
+        String filePath = parse(() -> Parser.parseImportPath(input));
+        ImportResult result = filePath.toLowerCase().endsWith(".ics")
+                ? icsImporter.importFile(filePath, tasks.getTaskList())
+                : importer.importFile(filePath);
+        if (!result.getTasks().isEmpty()) {
+            tasks.addTasks(result.getTasks());
+            saveTasksToStorage(tasks);
+        }
+        return ui.showImportResult(result, tasks.taskSize());
+    }
+
+    /**
+     * Handles the export command to write all tasks to a CSV, JSON or iCalendar file.
+     * The export runs on a background thread over the tasks as they are now, which nothing else
+     * can change, so interactive commands can keep modifying the list while the file is being written.
+     * A versioned list hands over its current version without copying; other lists are copied first.
+     *
+     * @param input the user's export command input
+     * @param tasks the TaskList containing the tasks to export
+     * @return a String response confirming that the export has started
+     * @throws ClementineException if the format or file path is missing or invalid
+     */
+    private String handleExportCommand(String input, TaskList tasks) throws ClementineException {
+        TaskExporter.Format format = parse(() -> Parser.parseExportFormat(input));
+        String filePath = parse(() -> Parser.parseExportPath(input));
+        Path path;
+        try {
+            path = Paths.get(filePath);
+        } catch (InvalidPathException e) {
+            throw new ClementineException("quack! i can't export to " + filePath + ": " + e.getReason());
+        }
+        List<Task> snapshot = tasks.isVersioned() ? tasks.readView() : copyTasks(tasks.asList());
+
+        exportExecutor.execute(() -> exportTasks(snapshot, format, path, filePath));
+        return ui.showExportStarted(snapshot.size(), format, filePath);
+    }
+
+    private static List<Task> copyTasks(List<Task> allTasks) {
+        List<Task> copies = new ArrayList<>(allTasks.size());
+        for (Task task : allTasks) {
+            copies.add(task.copy());
+        }
+        return copies;
+    }
+
+    /**
+     * Streams the given tasks to the file through a buffered writer.
+     * As no command is waiting for the result, any failure is shown before the response to the next command.
+     *
+     * @param snapshot the tasks to export
+     * @param format the document format to write
+     * @param path the file to write to
+     * @param filePath the path of the file as the user gave it
+     */
+    private void exportTasks(List<Task> snapshot, TaskExporter.Format format, Path path, String filePath) {
+        try {
+            Path parentDir = path.toAbsolutePath().getParent();
+            if (parentDir != null) {
+                Files.createDirectories(parentDir);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                exporter.export(snapshot, format, writer);
+            }
+        } catch (IOException e) {
+            exportNotices.add(ui.showExportFailed(filePath, e.getMessage()));
+        } catch (RuntimeException | Error e) {
+            // nothing else would see the failure of a background export
+            exportNotices.add(ui.showExportFailed(filePath, e.toString()));
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+    }
+
+    /**
+     * Puts the messages about exports that have failed since the last command before the given response.
+     *
+     * @param response the response to the current command
+     * @return the response, after any export failures
+     */
+    private String prependExportNotices(String response) {
+        if (exportNotices.isEmpty()) {
+            return response;
+        }
+        StringBuilder withNotices = new StringBuilder();
+        for (String notice = exportNotices.poll(); notice != null; notice = exportNotices.poll()) {
+            withNotices.append(notice).append("\n");
+        }
+        return withNotices.append(response).toString();
+    }
+
+    /**
+     * Waits for any exports still running in the background to finish writing their files.
+     * Should be called when the application is shutting down.
+     */
+    public void shutdown() {
+        exportExecutor.shutdown();
+        try {
+            exportExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A step that parses part of a command's input.
      */
-    private String handlePriorityCommand(TaskList tasks) {
-        return ui.showPriorityTasks(tasks.getTasksByPriority());
+    @FunctionalInterface
+    private interface ParseStep<T> {
+        T parse() throws ClementineException;
     }
 }
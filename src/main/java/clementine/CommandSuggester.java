@@ -0,0 +1,89 @@
+package clementine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import clementine.task.Task;
+
+/**
+ * The CommandSuggester class suggests completions for partly typed input.
+ * While the first word is being typed it completes command words; after that it completes the
+ * rest of the input to the description of a task in the list, so {@code find rea} can become
+ * {@code find read book}. Only the last command of a semicolon-separated pipeline is completed.
+ * Task descriptions are kept in a {@link PrefixTrie} that is updated as tasks are added and removed.
+ *
+ * @author zhiyu
+ */
+public class CommandSuggester implements TaskListListener {
+    private final PrefixTrie commandWords = new PrefixTrie();
+    private final PrefixTrie descriptions = new PrefixTrie();
+
+    /**
+     * Constructs a CommandSuggester that knows every command word and no task descriptions yet.
+     */
+    public CommandSuggester() {
+        for (CommandType command : CommandType.values()) {
+            commandWords.add(command.name().toLowerCase());
+        }
+        commandWords.add("bye");
+    }
+
+    /**
+     * Returns up to {@code limit} completed versions of the given input, in alphabetical order.
+     * Suggestions that would not change the input are left out.
+     *
+     * @param input the text typed so far
+     * @param limit the most suggestions to return
+     * @return the suggested inputs, possibly empty
+     */
+    public List<String> suggest(String input, int limit) {
+        int commandStart = input.lastIndexOf(';') + 1;
+        while (commandStart < input.length() && input.charAt(commandStart) == ' ') {
+            commandStart++;
+        }
+        int wordEnd = input.indexOf(' ', commandStart);
+
+        int partStart;
+        List<String> completions;
+        if (wordEnd < 0) {
+            partStart = commandStart;
+            completions = commandWords.complete(input.substring(partStart), limit + 1);
+        } else {
+            partStart = wordEnd + 1;
+            while (partStart < input.length() && input.charAt(partStart) == ' ') {
+                partStart++;
+            }
+            if (partStart == input.length()) {
+                return List.of();
+            }
+            completions = descriptions.complete(input.substring(partStart), limit + 1);
+        }
+
+        String typedPart = input.substring(partStart);
+        List<String> suggestions = new ArrayList<>(completions.size());
+        for (String completion : completions) {
+            if (!completion.equals(typedPart) && suggestions.size() < limit) {
+                suggestions.add(input.substring(0, partStart) + completion);
+            }
+        }
+        return suggestions;
+    }
+
+    @Override
+    public void onTaskAdded(Task task) {
+        descriptions.add(task.getDescription());
+    }
+
+    @Override
+    public void onTaskRemoved(Task task) {
+        descriptions.remove(task.getDescription());
+    }
+
+    @Override
+    public void onTasksReplaced(List<Task> tasks) {
+        descriptions.clear();
+        for (Task task : tasks) {
+            descriptions.add(task.getDescription());
+        }
+    }
+}
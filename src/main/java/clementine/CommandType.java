@@ -17,7 +17,33 @@ public enum CommandType {
     EVENT,
     DELETE,
     FIND,
-    PRIORITY;
+    PRIORITY,
+    IMPORT,
+    EXPORT,
+    HISTORY,
+    METRICS,
+    UNDO,
+    REDO;
+
+    /**
+     * Checks whether commands of this type can change the task list, and so can be undone.
+     *
+     * @return true if the command adds, removes or marks tasks
+     */
+    public boolean changesTasks() {
+        switch (this) {
+        case MARK:
+        case UNMARK:
+        case TODO:
+        case DEADLINE:
+        case EVENT:
+        case DELETE:
+        case IMPORT:
+            return true;
+        default:
+            return false;
+        }
+    }
 
     /**
      * Converts a string command input to the corresponding CommandType enum constant.
@@ -47,6 +73,18 @@ public enum CommandType {
             return FIND;
         case "priority":
             return PRIORITY;
+        case "import":
+            return IMPORT;
+        case "export":
+            return EXPORT;
+        case "history":
+            return HISTORY;
+        case "metrics":
+            return METRICS;
+        case "undo":
+            return UNDO;
+        case "redo":
+            return REDO;
         default:
             throw new ClementineException("quack quack! i don't recognise this word!");
         }
@@ -0,0 +1,53 @@
+package clementine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * The ConsoleRenderer class writes responses to the console between divider lines.
+ * Each response is written through one buffered writer and flushed once, instead of
+ * being printed a line at a time.
+ *
+ * @author zhiyu
+ */
+public class ConsoleRenderer implements Renderer {
+    private static final String DIVIDER = "______________________________________________";
+
+    private final BufferedWriter out;
+
+    /**
+     * Constructs a ConsoleRenderer that writes to the given stream.
+     *
+     * @param out the stream to write to, usually {@code System.out}
+     */
+    public ConsoleRenderer(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out));
+    }
+
+    /**
+     * Writes the response between two divider lines and flushes it to the console.
+     *
+     * @param response the complete response to a command
+     */
+    @Override
+    public void render(String response) {
+        try {
+            writeDivider();
+            out.write(response);
+            out.newLine();
+            writeDivider();
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeDivider() throws IOException {
+        out.write(DIVIDER);
+        out.newLine();
+        out.newLine();
+    }
+}
@@ -0,0 +1,335 @@
+package clementine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The ConversationLog class keeps the history of a conversation without letting it grow in memory.
+ * Only the most recent messages are held in memory; older ones are appended to segment files in
+ * the log directory, one message per line. When a segment grows past its size limit a new one is
+ * started, and the oldest segments are deleted once there are too many, so the disk use is bounded too.
+ * The messages still in memory are written out when the log is closed, so history survives restarts.
+ *
+ * <p>Each line starts with {@code u|} for the user's messages or {@code c|} for Clementine's,
+ * followed by the text with backslashes, line feeds and carriage returns escaped.
+ *
+ * @author zhiyu
+ */
+public class ConversationLog {
+    public static final int DEFAULT_MEMORY_LIMIT = 200;
+    private static final long DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+    private static final int DEFAULT_MAX_SEGMENTS = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String USER_MARKER = "u|";
+    private static final String CLEMENTINE_MARKER = "c|";
+
+    private final Path directory;
+    private final int memoryLimit;
+    private final long segmentSize;
+    private final int maxSegments;
+    private final ArrayDeque<Message> recentMessages = new ArrayDeque<>();
+
+    private BufferedWriter segmentWriter;
+    private int segmentIndex;
+    private long segmentLength;
+    private boolean hasReportedError = false;
+
+    /**
+     * Constructs a conversation log that spills to segment files in the given directory.
+     * Nothing is written until the first message leaves memory.
+     *
+     * @param directory the directory holding the segment files; created if it doesn't exist
+     * @param memoryLimit the number of recent messages to keep in memory
+     */
+    public ConversationLog(Path directory, int memoryLimit) {
+        this(directory, memoryLimit, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_SEGMENTS);
+    }
+
+    /**
+     * Constructs a conversation log with the given segment limits.
+     *
+     * @param directory the directory holding the segment files; created if it doesn't exist
+     * @param memoryLimit the number of recent messages to keep in memory
+     * @param segmentSize the number of characters after which a new segment is started
+     * @param maxSegments the number of segments to keep before the oldest is deleted
+     */
+    ConversationLog(Path directory, int memoryLimit, long segmentSize, int maxSegments) {
+        assert memoryLimit >= 0 : "Memory limit should not be negative";
+        assert segmentSize > 0 && maxSegments > 0 : "Segment limits should be positive";
+        this.directory = directory;
+        this.memoryLimit = memoryLimit;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * Adds a message to the log, writing the oldest message in memory to disk if the memory limit is reached.
+     * Disk errors are reported on standard error rather than failing the command that is being logged.
+     *
+     * @param message the message to add
+     */
+    public synchronized void record(Message message) {
+        recentMessages.addLast(message);
+        while (recentMessages.size() > memoryLimit) {
+            spill(recentMessages.pollFirst());
+        }
+    }
+
+    /**
+     * Returns the messages still held in memory, oldest first.
+     *
+     * @return a copy of the recent messages
+     */
+    public synchronized List<Message> getRecentMessages() {
+        return new ArrayList<>(recentMessages);
+    }
+
+    /**
+     * Finds the messages containing the given keyword, ignoring case. The segments are read one
+     * line at a time and only the last {@code limit} matches are kept, so a search needs the same
+     * memory however long the history is.
+     *
+     * @param keyword the text to search for
+     * @param limit the most matches to return
+     * @return the most recent matches, oldest first, and the total number of matches
+     * @throws ClementineException if a segment cannot be read
+     */
+    public synchronized SearchResult search(String keyword, int limit) throws ClementineException {
+        ArrayDeque<Message> matches = new ArrayDeque<>(Math.min(limit, 64));
+        int matchCount = 0;
+        String escapedKeyword = escape(keyword);
+        try {
+            if (segmentWriter != null) {
+                segmentWriter.flush();
+            }
+            for (Path segment : listSegments()) {
+                try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        // the escaped line contains the escaped keyword whenever the message contains the keyword
+                        if (!containsIgnoreCase(line, escapedKeyword)) {
+                            continue;
+                        }
+                        Message message = decode(line);
+                        if (message != null && containsIgnoreCase(message.getText(), keyword)) {
+                            matchCount++;
+                            keepLast(matches, message, limit);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new ClementineException("quack! error reading the conversation history: " + e.getMessage());
+        }
+        for (Message message : recentMessages) {
+            if (containsIgnoreCase(message.getText(), keyword)) {
+                matchCount++;
+                keepLast(matches, message, limit);
+            }
+        }
+        return new SearchResult(new ArrayList<>(matches), matchCount);
+    }
+
+    /**
+     * Writes the messages still in memory to disk and closes the current segment.
+     * Should be called once when the application exits.
+     */
+    public synchronized void close() {
+        while (!recentMessages.isEmpty()) {
+            spill(recentMessages.pollFirst());
+        }
+        try {
+            if (segmentWriter != null) {
+                segmentWriter.close();
+                segmentWriter = null;
+            }
+        } catch (IOException e) {
+            reportError(e);
+        }
+    }
+
+    private static void keepLast(ArrayDeque<Message> matches, Message message, int limit) {
+        if (limit <= 0) {
+            return;
+        }
+        if (matches.size() == limit) {
+            matches.pollFirst();
+        }
+        matches.addLast(message);
+    }
+
+    /**
+     * Appends a message to the current segment, starting a new segment first if the current one is full.
+     */
+    private void spill(Message message) {
+        String line = (message.isFromUser() ? USER_MARKER : CLEMENTINE_MARKER) + escape(message.getText());
+        try {
+            if (segmentWriter == null) {
+                openLatestSegment();
+            } else if (segmentLength >= segmentSize) {
+                segmentWriter.close();
+                openSegment(segmentIndex + 1);
+                deleteOldSegments();
+            }
+            segmentWriter.write(line);
+            segmentWriter.write('\n');
+            segmentLength += line.length() + 1;
+        } catch (IOException e) {
+            reportError(e);
+        }
+    }
+
+    /**
+     * Continues the newest existing segment, or starts the first one if there are none.
+     */
+    private void openLatestSegment() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            openSegment(1);
+            return;
+        }
+        Path latest = segments.get(segments.size() - 1);
+        int latestIndex = parseSegmentIndex(latest);
+        if (Files.size(latest) >= segmentSize) {
+            openSegment(latestIndex + 1);
+            deleteOldSegments();
+        } else {
+            openSegment(latestIndex);
+        }
+    }
+
+    private void openSegment(int index) throws IOException {
+        Path segment = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+        segmentWriter = Files.newBufferedWriter(segment, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        segmentIndex = index;
+        segmentLength = Files.size(segment);
+    }
+
+    private void deleteOldSegments() throws IOException {
+        List<Path> segments = listSegments();
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    /**
+     * Returns the segment files in the log directory, oldest first.
+     */
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path segment : stream) {
+                if (parseSegmentIndex(segment) > 0) {
+                    segments.add(segment);
+                }
+            }
+        }
+        // zero-padded names sort in the order the segments were written
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static int parseSegmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void reportError(IOException e) {
+        if (!hasReportedError) {
+            hasReportedError = true;
+            System.err.println("quack! error writing the conversation history: " + e.getMessage());
+        }
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement = c == '\\' ? "\\\\" : c == '\n' ? "\\n" : c == '\r' ? "\\r" : null;
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(text.length() + 16).append(text, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(c);
+                }
+            }
+        }
+        return escaped == null ? text : escaped.toString();
+    }
+
+    /**
+     * Turns a segment line back into a message, or returns null if the line is not a logged message.
+     */
+    private static Message decode(String line) {
+        boolean isFromUser = line.startsWith(USER_MARKER);
+        if (!isFromUser && !line.startsWith(CLEMENTINE_MARKER)) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder(line.length());
+        for (int i = USER_MARKER.length(); i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                char escaped = line.charAt(++i);
+                text.append(escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                text.append(c);
+            }
+        }
+        return isFromUser ? Message.fromUser(text.toString()) : Message.fromClementine(text.toString());
+    }
+
+    private static boolean containsIgnoreCase(String text, String keyword) {
+        int last = text.length() - keyword.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, keyword, 0, keyword.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The most recent messages found by a search, along with how many messages matched in total.
+     */
+    public static class SearchResult {
+        private final List<Message> messages;
+        private final int matchCount;
+
+        SearchResult(List<Message> messages, int matchCount) {
+            this.messages = messages;
+            this.matchCount = matchCount;
+        }
+
+        public List<Message> getMessages() {
+            return messages;
+        }
+
+        public int getMatchCount() {
+            return matchCount;
+        }
+    }
+}
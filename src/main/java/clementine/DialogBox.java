@@ -1,61 +1,124 @@
 package clementine;
 
-import java.io.IOException;
-import java.util.Collections;
-
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.beans.binding.Bindings;
+import javafx.beans.value.ObservableDoubleValue;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+import javafx.scene.shape.Circle;
 
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face
  * and a label containing text from the speaker.
+ * A dialog box can be updated to show a different message, so that the conversation view
+ * can reuse the same few boxes however long the conversation grows.
+ * The nodes are built in code rather than loaded from FXML, so creating a box does not parse a layout;
+ * {@code DialogBoxBenchmark} compares the two.
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
-
-    private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    static final double PICTURE_SIZE = 99.0;
+    private static final String STYLESHEET = DialogBox.class.getResource("/css/dialog-box.css").toExternalForm();
+    private static final String REPLY_STYLE_CLASS = "reply-label";
+    private static final Insets BOX_PADDING = new Insets(15.0, 5.0, 15.0, 5.0);
+    private static final Insets LABEL_MARGIN = new Insets(0.0, 7.0, 0.0, 7.0);
+    private static final Insets LABEL_PADDING = new Insets(6.0);
+    // room kept free for the list's vertical scroll bar and cell padding
+    private static final double SCROLL_BAR_WIDTH = 20.0;
+    // room taken up beside the text by the picture, the margins and the scroll bar
+    private static final double PICTURE_AND_MARGIN_WIDTH = 140.0;
+
+    private final Label dialog = new Label();
+    private final ImageView displayPicture = new ImageView();
+
+    private boolean isFlipped;
+
+    /**
+     * Constructs an empty dialog box laid out for a user message.
+     */
+    public DialogBox() {
+        this(false);
+    }
+
+    /**
+     * Constructs an empty dialog box, with the ImageView on the left if flipped and on the right otherwise.
+     */
+    private DialogBox(boolean isFlipped) {
+        dialog.setId("dialog");
+        dialog.setWrapText(true);
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
+        dialog.setPadding(LABEL_PADDING);
+        HBox.setMargin(dialog, LABEL_MARGIN);
+
+        displayPicture.setId("displayPicture");
+        displayPicture.setFitWidth(PICTURE_SIZE);
+        displayPicture.setFitHeight(PICTURE_SIZE);
+        displayPicture.setPickOnBounds(true);
+        displayPicture.setPreserveRatio(true);
+        displayPicture.setClip(new Circle(50.0, 50.0, 30.0));
 
+        setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        setPrefWidth(400.0);
+        setPadding(BOX_PADDING);
+        getStylesheets().add(STYLESHEET);
+        layOut(isFlipped);
+    }
+
+    /**
+     * Shows the given message in this dialog box, placing the picture on the right for the user's
+     * messages and on the left for Clementine's.
+     *
+     * @param text the message text
+     * @param img the picture of the speaker
+     * @param isFromUser whether the user sent the message
+     */
+    public void showMessage(String text, Image img, boolean isFromUser) {
         dialog.setText(text);
         displayPicture.setImage(img);
+        if (isFlipped == isFromUser) {
+            layOut(!isFromUser);
+        }
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Sizes the dialog box to the given width and limits the text to what fits beside the picture,
+     * so that long messages wrap onto more lines instead of widening the dialog box.
+     *
+     * @param width the width available to the whole dialog box
      */
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
-        dialog.getStyleClass().add("reply-label");
+    public void fitToWidth(ObservableDoubleValue width) {
+        prefWidthProperty().bind(Bindings.max(0.0, Bindings.subtract(width, SCROLL_BAR_WIDTH)));
+        dialog.maxWidthProperty().bind(Bindings.max(0.0, Bindings.subtract(width, PICTURE_AND_MARGIN_WIDTH)));
+    }
+
+    /**
+     * Places the ImageView on the left and text on the right when flipped, and the other way round otherwise.
+     */
+    private void layOut(boolean isFlipped) {
+        this.isFlipped = isFlipped;
+        if (isFlipped) {
+            getChildren().setAll(displayPicture, dialog);
+            setAlignment(Pos.TOP_LEFT);
+            dialog.getStyleClass().add(REPLY_STYLE_CLASS);
+        } else {
+            getChildren().setAll(dialog, displayPicture);
+            setAlignment(Pos.TOP_RIGHT);
+            dialog.getStyleClass().remove(REPLY_STYLE_CLASS);
+        }
     }
 
     public static DialogBox getUserDialog(String text, Image img) {
-        return new DialogBox(text, img);
+        var db = new DialogBox(false);
+        db.showMessage(text, img, true);
+        return db;
     }
 
     public static DialogBox getClementineDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
+        var db = new DialogBox(true);
+        db.showMessage(text, img, false);
         return db;
     }
 }
@@ -0,0 +1,343 @@
+package clementine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+
+import clementine.task.Deadline;
+import clementine.task.Event;
+import clementine.task.Task;
+import clementine.task.Todo;
+
+/**
+ * The IcsImporter class reads tasks from iCalendar (.ics) files.
+ * The file is streamed one content line at a time, unfolding continuation lines as they are read,
+ * so only the properties of the component currently being read are held in memory.
+ * VEVENT components become Event tasks and VTODO components become Deadline tasks, or Todo tasks
+ * if they have no due time. Components nested inside them, such as VALARM, are skipped so their
+ * properties do not overwrite those of the enclosing task. Entries that match a task already in
+ * the list, or an earlier entry in the same file, are skipped.
+ *
+ * @author zhiyu
+ */
+public class IcsImporter {
+    private static final DateTimeFormatter ICS_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter ICS_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /**
+     * Reads all VEVENT and VTODO components in the given file that are not already in the task list.
+     *
+     * @param filePath the path of the .ics file to import
+     * @param existingTasks the tasks currently in the list, used to skip duplicate entries
+     * @return the outcome of the import, including the new tasks in file order
+     * @throws ClementineException if the file cannot be found or read
+     */
+    public ImportResult importFile(String filePath, List<Task> existingTasks) throws ClementineException {
+        long startTime = System.nanoTime();
+        ImportResult result = new ImportResult("entries");
+        HashSet<String> knownKeys = new HashSet<>();
+        for (Task task : existingTasks) {
+            knownKeys.add(getDuplicateKey(task));
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            Component component = null;
+            int lineNumber = 0;
+            int pendingLineNumber = 0;
+            int componentLineNumber = 0;
+            // how many components nested inside the current one are open
+            int nestedDepth = 0;
+            // the content line being unfolded, built up in place so long folded properties stay linear
+            StringBuilder pending = null;
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+                if (line != null && !line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t')) {
+                    // folded continuation of the previous content line
+                    if (pending == null) {
+                        pending = new StringBuilder();
+                    }
+                    pending.append(line, 1, line.length());
+                    continue;
+                }
+
+                if (pending != null) {
+                    String contentLine = pending.toString();
+                    if (component == null) {
+                        component = startComponent(contentLine);
+                        componentLineNumber = pendingLineNumber;
+                        nestedDepth = 0;
+                    } else if (startsWithIgnoreCase(contentLine, "BEGIN:")) {
+                        nestedDepth++;
+                    } else if (nestedDepth > 0) {
+                        if (startsWithIgnoreCase(contentLine, "END:")) {
+                            nestedDepth--;
+                        }
+                    } else if (isComponentEnd(contentLine, component)) {
+                        addComponent(component, "line " + componentLineNumber, knownKeys, result);
+                        component = null;
+                    } else {
+                        component.readProperty(contentLine);
+                    }
+                }
+                pending = line == null ? null : new StringBuilder(line);
+                pendingLineNumber = lineNumber;
+            } while (line != null);
+        } catch (NoSuchFileException e) {
+            throw new ClementineException("quack! i can't find the file " + filePath);
+        } catch (IOException e) {
+            throw new ClementineException("quack! error reading import file: " + e.getMessage());
+        }
+
+        result.finish(System.nanoTime() - startTime);
+        return result;
+    }
+
+    /**
+     * Starts collecting a VEVENT or VTODO component if the content line begins one.
+     *
+     * @param contentLine an unfolded content line
+     * @return a new Component, or null if the line does not begin a VEVENT or VTODO
+     */
+    private Component startComponent(String contentLine) {
+        if (contentLine.equalsIgnoreCase("BEGIN:VEVENT")) {
+            return new Component(true);
+        } else if (contentLine.equalsIgnoreCase("BEGIN:VTODO")) {
+            return new Component(false);
+        }
+        return null;
+    }
+
+    private boolean isComponentEnd(String contentLine, Component component) {
+        return contentLine.equalsIgnoreCase(component.isEvent ? "END:VEVENT" : "END:VTODO");
+    }
+
+    private static boolean startsWithIgnoreCase(String contentLine, String prefix) {
+        return contentLine.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    /**
+     * Converts a completed component into a task and records it, unless it is invalid or a duplicate.
+     */
+    private void addComponent(Component component, String location, HashSet<String> knownKeys,
+            ImportResult result) {
+        result.recordRead();
+        try {
+            Task task = component.toTask();
+            if (knownKeys.add(getDuplicateKey(task))) {
+                result.addTask(task);
+            } else {
+                result.recordDuplicate();
+            }
+        } catch (ClementineException e) {
+            result.recordError(location, e.getMessage());
+        }
+    }
+
+    /**
+     * Returns a key identifying a task by its type, description and times, used to detect duplicates.
+     *
+     * @param task the task to identify
+     * @return the duplicate detection key of the task
+     */
+    private static String getDuplicateKey(Task task) {
+        if (task instanceof Deadline) {
+            return "D|" + task.getDescription() + "|" + ((Deadline) task).getBy();
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            return "E|" + task.getDescription() + "|" + event.getStart() + "|" + event.getEnd();
+        } else {
+            return "T|" + task.getDescription();
+        }
+    }
+
+    /**
+     * Parses an iCalendar DATE or DATE-TIME value into a local date and time.
+     * UTC times and times with a TZID parameter are converted to the system time zone;
+     * floating times are taken as they are. Seconds are dropped to match the precision of stored tasks.
+     *
+     * @param parameters the property parameters, such as {@code TZID=Asia/Singapore}, or an empty string
+     * @param value the property value
+     * @return the parsed local date and time
+     * @throws ClementineException if the value is not a valid DATE or DATE-TIME
+     */
+    static LocalDateTime parseIcsDateTime(String parameters, String value) throws ClementineException {
+        try {
+            LocalDateTime dateTime;
+            if (value.length() == 8) {
+                return LocalDate.parse(value, ICS_DATE).atStartOfDay();
+            } else if (value.endsWith("Z")) {
+                dateTime = LocalDateTime.parse(value.substring(0, value.length() - 1), ICS_DATE_TIME)
+                        .atOffset(ZoneOffset.UTC).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            } else {
+                dateTime = LocalDateTime.parse(value, ICS_DATE_TIME);
+                String timeZone = getParameter(parameters, "TZID");
+                if (timeZone != null) {
+                    dateTime = dateTime.atZone(ZoneId.of(timeZone))
+                            .withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+                }
+            }
+            return dateTime.truncatedTo(ChronoUnit.MINUTES);
+        } catch (DateTimeException e) {
+            throw new ClementineException("invalid date/time " + value);
+        }
+    }
+
+    private static String getParameter(String parameters, String name) {
+        for (String parameter : parameters.split(";")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0 && parameter.substring(0, equals).equalsIgnoreCase(name)) {
+                return parameter.substring(equals + 1).replace("\"", "");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses an iCalendar DURATION value such as {@code PT1H30M}, {@code P1D} or {@code P2W}.
+     */
+    private static Duration parseIcsDuration(String value) throws ClementineException {
+        try {
+            if (value.endsWith("W")) {
+                int sign = value.startsWith("-") ? -1 : 1;
+                String weeks = value.replaceAll("[^0-9]", "");
+                return Duration.ofDays(sign * 7L * Long.parseLong(weeks));
+            }
+            return Duration.parse(value);
+        } catch (RuntimeException e) {
+            throw new ClementineException("invalid duration " + value);
+        }
+    }
+
+    private static String unescapeText(String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                // tasks are stored one per line, so escaped line breaks become spaces
+                builder.append(next == 'n' || next == 'N' ? ' ' : next);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString().trim();
+    }
+
+    /**
+     * Collects the properties of a single VEVENT or VTODO component while it is being read.
+     */
+    private static class Component {
+        private final boolean isEvent;
+        private String summary;
+        private String startParameters = "";
+        private String start;
+        private String endParameters = "";
+        private String end;
+        private String duration;
+        private boolean isCompleted;
+        private int priority;
+
+        Component(boolean isEvent) {
+            this.isEvent = isEvent;
+        }
+
+        /**
+         * Records a content line of the form {@code NAME;PARAMETERS:VALUE} if it is a property of interest.
+         */
+        void readProperty(String contentLine) {
+            int colon = contentLine.indexOf(':');
+            if (colon < 0) {
+                return;
+            }
+            String nameAndParameters = contentLine.substring(0, colon);
+            String value = contentLine.substring(colon + 1).trim();
+            int semicolon = nameAndParameters.indexOf(';');
+            String name = (semicolon < 0 ? nameAndParameters : nameAndParameters.substring(0, semicolon))
+                    .toUpperCase();
+            String parameters = semicolon < 0 ? "" : nameAndParameters.substring(semicolon + 1);
+
+            switch (name) {
+            case "SUMMARY":
+                summary = unescapeText(value);
+                break;
+            case "DTSTART":
+                start = value;
+                startParameters = parameters;
+                break;
+            case "DTEND":
+            case "DUE":
+                end = value;
+                endParameters = parameters;
+                break;
+            case "DURATION":
+                duration = value;
+                break;
+            case "STATUS":
+                isCompleted = value.equalsIgnoreCase("COMPLETED");
+                break;
+            case "PRIORITY":
+                try {
+                    priority = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    // ignore invalid priority
+                }
+                break;
+            default:
+                break;
+            }
+        }
+
+        /**
+         * Converts the collected properties into an Event, Deadline or Todo task.
+         */
+        Task toTask() throws ClementineException {
+            if (summary == null || summary.isEmpty()) {
+                throw new ClementineException("the entry has no SUMMARY");
+            }
+            Parser.checkDescription(summary);
+            Priority taskPriority = priority > 0 ? Priority.of(priority) : null;
+
+            Task task;
+            if (isEvent) {
+                if (start == null) {
+                    throw new ClementineException("the event has no DTSTART");
+                }
+                LocalDateTime startTime = parseIcsDateTime(startParameters, start);
+                LocalDateTime endTime = startTime;
+                if (end != null) {
+                    endTime = parseIcsDateTime(endParameters, end);
+                } else if (duration != null) {
+                    endTime = startTime.plus(parseIcsDuration(duration));
+                }
+                task = taskPriority != null ? new Event(summary, startTime, endTime, taskPriority)
+                        : new Event(summary, startTime, endTime);
+            } else if (end != null) {
+                LocalDateTime dueTime = parseIcsDateTime(endParameters, end);
+                task = taskPriority != null ? new Deadline(summary, dueTime, taskPriority)
+                        : new Deadline(summary, dueTime);
+            } else {
+                task = taskPriority != null ? new Todo(summary, taskPriority) : new Todo(summary);
+            }
+
+            if (isCompleted) {
+                task.taskDone();
+            }
+            return task;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package clementine;
+
+import java.util.ArrayList;
+
+import clementine.task.Task;
+
+/**
+ * The ImportResult class holds the outcome of a bulk import: the parsed tasks in the order
+ * they were read, how many entries were read, skipped as duplicates or rejected, and the
+ * time taken. Only the first few error messages are kept so that the memory used does not
+ * grow with the number of invalid entries.
+ *
+ * @author zhiyu
+ */
+public class ImportResult {
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final String unitName;
+    private final ArrayList<Task> tasks = new ArrayList<>();
+    private final ArrayList<String> reportedErrors = new ArrayList<>();
+    private int entriesRead;
+    private int duplicateCount;
+    private int errorCount;
+    private long elapsedNanos;
+
+    /**
+     * Constructs an empty ImportResult.
+     * @param unitName the name of the unit entries are read in, such as "lines" or "entries"
+     */
+    ImportResult(String unitName) {
+        this.unitName = unitName;
+    }
+
+    void recordRead() {
+        entriesRead++;
+    }
+
+    void addTask(Task task) {
+        tasks.add(task);
+    }
+
+    void recordDuplicate() {
+        duplicateCount++;
+    }
+
+    void recordError(String location, String message) {
+        errorCount++;
+        if (reportedErrors.size() < MAX_REPORTED_ERRORS) {
+            reportedErrors.add(location + ": " + message);
+        }
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the successfully parsed tasks in the order they were read.
+     * @return the list of parsed tasks
+     */
+    public ArrayList<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Returns the error messages of the first few invalid entries, prefixed with their location.
+     * @return at most 20 error messages
+     */
+    public ArrayList<String> getReportedErrors() {
+        return reportedErrors;
+    }
+
+    /**
+     * Returns the name of the unit entries were read in, such as "lines" or "entries".
+     * @return the unit name
+     */
+    public String getUnitName() {
+        return unitName;
+    }
+
+    /**
+     * Returns the total number of entries read, including skipped ones.
+     * @return the number of entries read
+     */
+    public int getEntriesRead() {
+        return entriesRead;
+    }
+
+    /**
+     * Returns the number of entries skipped because the task already exists.
+     * @return the number of duplicate entries
+     */
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    /**
+     * Returns the total number of entries that could not be imported.
+     * @return the number of invalid entries
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Returns the import throughput in entries per second.
+     * @return the number of entries processed per second
+     */
+    public long getEntriesPerSecond() {
+        return elapsedNanos == 0 ? entriesRead : (long) (entriesRead * 1_000_000_000.0 / elapsedNanos);
+    }
+
+    /**
+     * Returns the time taken to read and parse the file in milliseconds.
+     * @return the elapsed time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+}
@@ -0,0 +1,147 @@
+package clementine;
+
+import java.io.IOException;
+
+/**
+ * The Json class provides minimal helpers for writing JSON string values and reading
+ * string fields from flat JSON objects. Values are escaped straight into the destination
+ * so that callers can stream documents without building them in memory first.
+ *
+ * @author zhiyu
+ */
+public class Json {
+
+    /**
+     * Writes the given value as a quoted and escaped JSON string.
+     *
+     * @param out the destination to write to
+     * @param value the string value to write
+     * @throws IOException if writing to the destination fails
+     */
+    public static void writeString(Appendable out, String value) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                out.append("\\\"");
+                break;
+            case '\\':
+                out.append("\\\\");
+                break;
+            case '\n':
+                out.append("\\n");
+                break;
+            case '\r':
+                out.append("\\r");
+                break;
+            case '\t':
+                out.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    out.append(String.format("\\u%04x", (int) c));
+                } else {
+                    out.append(c);
+                }
+                break;
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Returns the given value as a quoted and escaped JSON string.
+     *
+     * @param value the string value to quote
+     * @return the JSON string literal for the value
+     */
+    public static String quote(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2);
+        try {
+            writeString(builder, value);
+        } catch (IOException e) {
+            throw new AssertionError("StringBuilder does not throw IOException", e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Reads the value of a top-level string field from a flat JSON object, such as the
+     * {@code command} field of {@code {"command": "list"}}.
+     *
+     * @param json the JSON object text
+     * @param name the name of the field to read
+     * @return the unescaped string value of the field, or null if the field is absent
+     * @throws IllegalArgumentException if the field's value is not a well-formed JSON string
+     */
+    public static String readStringField(String json, String name) {
+        String key = quote(name);
+        int keyIndex = json.indexOf(key);
+        while (keyIndex >= 0) {
+            int index = skipWhitespace(json, keyIndex + key.length());
+            if (index < json.length() && json.charAt(index) == ':') {
+                index = skipWhitespace(json, index + 1);
+                return readString(json, index);
+            }
+            keyIndex = json.indexOf(key, keyIndex + 1);
+        }
+        return null;
+    }
+
+    private static int skipWhitespace(String json, int index) {
+        while (index < json.length() && Character.isWhitespace(json.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static String readString(String json, int index) {
+        if (index >= json.length() || json.charAt(index) != '"') {
+            throw new IllegalArgumentException("expected a string value");
+        }
+        StringBuilder value = new StringBuilder();
+        for (int i = index + 1; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (++i >= json.length()) {
+                break;
+            }
+            char escaped = json.charAt(i);
+            switch (escaped) {
+            case 'n':
+                value.append('\n');
+                break;
+            case 'r':
+                value.append('\r');
+                break;
+            case 't':
+                value.append('\t');
+                break;
+            case 'b':
+                value.append('\b');
+                break;
+            case 'f':
+                value.append('\f');
+                break;
+            case 'u':
+                if (i + 4 >= json.length()) {
+                    throw new IllegalArgumentException("incomplete unicode escape");
+                }
+                value.append((char) Integer.parseInt(json.substring(i + 1, i + 5), 16));
+                i += 4;
+                break;
+            default:
+                value.append(escaped);
+                break;
+            }
+        }
+        throw new IllegalArgumentException("unterminated string value");
+    }
+}
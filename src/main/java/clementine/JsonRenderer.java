@@ -0,0 +1,46 @@
+package clementine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The JsonRenderer class writes each response as a single line of JSON, such as
+ * {@code {"response":"yay! u have no tasks right now :)"}}, so that scripts can drive
+ * Clementine through standard input and output.
+ *
+ * @author zhiyu
+ */
+public class JsonRenderer implements Renderer {
+    private final BufferedWriter out;
+
+    /**
+     * Constructs a JsonRenderer that writes UTF-8 JSON lines to the given stream.
+     *
+     * @param out the stream to write to, usually {@code System.out}
+     */
+    public JsonRenderer(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the response as one JSON object on its own line and flushes it.
+     *
+     * @param response the complete response to a command
+     */
+    @Override
+    public void render(String response) {
+        try {
+            out.write("{\"response\":");
+            Json.writeString(out, response);
+            out.write('}');
+            out.newLine();
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
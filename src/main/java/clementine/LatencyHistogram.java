@@ -0,0 +1,122 @@
+package clementine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LatencyHistogram class counts durations in log-linear buckets: every power of two is split
+ * into 16 equal buckets, so any recorded duration is reported to within about 6% while a
+ * histogram covering a nanosecond to half an hour needs only 600 counters.
+ * Recording is lock-free and never allocates, so it can be done on every command from any
+ * number of threads. Reading while others record gives a close but not exact snapshot.
+ *
+ * @author zhiyu
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // durations from 2^41 ns (about 37 minutes) upwards all share the last bucket
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_TRACKED_NANOS = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int BUCKET_COUNT = bucketIndex(MAX_TRACKED_NANOS) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos the duration in nanoseconds; negative durations are counted as zero
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketIndex(Math.min(value, MAX_TRACKED_NANOS)));
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    /**
+     * Returns the number of durations recorded.
+     *
+     * @return the number of durations recorded
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the longest duration recorded.
+     *
+     * @return the longest duration in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns the mean of the durations recorded.
+     *
+     * @return the mean duration in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMeanNanos() {
+        long recorded = count.sum();
+        return recorded == 0 ? 0 : totalNanos.sum() / recorded;
+    }
+
+    /**
+     * Returns the duration that the given percentage of recorded durations do not exceed,
+     * rounded up to the end of its bucket but never beyond the longest duration recorded.
+     *
+     * @param percentile the percentage, from 0 to 100
+     * @return the duration in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long recorded = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            recorded += counts[i];
+        }
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * recorded));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * Returns the bucket for a duration: durations below 16 ns get a bucket each, and each
+     * power of two above that is split into 16 buckets using the bits below the highest one.
+     */
+    static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKET_COUNT) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Returns the longest duration that falls into the given bucket.
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
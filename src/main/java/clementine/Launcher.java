@@ -1,5 +1,7 @@
 package clementine;
 
+import java.util.Arrays;
+
 import javafx.application.Application;
 
 /**
@@ -11,6 +13,9 @@ import javafx.application.Application;
  */
 public class Launcher {
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains(Main.STARTUP_TRACE_FLAG)) {
+            StartupTrace.enable();
+        }
         Application.launch(Main.class, args);
     }
 }
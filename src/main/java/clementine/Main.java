@@ -1,8 +1,12 @@
 package clementine;
 
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.layout.AnchorPane;
@@ -13,12 +17,36 @@ import javafx.stage.Stage;
  * This class extends javafx.application.Application and is responsible for setting up
  * the main application window, loading the FXML layout, and initializing the GUI components.
  * It creates the Clementine backend instance and connects it to the UI controller.
+ * The backend loads the saved tasks in the background while JavaFX starts up and the
+ * window is built, so the two no longer wait for each other.
+ *
+ * <p>Supports {@code --startup-trace} to print how long each startup phase took, and
+ * {@code --exit-after-startup} to quit as soon as the first frame is shown, so that startup can be
+ * timed from a script.
  *
  * @author zhiyu
  */
 public class Main extends Application {
+    static final String STARTUP_TRACE_FLAG = "--startup-trace";
+    static final String EXIT_AFTER_STARTUP_FLAG = "--exit-after-startup";
+    private static final String DATA_PATH = "./data/clementine.txt";
+    private static final String HISTORY_PATH = "./data/history";
+
+    private CompletableFuture<Clementine> backend;
+    private Clementine clementine;
 
-    private Clementine clementine = new Clementine("./data/clementine.txt");
+    /**
+     * Starts loading the Clementine backend in the background. Called before the JavaFX
+     * application thread starts building the window.
+     */
+    @Override
+    public void init() {
+        backend = CompletableFuture.supplyAsync(() -> {
+            Clementine loaded = new Clementine(DATA_PATH);
+            loaded.enableConversationLog(new ConversationLog(Paths.get(HISTORY_PATH), MainWindow.MESSAGE_LIMIT));
+            return loaded;
+        });
+    }
 
     /**
      * Starts the JavaFX application by setting up the primary stage and loading the main window.
@@ -31,16 +59,52 @@ public class Main extends Application {
     @Override
     public void start(Stage stage) {
         try {
+            long fxmlStart = System.nanoTime();
             FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("/view/MainWindow.fxml"));
             AnchorPane ap = fxmlLoader.load();
+            StartupTrace.record("fxml", fxmlStart);
+
             Scene scene = new Scene(ap);
             stage.setScene(scene);
             stage.setTitle("clementine(•ө•)❀");
+            clementine = backend.join();
             fxmlLoader.<MainWindow>getController().setClementine(clementine); // inject the Clementine instance
+
+            long renderStart = System.nanoTime();
+            scene.addPostLayoutPulseListener(new Runnable() {
+                @Override
+                public void run() {
+                    scene.removePostLayoutPulseListener(this);
+                    StartupTrace.record("first render", renderStart);
+                    finishStartup();
+                }
+            });
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
-}
 
+    /**
+     * Reports the startup trace and exits if the command line asked for either.
+     */
+    private void finishStartup() {
+        List<String> args = getParameters().getRaw();
+        if (StartupTrace.isEnabled()) {
+            System.out.print(StartupTrace.report());
+        }
+        if (args.contains(EXIT_AFTER_STARTUP_FLAG)) {
+            Platform.exit();
+        }
+    }
+
+    /**
+     * Waits for background work such as exports to finish before the application exits.
+     */
+    @Override
+    public void stop() {
+        if (clementine != null) {
+            clementine.shutdown();
+        }
+    }
+}
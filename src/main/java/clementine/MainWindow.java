@@ -1,37 +1,67 @@
 package clementine;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 
 /**
  * Controller for the main GUI.
  */
 public class MainWindow extends AnchorPane {
+    // older messages are only kept in the conversation log on disk, found again with 'history'
+    static final int MESSAGE_LIMIT = ConversationLog.DEFAULT_MEMORY_LIMIT;
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<Message> conversationView;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator pendingIndicator;
 
     private Clementine clementine;
+    private Autocomplete autocomplete;
+    private final ObservableList<Message> messages = FXCollections.observableArrayList();
+
+    // a single thread keeps this window's commands in the order they were sent
+    private final ExecutorService commandExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "clementine-command");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private int pendingCommands = 0;
+
+    // decoded in the background at the size they are shown, so the window does not wait for them
+    private Image userImage = loadPicture("/images/user.jpeg");
+    private Image clementineImage = loadPicture("/images/clementine.jpeg");
 
-    private Image userImage = new Image(this.getClass().getResourceAsStream("/images/user.jpeg"));
-    private Image clementineImage = new Image(this.getClass().getResourceAsStream("/images/clementine.jpeg"));
+    private static Image loadPicture(String resource) {
+        String url = MainWindow.class.getResource(resource).toExternalForm();
+        return new Image(url, DialogBox.PICTURE_SIZE, DialogBox.PICTURE_SIZE, true, true, true);
+    }
 
+    /**
+     * Backs the conversation view with the message list. The view only creates cells for the
+     * messages on screen and reuses them while scrolling, so long conversations stay cheap to show.
+     */
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        conversationView.setItems(messages);
+        conversationView.setCellFactory(view -> new MessageCell(userImage, clementineImage));
     }
 
     /** Injects the Clementine instance */
@@ -39,22 +69,67 @@ public class MainWindow extends AnchorPane {
         this.clementine = c;
 
         String introMessage = clementine.getUI().showIntro();
-        dialogContainer.getChildren().add(DialogBox.getClementineDialog(introMessage, clementineImage));
+        addMessage(Message.fromClementine(introMessage));
+
+        // indexing runs on the command thread so that it never overlaps a command changing the list
+        CommandSuggester suggester = new CommandSuggester();
+        commandExecutor.execute(() -> clementine.addTaskListListener(suggester));
+        autocomplete = new Autocomplete(userInput, suggester);
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Duke's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Echoes the user input in a dialog box and runs the command on the command thread, so that slow
+     * commands and file I/O never block the JavaFX application thread. Clementine's reply is appended
+     * once the command completes. Clears the user input immediately.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response = clementine.getResponse(input);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getClementineDialog(response, clementineImage)
-        );
         userInput.clear();
+        addMessage(Message.fromUser(input));
+        updatePendingCommands(1);
+
+        CompletableFuture.supplyAsync(() -> clementine.getResponse(input), commandExecutor)
+                .exceptionally(e -> "OOPS!! " + e.getMessage())
+                .thenAccept(response -> Platform.runLater(() -> showResponse(input, response)));
+    }
+
+    /**
+     * Appends a message to the conversation and scrolls down to it, dropping the oldest messages
+     * once there are more than {@link #MESSAGE_LIMIT}, so the window's memory stays flat.
+     * Must be called on the JavaFX application thread.
+     *
+     * @param message the message to append
+     */
+    private void addMessage(Message message) {
+        messages.add(message);
+        if (messages.size() > MESSAGE_LIMIT) {
+            messages.remove(0, messages.size() - MESSAGE_LIMIT);
+        }
+        conversationView.scrollTo(messages.size() - 1);
+    }
+
+    /**
+     * Tracks the number of commands still running and shows the pending indicator while there are any.
+     * Must be called on the JavaFX application thread.
+     *
+     * @param change the number of commands started (positive) or finished (negative)
+     */
+    private void updatePendingCommands(int change) {
+        pendingCommands += change;
+        pendingIndicator.setVisible(pendingCommands > 0);
+    }
+
+    /**
+     * Appends Clementine's reply to a command, exiting the application if the command was {@code bye}.
+     * Must be called on the JavaFX application thread.
+     *
+     * @param input the command that was run
+     * @param response Clementine's reply to the command
+     */
+    private void showResponse(String input, String response) {
+        updatePendingCommands(-1);
+        addMessage(Message.fromClementine(response));
 
         if (input.trim().equalsIgnoreCase("bye")) {
             // give the UI a moment to show the bye message before exiting
@@ -0,0 +1,57 @@
+package clementine;
+
+/**
+ * The Message class represents a single message in the conversation shown by the GUI,
+ * either a command typed by the user or a reply from Clementine.
+ * Messages are plain data so that the conversation view only needs to create display nodes
+ * for the messages currently on screen.
+ *
+ * @author zhiyu
+ */
+public class Message {
+    private final String text;
+    private final boolean isFromUser;
+
+    private Message(String text, boolean isFromUser) {
+        this.text = text;
+        this.isFromUser = isFromUser;
+    }
+
+    /**
+     * Creates a message sent by the user.
+     *
+     * @param text the text the user entered
+     * @return a new user message
+     */
+    public static Message fromUser(String text) {
+        return new Message(text, true);
+    }
+
+    /**
+     * Creates a message sent by Clementine.
+     *
+     * @param text Clementine's reply
+     * @return a new Clementine message
+     */
+    public static Message fromClementine(String text) {
+        return new Message(text, false);
+    }
+
+    /**
+     * Returns the text of this message.
+     *
+     * @return the message text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Returns whether this message was sent by the user rather than Clementine.
+     *
+     * @return true if the user sent this message
+     */
+    public boolean isFromUser() {
+        return isFromUser;
+    }
+}
@@ -0,0 +1,45 @@
+package clementine;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+
+/**
+ * The MessageCell class displays one conversation message in the GUI's conversation list.
+ * The list only creates enough cells to fill the visible area and reuses them while scrolling,
+ * so each cell keeps a single DialogBox and updates it in place for whichever message it shows.
+ *
+ * @author zhiyu
+ */
+public class MessageCell extends ListCell<Message> {
+    private final DialogBox dialogBox = new DialogBox();
+    private final Image userImage;
+    private final Image clementineImage;
+
+    /**
+     * Constructs a cell that shows messages with the given speaker pictures.
+     *
+     * @param userImage the picture shown next to the user's messages
+     * @param clementineImage the picture shown next to Clementine's messages
+     */
+    public MessageCell(Image userImage, Image clementineImage) {
+        this.userImage = userImage;
+        this.clementineImage = clementineImage;
+        // let the list's width decide the cell's width so that long messages wrap instead of scrolling sideways
+        setPrefWidth(0);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        dialogBox.fitToWidth(widthProperty());
+    }
+
+    @Override
+    protected void updateItem(Message message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        Image image = message.isFromUser() ? userImage : clementineImage;
+        dialogBox.showMessage(message.getText(), image, message.isFromUser());
+        setGraphic(dialogBox);
+    }
+}
@@ -0,0 +1,89 @@
+package clementine;
+
+/**
+ * The PageRequest class represents which page of a long task listing to show,
+ * as given by {@code list page 3 size 20} or {@code list next}.
+ * Pages are numbered from 1.
+ *
+ * @author zhiyu
+ */
+public class PageRequest {
+    /** The number of tasks shown per page when no size is given. */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    private final int page;
+    private final int size;
+    private final boolean isNext;
+
+    private PageRequest(int page, int size, boolean isNext) {
+        this.page = page;
+        this.size = size;
+        this.isNext = isNext;
+    }
+
+    /**
+     * Creates a request for the given page.
+     *
+     * @param page the page number, starting from 1
+     * @param size the number of tasks per page
+     * @return a new PageRequest
+     */
+    public static PageRequest of(int page, int size) {
+        assert page > 0 && size > 0 : "Page number and size should be positive";
+        return new PageRequest(page, size, false);
+    }
+
+    /**
+     * Creates a request for the page after the one shown last.
+     *
+     * @return a new PageRequest that continues from the previous page
+     */
+    public static PageRequest next() {
+        return new PageRequest(0, 0, true);
+    }
+
+    /**
+     * Returns the page after this one, with the same page size.
+     *
+     * @return the following page
+     */
+    public PageRequest following() {
+        return of(page + 1, size);
+    }
+
+    /**
+     * Returns whether this request continues from the previous page rather than naming a page.
+     *
+     * @return true for {@code next}
+     */
+    public boolean isNext() {
+        return isNext;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the first task on this page.
+     *
+     * @return the 0-based index of the first task on this page
+     */
+    public long getStartIndex() {
+        return (long) (page - 1) * size;
+    }
+
+    /**
+     * Returns the number of pages needed to show the given number of tasks.
+     *
+     * @param taskCount the total number of tasks
+     * @return the number of pages, at least 1
+     */
+    public int getPageCount(int taskCount) {
+        return Math.max(1, (int) (((long) taskCount + size - 1) / size));
+    }
+}
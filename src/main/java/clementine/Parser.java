@@ -4,6 +4,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 
 import clementine.task.Deadline;
 import clementine.task.Event;
@@ -18,6 +21,25 @@ import clementine.task.Todo;
  * @author zhiyu
  */
 public class Parser {
+    // formatters are immutable and thread-safe, so they are built once and shared
+    private static final DateTimeFormatter[] DATE_TIME_FORMATTERS = {
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HHmm"),
+            DateTimeFormatter.ofPattern("d/MM/yyyy HHmm"),
+            DateTimeFormatter.ofPattern("d/M/yyyy HHmm"),
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"),
+            DateTimeFormatter.ofPattern("d/MM/yyyy HH:mm"),
+            DateTimeFormatter.ofPattern("d/M/yyyy HH:mm")
+    };
+
+    private static final DateTimeFormatter DISPLAY_DATE_FORMATTER = DateTimeFormatter.ofPattern("d MMM yyyy");
+    private static final DateTimeFormatter DISPLAY_DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("d MMM yyyy h:mm a");
+    private static final DateTimeFormatter STORAGE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HHmm");
+
+    private static final DateTimeFormatter[] DATE_FORMATTERS = {
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("d/M/yyyy")
+    };
 
     /**
      * Extracts and parses the command type from user input.
@@ -54,7 +76,7 @@ public class Parser {
                 if (level < 1) {
                     throw new ClementineException("Priority must be a positive number!");
                 }
-                return new Priority(level);
+                return Priority.of(level);
             } catch (NumberFormatException e) {
                 throw new ClementineException("Please provide a valid numberic priority");
             }
@@ -89,7 +111,7 @@ public class Parser {
             try {
                 int level = Integer.parseInt(last);
                 if (level > 0) {
-                    priority = new Priority(level);
+                    priority = Priority.of(level);
                 }
             } catch (NumberFormatException e) {
                 // ignore invalid stored priority
@@ -139,6 +161,66 @@ public class Parser {
         return task;
     }
 
+    /**
+     * Checks whether the input is a pipeline of several commands. A semicolon only separates commands
+     * when every part after one starts with a command word, so that a description such as
+     * {@code todo buy eggs; milk} can still contain one.
+     * @param input the trimmed user input
+     * @return true if the input should be run as a pipeline
+     */
+    public static boolean isPipeline(String input) {
+        if (input.indexOf(';') < 0) {
+            return false;
+        }
+        String[] segments = input.split(";");
+        for (int i = 1; i < segments.length; i++) {
+            String segment = segments[i].trim();
+            if (!segment.isEmpty() && !isCommandWord(segment.split(" ")[0])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCommandWord(String word) {
+        if (word.equals("bye")) {
+            return true;
+        }
+        try {
+            CommandType.fromString(word);
+            return true;
+        } catch (ClementineException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Splits a semicolon-separated pipeline into its individual commands and checks that each
+     * one starts with a known command word. Empty segments are ignored.
+     * Expected format: "{@code <command>; <command>; ...}"
+     * @param input the full user input string
+     * @return the trimmed commands of the pipeline, in order
+     * @throws ClementineException if the pipeline is empty, contains {@code bye}, or has an unknown command
+     */
+    public static List<String> parsePipeline(String input) throws ClementineException {
+        List<String> commands = new ArrayList<>();
+        for (String segment : input.split(";")) {
+            String command = segment.trim();
+            if (command.isEmpty()) {
+                continue;
+            }
+            if (command.equals("bye")) {
+                throw new ClementineException("quack! bye can't be part of a pipeline!");
+            }
+            getCommandType(command);
+            commands.add(command);
+        }
+        if (commands.isEmpty()) {
+            throw new ClementineException("oh quack! i can't read empty commands!");
+        }
+        return commands;
+    }
+
     /**
      * Extracts and parses the task number from a user command.
      * @param input the full user inout string
@@ -157,6 +239,94 @@ public class Parser {
         }
     }
 
+    /**
+     * Parses a task creation command (todo, deadline or event) into the corresponding Task object.
+     *
+     * @param command the CommandType indicating what type of task to create
+     * @param input the full user command input string
+     * @return a new Task object of the appropriate type
+     * @throws ClementineException if the command does not create a task or the input format is invalid
+     */
+    public static Task parseNewTask(CommandType command, String input) throws ClementineException {
+        switch (command) {
+        case EVENT:
+            return parseEventTask(input);
+        case DEADLINE:
+            return parseDeadlineTask(input);
+        case TODO:
+            return parseTodoTask(input);
+        default:
+            throw new ClementineException("Unknown task type: " + command);
+        }
+    }
+
+    /**
+     * Checks whether a mark, unmark or delete command selects several tasks at once,
+     * using a range such as {@code 1-50} or a list such as {@code 3,7,9-12}.
+     * @param input the full user input string
+     * @param commandType the command word at the start of the input
+     * @return true if the task selection contains a range or a list, false otherwise
+     */
+    public static boolean isMultipleTaskSelection(String input, String commandType) {
+        String selection = input.substring(commandType.length()).trim();
+        return selection.indexOf(',') >= 0 || selection.indexOf('-') > 0;
+    }
+
+    /**
+     * Checks whether a command selects all completed tasks, as in {@code delete done}.
+     * @param input the full user input string
+     * @param commandType the command word at the start of the input
+     * @return true if the task selection is the word {@code done}, false otherwise
+     */
+    public static boolean isDoneTaskSelection(String input, String commandType) {
+        return input.substring(commandType.length()).trim().equalsIgnoreCase("done");
+    }
+
+    /**
+     * Extracts every task number selected by a range or list, such as {@code 3,7,9-12}.
+     * All numbers are validated against the number of tasks before any are returned.
+     * @param input the full user input string
+     * @param commandType the command word at the start of the input
+     * @param taskCount the number of tasks currently in the list
+     * @return the selected task numbers (1-indexed) in ascending order, without repeats
+     * @throws ClementineException if a number or range is malformed or outside the task list
+     */
+    public static int[] parseTaskNumbers(String input, String commandType, int taskCount)
+            throws ClementineException {
+        String selection = input.substring(commandType.length()).trim();
+        if (selection.isEmpty()) {
+            throw new ClementineException("please provide a valid number!");
+        }
+
+        BitSet selected = new BitSet(taskCount + 1);
+        for (String part : selection.split(",")) {
+            String range = part.trim();
+            int dash = range.indexOf('-');
+            int start;
+            int end;
+            try {
+                if (dash < 0) {
+                    start = Integer.parseInt(range);
+                    end = start;
+                } else {
+                    start = Integer.parseInt(range.substring(0, dash).trim());
+                    end = Integer.parseInt(range.substring(dash + 1).trim());
+                }
+            } catch (NumberFormatException e) {
+                throw new ClementineException("please provide a valid number or range!");
+            }
+
+            if (start < 1 || end < start) {
+                throw new ClementineException("invalid task range " + range + "!");
+            }
+            if (end > taskCount) {
+                throw new ClementineException("invalid task number " + end + "!");
+            }
+            selected.set(start, end + 1);
+        }
+        return selected.stream().toArray();
+    }
+
     /**
      * Parses user input to create a Deadline task.
      * Expected format: "{@code deadline <description> /by <date>}"
@@ -182,6 +352,7 @@ public class Parser {
         if (description.isEmpty()) {
             throw new ClementineException("the description of a deadline cannot be empty");
         }
+        checkDescription(description);
 
         if (deadlineStr.isEmpty()) {
             throw new ClementineException("the deadline date cannot be empty!");
@@ -224,6 +395,7 @@ public class Parser {
         if (description.isEmpty()) {
             throw new ClementineException("quack! the description of the event cannot be empty");
         }
+        checkDescription(description);
 
         String [] timeline = parts[1].split("/to", 2);
         if (timeline.length != 2) {
@@ -269,6 +441,7 @@ public class Parser {
         if (cleanDescription.isEmpty()) {
             throw new ClementineException("quack! the description of a todo cannot be empty!");
         }
+        checkDescription(cleanDescription);
         Priority priority = parsePriority(input);
         if (priority != null) {
             return new Todo(cleanDescription, priority);
@@ -277,6 +450,18 @@ public class Parser {
         }
     }
 
+    /**
+     * Checks that a task description can be saved. Fields in the data file are separated by
+     * {@code " | "}, so a description containing {@code '|'} would not load back as it was.
+     * @param description the description of a new task
+     * @throws ClementineException if the description contains {@code '|'}
+     */
+    public static void checkDescription(String description) throws ClementineException {
+        if (description.indexOf('|') >= 0) {
+            throw new ClementineException("quack! descriptions can't contain '|', i use it to save your tasks!");
+        }
+    }
+
     /**
      * Parses a date/time string into a LocalDateTime object.
      * Supports multiple formats including dates with and without times.
@@ -286,21 +471,7 @@ public class Parser {
      * @throws DateTimeParseException if the input doesn't match any supported formats
      */
     public static LocalDateTime parseDateTime(String input) throws DateTimeParseException {
-        DateTimeFormatter[] dateTimeFormatters = {
-                DateTimeFormatter.ofPattern("dd/MM/yyyy HHmm"),
-                DateTimeFormatter.ofPattern("d/MM/yyyy HHmm"),
-                DateTimeFormatter.ofPattern("d/M/yyyy HHmm"),
-                DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"),
-                DateTimeFormatter.ofPattern("d/MM/yyyy HH:mm"),
-                DateTimeFormatter.ofPattern("d/M/yyyy HH:mm")
-        };
-
-        DateTimeFormatter[] dateFormatters = {
-                DateTimeFormatter.ofPattern("dd/MM/yyyy"),
-                DateTimeFormatter.ofPattern("d/M/yyyy")
-        };
-
-        for (DateTimeFormatter f : dateTimeFormatters) {
+        for (DateTimeFormatter f : DATE_TIME_FORMATTERS) {
             try {
                 return LocalDateTime.parse(input, f);
             } catch (DateTimeParseException e) {
@@ -308,7 +479,7 @@ public class Parser {
             }
         }
 
-        for (DateTimeFormatter f : dateFormatters) {
+        for (DateTimeFormatter f : DATE_FORMATTERS) {
             try {
                 LocalDate date = LocalDate.parse(input, f);
                 return date.atStartOfDay();
@@ -330,9 +501,23 @@ public class Parser {
     public static String formatDateTime(LocalDateTime dateTime) {
         // if no time specified
         if (dateTime.getHour() == 0 && dateTime.getMinute() == 0) {
-            return dateTime.format(DateTimeFormatter.ofPattern("d MMM yyyy"));
+            return DISPLAY_DATE_FORMATTER.format(dateTime);
         } else {
-            return dateTime.format(DateTimeFormatter.ofPattern("d MMM yyyy h:mm a"));
+            return DISPLAY_DATE_TIME_FORMATTER.format(dateTime);
+        }
+    }
+
+    /**
+     * Appends a LocalDateTime to the given builder in the same format as {@link #formatDateTime},
+     * without creating an intermediate string.
+     * @param out the builder to append to
+     * @param dateTime the LocalDateTime to format
+     */
+    public static void appendDateTime(StringBuilder out, LocalDateTime dateTime) {
+        if (dateTime.getHour() == 0 && dateTime.getMinute() == 0) {
+            DISPLAY_DATE_FORMATTER.formatTo(dateTime, out);
+        } else {
+            DISPLAY_DATE_TIME_FORMATTER.formatTo(dateTime, out);
         }
     }
 
@@ -343,7 +528,16 @@ public class Parser {
      * @return a formatted string suitable for file storage
      */
     public static String formatDateTimeForStorage(LocalDateTime dateTime) {
-        return dateTime.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HHmm"));
+        return STORAGE_FORMATTER.format(dateTime);
+    }
+
+    /**
+     * Appends a LocalDateTime to the given builder in the same format as {@link #formatDateTimeForStorage}.
+     * @param out the builder to append to
+     * @param dateTime the LocalDateTime to format for storage
+     */
+    public static void appendDateTimeForStorage(StringBuilder out, LocalDateTime dateTime) {
+        STORAGE_FORMATTER.formatTo(dateTime, out);
     }
 
     /**
@@ -365,4 +559,118 @@ public class Parser {
 
         return keyword;
     }
+
+    /**
+     * Parses and extracts the search keyword from a history command.
+     * Expected format: "history {@code <keyword>}"
+     * @param input the full user input string
+     * @return the keyword to search the conversation history for
+     * @throws ClementineException if the keyword is missing
+     */
+    public static String parseHistoryKeyword(String input) throws ClementineException {
+        String keyword = input.substring("history".length()).trim();
+        if (keyword.isEmpty()) {
+            throw new ClementineException("quack! please specify the keyword to look back for!");
+        }
+        return keyword;
+    }
+
+    /**
+     * Parses the paging options of a listing command such as {@code list}.
+     * Expected format: "{@code <command> [page <N>] [size <M>]}" or "{@code <command> next}"
+     * @param input the full user input string
+     * @param commandType the command word at the start of the input
+     * @return the requested page; the first page of the default size if no options are given
+     * @throws ClementineException if an option is unknown or its number is not positive
+     */
+    public static PageRequest parsePageRequest(String input, String commandType) throws ClementineException {
+        String options = input.substring(commandType.length()).trim();
+        if (options.isEmpty()) {
+            return PageRequest.of(1, PageRequest.DEFAULT_PAGE_SIZE);
+        }
+        if (options.equalsIgnoreCase("next")) {
+            return PageRequest.next();
+        }
+
+        String[] words = options.split("\\s+");
+        int page = 1;
+        int size = PageRequest.DEFAULT_PAGE_SIZE;
+        for (int i = 0; i < words.length; i += 2) {
+            String option = words[i].toLowerCase();
+            if (!option.equals("page") && !option.equals("size")) {
+                throw new ClementineException("quack! " + commandType + " only understands page, size or next!");
+            }
+            if (i + 1 >= words.length) {
+                throw new ClementineException("quack! please give a number after " + option + "!");
+            }
+            int value = parsePositiveNumber(words[i + 1], option);
+            if (option.equals("page")) {
+                page = value;
+            } else {
+                size = value;
+            }
+        }
+        return PageRequest.of(page, size);
+    }
+
+    private static int parsePositiveNumber(String word, String option) throws ClementineException {
+        try {
+            int value = Integer.parseInt(word);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new ClementineException("quack! the " + option + " must be a positive number!");
+    }
+
+    /**
+     * Extracts the file path from the {@code import} command input.
+     * @param input the full user input string starting with {@code import}
+     * @return the path of the file to import, trimmed of leading and trailing whitespace
+     * @throws ClementineException if no file path is specified after {@code import}
+     */
+    public static String parseImportPath(String input) throws ClementineException {
+        String path = input.substring("import".length()).trim();
+
+        if (path.isEmpty()) {
+            throw new ClementineException("quack! please tell me which file to import from!");
+        }
+
+        return path;
+    }
+
+    /**
+     * Extracts the export format from the {@code export} command input.
+     * Expected format: "{@code export csv|json|ics <file>}"
+     * @param input the full user input string starting with {@code export}
+     * @return the requested export format
+     * @throws ClementineException if the format is missing or not supported
+     */
+    public static TaskExporter.Format parseExportFormat(String input) throws ClementineException {
+        String[] parts = splitExportArguments(input);
+        return TaskExporter.Format.fromString(parts[0]);
+    }
+
+    /**
+     * Extracts the destination file path from the {@code export} command input.
+     * Expected format: "{@code export csv|json|ics <file>}"
+     * @param input the full user input string starting with {@code export}
+     * @return the path of the file to export to
+     * @throws ClementineException if the format or file path is missing
+     */
+    public static String parseExportPath(String input) throws ClementineException {
+        String[] parts = splitExportArguments(input);
+        return parts[1];
+    }
+
+    private static String[] splitExportArguments(String input) throws ClementineException {
+        String[] parts = input.substring("export".length()).trim().split("\\s+", 2);
+        if (parts.length < 2 || parts[1].trim().isEmpty()) {
+            throw new ClementineException("quack! please use the format: export csv|json|ics <file>");
+        }
+        parts[1] = parts[1].trim();
+        return parts;
+    }
 }
@@ -0,0 +1,271 @@
+package clementine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The PrefixTrie class stores a multiset of strings and finds those that start with a given prefix,
+ * ignoring case. It is a compressed trie: each node covers a run of characters, so a million
+ * entries need only about two million nodes. Node labels are not copied; each node points into one
+ * of the strings that passes through it, using the node's depth as the offset.
+ * Nodes are pruned and merged again as entries are removed, so the trie never holds more than
+ * its current entries need.
+ *
+ * <p>All methods are synchronized, so entries can be added from one thread while another looks up
+ * suggestions.
+ *
+ * @author zhiyu
+ */
+public class PrefixTrie {
+    private final Node root = new Node("", 0, 0);
+    private int size;
+
+    /**
+     * Adds an entry to the trie. Adding the same entry twice means it must be removed twice.
+     *
+     * @param word the entry to add; empty strings are ignored
+     */
+    public synchronized void add(String word) {
+        if (word.isEmpty()) {
+            return;
+        }
+        size++;
+        Node node = root;
+        int depth = 0;
+        while (depth < word.length()) {
+            char key = toKey(word.charAt(depth));
+            int slot = node.findChild(key);
+            if (slot < 0) {
+                Node leaf = new Node(word, depth, word.length());
+                leaf.entryCount = 1;
+                node.insertChild(-slot - 1, key, leaf);
+                return;
+            }
+
+            Node child = node.children[slot];
+            int matched = child.matchLength(word);
+            if (child.start + matched < child.end) {
+                child = splitChild(node, slot, child.start + matched);
+            }
+            node = child;
+            depth = child.end;
+        }
+        // the entry ends exactly at an existing node; point it at this entry so it is shown with its own case
+        node.source = word;
+        node.entryCount++;
+    }
+
+    /**
+     * Removes one copy of an entry from the trie, if present.
+     *
+     * @param word the entry to remove
+     */
+    public synchronized void remove(String word) {
+        if (word.isEmpty()) {
+            return;
+        }
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int depth = 0;
+        while (depth < word.length()) {
+            int slot = node.findChild(toKey(word.charAt(depth)));
+            if (slot < 0) {
+                return;
+            }
+            node = node.children[slot];
+            if (node.end > word.length() || node.matchLength(word) < node.end - node.start) {
+                return;
+            }
+            path.add(node);
+            depth = node.end;
+        }
+        if (node.entryCount == 0) {
+            return;
+        }
+        node.entryCount--;
+        size--;
+        prune(path);
+    }
+
+    /**
+     * Removes every entry from the trie.
+     */
+    public synchronized void clear() {
+        root.children = Node.NO_CHILDREN;
+        root.keys = Node.NO_KEYS;
+        root.childCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the number of entries in the trie, counting repeated entries once per copy.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns up to {@code limit} distinct entries that start with the given prefix, ignoring case,
+     * in alphabetical order. The work done depends on the length of the prefix and the limit,
+     * not on the number of entries.
+     *
+     * @param prefix the prefix to complete
+     * @param limit the most entries to return
+     * @return the matching entries
+     */
+    public synchronized List<String> complete(String prefix, int limit) {
+        List<String> matches = new ArrayList<>(Math.min(limit, 16));
+        Node node = root;
+        int depth = 0;
+        while (depth < prefix.length()) {
+            int slot = node.findChild(toKey(prefix.charAt(depth)));
+            if (slot < 0) {
+                return matches;
+            }
+            node = node.children[slot];
+            int compared = Math.min(node.end, prefix.length()) - node.start;
+            if (node.matchLength(prefix) < compared) {
+                return matches;
+            }
+            depth = node.end;
+        }
+        collect(node, limit, matches);
+        return matches;
+    }
+
+    private static void collect(Node node, int limit, List<String> matches) {
+        if (node.entryCount > 0) {
+            matches.add(node.getEntry());
+        }
+        for (int i = 0; i < node.childCount && matches.size() < limit; i++) {
+            collect(node.children[i], limit, matches);
+        }
+    }
+
+    /**
+     * Splits a child's label at the given depth, inserting a new node that covers the first part.
+     *
+     * @return the new node, which now sits in the child's slot
+     */
+    private static Node splitChild(Node parent, int slot, int depth) {
+        Node child = parent.children[slot];
+        Node upper = new Node(child.source, child.start, depth);
+        child.start = depth;
+        upper.insertChild(0, toKey(child.source.charAt(depth)), child);
+        parent.children[slot] = upper;
+        return upper;
+    }
+
+    /**
+     * Walks back up the path of a removed entry, deleting nodes that no longer lead to any entry
+     * and merging nodes that are left with a single child and no entry of their own.
+     */
+    private static void prune(List<Node> path) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            Node parent = path.get(i - 1);
+            int slot = parent.findChild(toKey(node.source.charAt(node.start)));
+            assert slot >= 0 : "Node on the path should be a child of its parent";
+            if (node.entryCount > 0 || node.childCount > 1) {
+                return;
+            }
+            if (node.childCount == 1) {
+                Node onlyChild = node.children[0];
+                onlyChild.start = node.start;
+                parent.children[slot] = onlyChild;
+                return;
+            }
+            parent.removeChild(slot);
+        }
+    }
+
+    private static char toKey(char c) {
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * A node covering the characters {@code [start, end)} of its source string, where start is the
+     * node's depth in the trie. Children are kept sorted by their first character.
+     */
+    private static class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final char[] NO_KEYS = new char[0];
+
+        private String source;
+        private int start;
+        private final int end;
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+        private int entryCount;
+
+        Node(String source, int start, int end) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Returns how many characters of this node's label match the given string at the same depth.
+         */
+        int matchLength(String word) {
+            int limit = Math.min(end, word.length());
+            int i = start;
+            while (i < limit && toKey(source.charAt(i)) == toKey(word.charAt(i))) {
+                i++;
+            }
+            return i - start;
+        }
+
+        /**
+         * Returns the slot of the child starting with the given key, or {@code -(insertion point) - 1}.
+         */
+        int findChild(char key) {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key) {
+                    low = mid + 1;
+                } else if (keys[mid] > key) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -low - 1;
+        }
+
+        void insertChild(int slot, char key, Node child) {
+            if (childCount == children.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, slot, keys, slot + 1, childCount - slot);
+            System.arraycopy(children, slot, children, slot + 1, childCount - slot);
+            keys[slot] = key;
+            children[slot] = child;
+            childCount++;
+        }
+
+        void removeChild(int slot) {
+            System.arraycopy(keys, slot + 1, keys, slot, childCount - slot - 1);
+            System.arraycopy(children, slot + 1, children, slot, childCount - slot - 1);
+            childCount--;
+            children[childCount] = null;
+            if (childCount == 0) {
+                keys = NO_KEYS;
+                children = NO_CHILDREN;
+            }
+        }
+
+        String getEntry() {
+            return source.length() == end ? source : source.substring(0, end);
+        }
+    }
+}
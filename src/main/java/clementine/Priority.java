@@ -4,13 +4,26 @@ package clementine;
  * Each Priority object contains a numeric level indicating the importance of a task,
  * with lower numbers typically representing higher priority.
  *
+ * <p>Priorities are immutable, and tasks only keep the level, so {@link #of(int)} hands out one
+ * shared instance per common level instead of creating a new object each time.
+ *
  * @author zhiyu
  */
 public class Priority {
-    private int level;
+    private static final int MAX_SHARED_LEVEL = 16;
+    private static final Priority[] SHARED = new Priority[MAX_SHARED_LEVEL + 1];
+
+    static {
+        for (int level = 1; level <= MAX_SHARED_LEVEL; level++) {
+            SHARED[level] = new Priority(level);
+        }
+    }
+
+    private final int level;
 
     /**
      * Constructs a new Priority object with the specified priority level.
+     * Prefer {@link #of(int)}, which reuses a shared instance for common levels.
      *
      * @param level the numeric priority level (typically a positive integer)
      */
@@ -18,6 +31,19 @@ public class Priority {
         this.level = level;
     }
 
+    /**
+     * Returns a Priority with the specified level, shared with every other caller asking for the same level.
+     *
+     * @param level the numeric priority level (typically a positive integer)
+     * @return a Priority with the given level
+     */
+    public static Priority of(int level) {
+        if (level >= 1 && level <= MAX_SHARED_LEVEL) {
+            return SHARED[level];
+        }
+        return new Priority(level);
+    }
+
     /**
      * Returns the priority level of this Priority object.
      *
@@ -27,6 +53,16 @@ public class Priority {
         return this.level;
     }
 
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Priority && ((Priority) other).level == this.level;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(level);
+    }
+
     /**
      * Returns a string representation of this Priority object.
      *
@@ -0,0 +1,41 @@
+package clementine;
+
+/**
+ * The Renderer interface decides where Clementine's responses are shown.
+ * UI only builds response strings; the renderer chosen at startup then writes each response out
+ * in whatever form the current mode needs, so modes that display responses themselves, such as the
+ * GUI and the server, do no console work at all.
+ *
+ * @author zhiyu
+ */
+public interface Renderer {
+    /** A renderer that discards every response, for callers that use the returned strings directly. */
+    Renderer NONE = response -> { };
+
+    /**
+     * Shows a single response to the user.
+     *
+     * @param response the complete response to a command
+     */
+    void render(String response);
+
+    /**
+     * Returns the renderer for the given output mode.
+     *
+     * @param mode {@code console}, {@code json} or {@code none}
+     * @return the renderer for that mode
+     * @throws ClementineException if the mode is not recognised
+     */
+    static Renderer forMode(String mode) throws ClementineException {
+        switch (mode.toLowerCase()) {
+        case "console":
+            return new ConsoleRenderer(System.out);
+        case "json":
+            return new JsonRenderer(System.out);
+        case "none":
+            return NONE;
+        default:
+            throw new ClementineException("unknown output mode " + mode + ", use console, json or none");
+        }
+    }
+}
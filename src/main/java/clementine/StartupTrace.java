@@ -0,0 +1,79 @@
+package clementine;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The StartupTrace class records how long each phase of application startup takes, for the
+ * {@code --startup-trace} flag. Phases may run on different threads and overlap, so each one is
+ * reported with its own duration and the time since the JVM started at which it finished.
+ * Recording does nothing until the trace is enabled.
+ *
+ * @author zhiyu
+ */
+public class StartupTrace {
+    private static volatile boolean isEnabled = false;
+    private static long jvmStartMillis;
+    private static long enabledMillis;
+    private static long enabledNanos;
+    private static final List<String> phases = new ArrayList<>();
+    private static final List<long[]> timings = new ArrayList<>();
+
+    /**
+     * Enables the trace and records the time the JVM took to reach this point as the {@code jvm} phase.
+     * Should be called first thing in {@code main}.
+     */
+    public static synchronized void enable() {
+        enabledNanos = System.nanoTime();
+        enabledMillis = System.currentTimeMillis();
+        jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+        isEnabled = true;
+        phases.add("jvm");
+        timings.add(new long[] {(enabledMillis - jvmStartMillis) * 1_000_000, 0});
+    }
+
+    /**
+     * Returns whether the trace is enabled.
+     *
+     * @return true if startup phases are being recorded
+     */
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Records a phase that started at the given time and has just finished.
+     *
+     * @param phase the name of the phase
+     * @param startNanos the value of {@link System#nanoTime()} when the phase started
+     */
+    public static void record(String phase, long startNanos) {
+        if (!isEnabled) {
+            return;
+        }
+        long endNanos = System.nanoTime();
+        synchronized (StartupTrace.class) {
+            phases.add(phase);
+            timings.add(new long[] {endNanos - startNanos, endNanos - enabledNanos});
+        }
+    }
+
+    /**
+     * Returns a table of every phase recorded so far, in the order the phases finished.
+     *
+     * @return the timing breakdown
+     */
+    public static synchronized String report() {
+        StringBuilder report = new StringBuilder("startup trace:\n");
+        report.append(String.format("  %-14s %10s %12s%n", "phase", "took (ms)", "done at (ms)"));
+        long offsetNanos = (enabledMillis - jvmStartMillis) * 1_000_000;
+        for (int i = 0; i < phases.size(); i++) {
+            long[] timing = timings.get(i);
+            double tookMillis = timing[0] / 1e6;
+            double doneAtMillis = (offsetNanos + timing[1]) / 1e6;
+            report.append(String.format("  %-14s %10.1f %12.1f%n", phases.get(i), tookMillis, doneAtMillis));
+        }
+        return report.toString();
+    }
+}
@@ -2,11 +2,16 @@ package clementine;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
+import clementine.jfr.JfrEvents;
+import clementine.jfr.StorageLoadEvent;
+import clementine.jfr.StorageSaveEvent;
 import clementine.task.Task;
 
 /**
@@ -17,6 +22,9 @@ import clementine.task.Task;
  * @author zhiyu
  */
 public class Storage {
+    private static final int WRITE_CHUNK_SIZE = 64 * 1024;
+    private static final int ESTIMATED_LINE_LENGTH = 48;
+
     private String filePath;
 
     /**
@@ -36,6 +44,25 @@ public class Storage {
      * @throws ClementineException if there's an error reading from the file (excluding FileNotFoundException)
      */
     public ArrayList<String> load() throws ClementineException {
+        if (!JfrEvents.ENABLED) {
+            return readLines();
+        }
+        StorageLoadEvent event = new StorageLoadEvent();
+        event.begin();
+        ArrayList<String> lines = readLines();
+        event.setPath(filePath);
+        event.setBytes(new File(filePath).length());
+        event.setLines(lines.size());
+        event.commit();
+        return lines;
+    }
+
+    /**
+     * Reads the non-empty lines of the storage file, trimmed.
+     * @return the lines of the file, or an empty list if the file does not exist
+     * @throws ClementineException if there's an error reading from the file
+     */
+    private ArrayList<String> readLines() throws ClementineException {
         ArrayList<String> lines = new ArrayList<>();
         try {
             File file = new File(filePath);
@@ -64,10 +91,10 @@ public class Storage {
      * Saves the current list of tasks of the storage file.
      * Creates the parent directory if it doesn't exist.
      * Overwrites any existing file content.
-     * @param tasks an ArrayList of Task objects to save to the file
+     * @param tasks the Task objects to save to the file
      * @throws ClementineException if there's an error writing to the file
      */
-    public void save(ArrayList<Task> tasks) throws ClementineException {
+    public void save(List<Task> tasks) throws ClementineException {
         try {
             File file = new File(filePath);
             File parentDir = file.getParentFile();
@@ -75,24 +102,42 @@ public class Storage {
                 parentDir.mkdirs();
             }
 
-            StringBuilder content = new StringBuilder();
-            for (Task task : tasks) {
-                content.append(task.storeData()).append("\n");
+            StorageSaveEvent event = JfrEvents.ENABLED ? new StorageSaveEvent() : null;
+            if (event != null) {
+                event.begin();
+            }
+            writeToFile(tasks);
+            if (event != null) {
+                event.setPath(filePath);
+                event.setBytes(file.length());
+                event.setLines(tasks.size());
+                event.commit();
             }
-            writeToFile(content.toString());
         } catch (IOException e) {
             throw new ClementineException("quack! error saving tasks: " + e.getMessage());
         }
     }
 
     /**
-     * Writes the given content string to the file specified by filePath.
-     * @param content the string content to write to the file
+     * Writes the tasks to the file specified by filePath, one line each. The lines are built into one
+     * reusable buffer that is encoded and written out whenever it fills up, so saving allocates about
+     * as much as the file's size and never holds more than one chunk of it in memory.
+     * @param tasks the tasks to write
      * @throws IOException if there's an error writing to the file
      */
-    private void writeToFile(String content) throws IOException {
-        FileWriter fw = new FileWriter(filePath);
-        fw.write(content);
-        fw.close();
+    private void writeToFile(List<Task> tasks) throws IOException {
+        Charset charset = Charset.defaultCharset();
+        StringBuilder chunk = new StringBuilder(Math.min(WRITE_CHUNK_SIZE, tasks.size() * ESTIMATED_LINE_LENGTH) + 256);
+        try (FileOutputStream out = new FileOutputStream(filePath)) {
+            for (Task task : tasks) {
+                task.appendStoreData(chunk);
+                chunk.append('\n');
+                if (chunk.length() >= WRITE_CHUNK_SIZE) {
+                    out.write(chunk.toString().getBytes(charset));
+                    chunk.setLength(0);
+                }
+            }
+            out.write(chunk.toString().getBytes(charset));
+        }
     }
 }
@@ -0,0 +1,257 @@
+package clementine;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import clementine.task.Deadline;
+import clementine.task.Event;
+import clementine.task.Task;
+
+/**
+ * The TaskExporter class writes tasks out as CSV, JSON or iCalendar documents.
+ * Each task is written straight to the given Writer as it is visited, so the memory used
+ * does not depend on the size of the document being produced.
+ *
+ * @author zhiyu
+ */
+public class TaskExporter {
+    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final DateTimeFormatter ICS_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final int ICS_MAX_LINE_OCTETS = 75;
+    private static final String ICS_LINE_BREAK = "\r\n";
+
+    /**
+     * The document formats that tasks can be exported to.
+     */
+    public enum Format {
+        CSV,
+        JSON,
+        ICS;
+
+        /**
+         * Converts a format name to the corresponding Format, ignoring case.
+         *
+         * @param name the name of the format
+         * @return the matching Format
+         * @throws ClementineException if the name does not match any supported format
+         */
+        public static Format fromString(String name) throws ClementineException {
+            switch (name.toLowerCase()) {
+            case "csv":
+                return CSV;
+            case "json":
+                return JSON;
+            case "ics":
+                return ICS;
+            default:
+                throw new ClementineException("quack! i can only export to csv, json or ics!");
+            }
+        }
+    }
+
+    /**
+     * Writes the given tasks to the writer in the requested format.
+     * The writer is not closed; callers should pass a buffered writer and close it themselves.
+     *
+     * @param tasks the tasks to export, in list order
+     * @param format the document format to produce
+     * @param writer the destination of the document
+     * @throws IOException if writing to the destination fails
+     */
+    public void export(List<Task> tasks, Format format, Writer writer) throws IOException {
+        switch (format) {
+        case CSV:
+            writeCsv(tasks, writer);
+            break;
+        case JSON:
+            writeJson(tasks, writer);
+            break;
+        case ICS:
+            writeIcs(tasks, writer);
+            break;
+        default:
+            throw new AssertionError("Unknown export format: " + format);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes tasks as CSV with a header row. Times are written in ISO-8601 format.
+     */
+    private void writeCsv(List<Task> tasks, Writer writer) throws IOException {
+        writer.write("type,done,description,priority,by,from,to\n");
+        for (Task task : tasks) {
+            writer.write(getTypeName(task));
+            writer.write(',');
+            writer.write(task.isDone() ? "true" : "false");
+            writer.write(',');
+            writeCsvField(writer, task.getDescription());
+            writer.write(',');
+            if (task.hasPriority()) {
+                writer.write(Integer.toString(task.getPriorityLevel()));
+            }
+            writer.write(',');
+            if (task instanceof Deadline) {
+                writer.write(ISO_FORMATTER.format(((Deadline) task).getBy()));
+            }
+            writer.write(',');
+            if (task instanceof Event) {
+                writer.write(ISO_FORMATTER.format(((Event) task).getStart()));
+            }
+            writer.write(',');
+            if (task instanceof Event) {
+                writer.write(ISO_FORMATTER.format(((Event) task).getEnd()));
+            }
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Writes a CSV field, quoting it if it contains separators, quotes or line breaks.
+     */
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    /**
+     * Writes tasks as a JSON array of objects, one task per line.
+     */
+    private void writeJson(List<Task> tasks, Writer writer) throws IOException {
+        writer.write('[');
+        boolean isFirst = true;
+        for (Task task : tasks) {
+            writer.write(isFirst ? "\n  " : ",\n  ");
+            isFirst = false;
+
+            writer.write("{\"type\":\"");
+            writer.write(getTypeName(task));
+            writer.write("\",\"done\":");
+            writer.write(task.isDone() ? "true" : "false");
+            writer.write(",\"description\":");
+            Json.writeString(writer, task.getDescription());
+            if (task.hasPriority()) {
+                writer.write(",\"priority\":");
+                writer.write(Integer.toString(task.getPriorityLevel()));
+            }
+            if (task instanceof Deadline) {
+                writeJsonTime(writer, "by", ((Deadline) task).getBy());
+            } else if (task instanceof Event) {
+                writeJsonTime(writer, "from", ((Event) task).getStart());
+                writeJsonTime(writer, "to", ((Event) task).getEnd());
+            }
+            writer.write('}');
+        }
+        writer.write(isFirst ? "]\n" : "\n]\n");
+    }
+
+    private void writeJsonTime(Writer writer, String key, LocalDateTime time) throws IOException {
+        writer.write(",\"");
+        writer.write(key);
+        writer.write("\":\"");
+        writer.write(ISO_FORMATTER.format(time));
+        writer.write('"');
+    }
+
+    /**
+     * Writes tasks as an iCalendar document. Deadlines and todos become VTODO components,
+     * with deadlines carrying a DUE time, and events become VEVENT components with
+     * DTSTART and DTEND. Times are written as floating local times.
+     */
+    private void writeIcs(List<Task> tasks, Writer writer) throws IOException {
+        String timestamp = ICS_FORMATTER.format(LocalDateTime.now(ZoneOffset.UTC)) + "Z";
+        writeIcsLine(writer, "BEGIN:VCALENDAR");
+        writeIcsLine(writer, "VERSION:2.0");
+        writeIcsLine(writer, "PRODID:-//clementine//task export//EN");
+
+        int index = 0;
+        for (Task task : tasks) {
+            index++;
+            String component = (task instanceof Event) ? "VEVENT" : "VTODO";
+            writeIcsLine(writer, "BEGIN:" + component);
+            writeIcsLine(writer, "UID:clementine-" + timestamp + "-" + index);
+            writeIcsLine(writer, "DTSTAMP:" + timestamp);
+            writeIcsLine(writer, "SUMMARY:" + escapeIcsText(task.getDescription()));
+            if (task instanceof Deadline) {
+                writeIcsLine(writer, "DUE:" + ICS_FORMATTER.format(((Deadline) task).getBy()));
+            } else if (task instanceof Event) {
+                writeIcsLine(writer, "DTSTART:" + ICS_FORMATTER.format(((Event) task).getStart()));
+                writeIcsLine(writer, "DTEND:" + ICS_FORMATTER.format(((Event) task).getEnd()));
+            }
+            if (!(task instanceof Event)) {
+                writeIcsLine(writer, "STATUS:" + (task.isDone() ? "COMPLETED" : "NEEDS-ACTION"));
+            }
+            if (task.hasPriority()) {
+                // iCalendar priorities range from 1 (highest) to 9 (lowest)
+                writeIcsLine(writer, "PRIORITY:" + Math.min(task.getPriorityLevel(), 9));
+            }
+            writeIcsLine(writer, "END:" + component);
+        }
+
+        writeIcsLine(writer, "END:VCALENDAR");
+    }
+
+    /**
+     * Writes a content line, folding it so that no physical line exceeds 75 octets.
+     */
+    private void writeIcsLine(Writer writer, String line) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            int charOctets = getUtf8Length(c);
+            if (octets + charOctets > ICS_MAX_LINE_OCTETS) {
+                writer.write(ICS_LINE_BREAK);
+                writer.write(' ');
+                octets = 1;
+            }
+            writer.write(c);
+            octets += charOctets;
+        }
+        writer.write(ICS_LINE_BREAK);
+    }
+
+    private int getUtf8Length(char c) {
+        if (c < 0x80) {
+            return 1;
+        } else if (c < 0x800) {
+            return 2;
+        } else if (Character.isHighSurrogate(c)) {
+            return 4;
+        } else if (Character.isLowSurrogate(c)) {
+            return 0;
+        } else {
+            return 3;
+        }
+    }
+
+    private String escapeIcsText(String text) {
+        return text.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,").replace("\n", "\\n");
+    }
+
+    private String getTypeName(Task task) {
+        if (task instanceof Deadline) {
+            return "deadline";
+        } else if (task instanceof Event) {
+            return "event";
+        } else {
+            return "todo";
+        }
+    }
+}
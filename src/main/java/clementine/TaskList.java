@@ -1,42 +1,131 @@
 package clementine;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import clementine.store.HeapTaskStore;
+import clementine.store.TaskStore;
+import clementine.store.TaskStoreException;
+import clementine.task.DescriptionArena;
 import clementine.task.Task;
 
 /**
  * The TaskList class manages a collection of tasks for the Clementine chatbot.
  * This class provides operations to add, delete, mark, unmark, and retrieve tasks.
+ * The tasks are kept in a {@link TaskStore}: by default as objects on the heap, optionally sharing
+ * repeated descriptions through a {@link DescriptionArena}, as immutable versions in a
+ * {@link clementine.store.VersionedTaskStore}, or off the heap in a
+ * {@link clementine.store.OffHeapTaskStore}. Every change goes through the store, so tasks returned
+ * by the list should not be changed directly. Commands that read the whole list work on a
+ * {@link #readView()}, which for a versioned store is a snapshot that never shows a change half made.
+ * A change the store cannot make, such as one that needs more room than an off-heap store can
+ * have, is reported as a {@link ClementineException}.
  *
  * @author zhiyu
  */
 public class TaskList {
-    private static final int MAX_TASKS = 100;
-    private ArrayList<Task> tasks;
+    public static final int MAX_TASKS = 100;
+    private final TaskStore tasks;
+    private final List<TaskListListener> listeners = new CopyOnWriteArrayList<>();
 
     /**
      * Constructs a TaskList with an existing list of tasks.
      * @param tasks an ArrayList of Task objects to initialise the TaskList with
      */
     public TaskList(ArrayList<Task> tasks) {
+        this(tasks, null);
+    }
+
+    /**
+     * Constructs a TaskList with an existing list of tasks, sharing repeated descriptions through the given arena.
+     * @param tasks an ArrayList of Task objects to initialise the TaskList with
+     * @param descriptionArena the arena to intern descriptions in, or null to leave each task its own copy
+     */
+    public TaskList(ArrayList<Task> tasks, DescriptionArena descriptionArena) {
+        this(new HeapTaskStore(tasks, descriptionArena));
         assert tasks != null : "Tasks list should not be null";
+    }
+
+    /**
+     * Constructs a TaskList over the tasks already in the given store.
+     * @param tasks the store to keep the tasks in
+     */
+    public TaskList(TaskStore tasks) {
+        assert tasks != null : "Task store should not be null";
         this.tasks = tasks;
-        assert this.tasks != null : "TaskList should have initialised tasks";
     }
 
     /**
      * Constructs an empty TaskList.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this(new ArrayList<>(), null);
     }
 
     /**
-     * Returns the underlying ArrayList of tasks.
+     * Returns the tasks as an ArrayList. For tasks kept on the heap this is the underlying list;
+     * other stores return a new list of copies.
      * @return the ArrayList containing all tasks
      */
     public ArrayList<Task> getTaskList() {
-        return tasks;
+        return tasks.toArrayList();
+    }
+
+    /**
+     * Returns the tasks as a list that follows changes to this TaskList, without copying them.
+     * @return a list of all tasks, which may be read-only
+     */
+    public List<Task> asList() {
+        return tasks.asList();
+    }
+
+    /**
+     * Checks whether the tasks are kept as immutable versions, so that snapshots of the list are free.
+     * @return true if the list is backed by a versioned store
+     */
+    public boolean isVersioned() {
+        return tasks.isVersioned();
+    }
+
+    /**
+     * Returns the tasks for a command that reads the whole list, as a read-only list.
+     * With a versioned store this is a snapshot taken without copying, which later changes to this
+     * TaskList do not affect, so another thread may change the list while it is read.
+     * Other stores are read in place rather than copied for every read; their list follows later
+     * changes, so it should only be read by the thread that runs the commands.
+     * @return a read-only list of all tasks
+     */
+    public List<Task> readView() {
+        return Collections.unmodifiableList(view().asList());
+    }
+
+    /**
+     * Returns the store to read a whole command's worth of tasks from: a snapshot if it costs
+     * nothing to take, and otherwise the store itself.
+     */
+    private TaskStore view() {
+        return tasks.isVersioned() ? tasks.snapshot() : tasks;
+    }
+
+    /**
+     * Saves the tasks: a store kept in its own file writes itself there, and otherwise the tasks
+     * are written to the given storage.
+     * @param storage the storage to write the tasks to if the store doesn't save itself
+     * @throws ClementineException if the tasks cannot be saved
+     */
+    public void saveTo(Storage storage) throws ClementineException {
+        boolean isPersisted;
+        try {
+            isPersisted = tasks.persist();
+        } catch (TaskStoreException e) {
+            throw new ClementineException(e.getMessage());
+        }
+        if (!isPersisted) {
+            storage.save(tasks.asList());
+        }
     }
 
     /**
@@ -67,7 +156,7 @@ public class TaskList {
      * @return true if the tasklist contains no tasks, false otherwise.
      */
     public boolean isEmpty() {
-        return tasks.isEmpty();
+        return tasks.size() == 0;
     }
 
     /**
@@ -82,9 +171,39 @@ public class TaskList {
                     + "please complete some tasks before adding extra!");
         }
         int sizeBefore = tasks.size();
-        tasks.add(task);
+        change(() -> tasks.add(task));
         assert tasks.size() == sizeBefore + 1 : "Task list size should increase by 1";
-        assert tasks.contains(task) : "Added task should be in the list";
+        for (TaskListListener listener : listeners) {
+            listener.onTaskAdded(task);
+        }
+    }
+
+    /**
+     * Appends a batch of tasks to the end of the list, preserving their order.
+     * Like tasks loaded from storage, bulk imported tasks are not subject to the
+     * interactive limit of 100 tasks. If the store runs out of room part way, the tasks
+     * before that stay added.
+     * @param newTasks the tasks to append
+     * @throws ClementineException if the store has no room for one of the tasks
+     */
+    public void addTasks(List<Task> newTasks) throws ClementineException {
+        assert newTasks != null : "Tasks to add should not be null";
+        int sizeBefore = tasks.size();
+        try {
+            change(() -> {
+                for (Task task : newTasks) {
+                    tasks.add(task);
+                }
+            });
+            assert tasks.size() == sizeBefore + newTasks.size() : "Task list size should increase by batch size";
+        } finally {
+            List<Task> added = newTasks.subList(0, tasks.size() - sizeBefore);
+            for (TaskListListener listener : listeners) {
+                for (Task task : added) {
+                    listener.onTaskAdded(task);
+                }
+            }
+        }
     }
 
     /**
@@ -93,7 +212,7 @@ public class TaskList {
      * @throws ClementineException if the tasklist is empty or the index is out of bounds
      */
     public void markTask(int index) throws ClementineException {
-        if (tasks.isEmpty()) {
+        if (tasks.size() == 0) {
             throw new ClementineException("quack! u dont have any tasks yet!");
         }
 
@@ -101,10 +220,8 @@ public class TaskList {
             throw new ClementineException("invalid task number!");
         }
 
-        Task taskToMark = tasks.get(index - 1);
-        assert taskToMark != null : "Task to mark should not be null";
-        taskToMark.taskDone();
-        assert taskToMark.isDone() : "Task should be marked as done after marking";
+        tasks.setDone(index - 1, true);
+        assert tasks.isDone(index - 1) : "Task should be marked as done after marking";
     }
 
     /**
@@ -113,7 +230,7 @@ public class TaskList {
      * @throws ClementineException if the tasklist is empty or the index is out of bounds
      */
     public void unmarkTask(int index) throws ClementineException {
-        if (tasks.isEmpty()) {
+        if (tasks.size() == 0) {
             throw new ClementineException("quack! u dont have any tasks yet!");
         }
 
@@ -121,7 +238,7 @@ public class TaskList {
             throw new ClementineException("invalid task number");
         }
 
-        tasks.get(index - 1).taskUndone();
+        tasks.setDone(index - 1, false);
     }
 
     /**
@@ -130,7 +247,7 @@ public class TaskList {
      * @throws ClementineException if the task list is empty or the index is out of bounds
      */
     public void deleteTask(int index) throws ClementineException {
-        if (tasks.isEmpty()) {
+        if (tasks.size() == 0) {
             throw new ClementineException("quack! you dont have any tasks to delete!");
         }
 
@@ -139,9 +256,125 @@ public class TaskList {
         }
 
         int sizeBefore = tasks.size();
-        tasks.remove(index - 1);
+        Task removedTask = tasks.get(index - 1);
+        change(() -> tasks.remove(index - 1));
 
         assert tasks.size() == sizeBefore - 1 : "Task list size should decrease by 1";
+        notifyRemoved(removedTask);
+    }
+
+    /**
+     * Marks every task at the given positions as completed.
+     * @param indices the positions of the tasks to mark (1-indexed), each already validated
+     */
+    public void markTasks(int[] indices) {
+        for (int index : indices) {
+            assert index >= 1 && index <= tasks.size() : "Task number should be validated";
+            tasks.setDone(index - 1, true);
+        }
+    }
+
+    /**
+     * Marks every task at the given positions as not completed.
+     * @param indices the positions of the tasks to unmark (1-indexed), each already validated
+     */
+    public void unmarkTasks(int[] indices) {
+        for (int index : indices) {
+            assert index >= 1 && index <= tasks.size() : "Task number should be validated";
+            tasks.setDone(index - 1, false);
+        }
+    }
+
+    /**
+     * Removes every task at the given positions in a single pass over the list,
+     * shifting each remaining task at most once.
+     * @param indices the positions of the tasks to delete (1-indexed) in ascending order, each already validated
+     * @return the number of tasks removed
+     * @throws ClementineException if the store cannot remove the tasks, in which case none are removed
+     */
+    public int deleteTasks(int[] indices) throws ClementineException {
+        int sizeBefore = tasks.size();
+        int[] positions = new int[indices.length];
+        List<Task> removedTasks = new ArrayList<>(indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            positions[i] = indices[i] - 1;
+            removedTasks.add(tasks.get(positions[i]));
+        }
+        change(() -> tasks.removeAll(positions));
+
+        assert tasks.size() == sizeBefore - indices.length : "Task list size should decrease by the selection size";
+        removedTasks.forEach(this::notifyRemoved);
+        return indices.length;
+    }
+
+    /**
+     * Removes every completed task in a single pass over the list.
+     * @return the number of tasks removed
+     * @throws ClementineException if the store cannot remove the tasks, in which case none are removed
+     */
+    public int deleteDoneTasks() throws ClementineException {
+        int sizeBefore = tasks.size();
+        int[] positions = new int[sizeBefore];
+        List<Task> removedTasks = new ArrayList<>();
+        for (int i = 0; i < sizeBefore; i++) {
+            if (tasks.isDone(i)) {
+                positions[removedTasks.size()] = i;
+                removedTasks.add(tasks.get(i));
+            }
+        }
+        change(() -> tasks.removeAll(Arrays.copyOf(positions, removedTasks.size())));
+        removedTasks.forEach(this::notifyRemoved);
+        return sizeBefore - tasks.size();
+    }
+
+    /**
+     * Captures the current tasks and their completion status so that they can be restored later.
+     * @return a snapshot of the current state of the list
+     */
+    public Snapshot createSnapshot() {
+        return new Snapshot(tasks.snapshot());
+    }
+
+    /**
+     * Restores the list to the state captured by the given snapshot, undoing any additions,
+     * deletions and status changes made since it was taken.
+     * @param snapshot a snapshot previously created from this list
+     * @throws ClementineException if the store cannot be rewritten with the snapshot's tasks
+     */
+    public void restore(Snapshot snapshot) throws ClementineException {
+        change(() -> tasks.restore(snapshot.savedTasks));
+        assert tasks.size() == snapshot.savedTasks.size() : "Restored list should match the snapshot size";
+        for (TaskListListener listener : listeners) {
+            listener.onTasksReplaced(tasks.asList());
+        }
+    }
+
+    /**
+     * Makes a change through the store, reporting a change the store cannot make to the user.
+     */
+    private void change(Runnable change) throws ClementineException {
+        try {
+            change.run();
+        } catch (TaskStoreException e) {
+            throw new ClementineException(e.getMessage());
+        }
+    }
+
+    /**
+     * Registers a listener to be told about every task added to or removed from this list.
+     * The listener is first told about the tasks already in the list through
+     * {@link TaskListListener#onTasksReplaced(List)}.
+     * @param listener the listener to register
+     */
+    public void addListener(TaskListListener listener) {
+        listeners.add(listener);
+        listener.onTasksReplaced(tasks.asList());
+    }
+
+    private void notifyRemoved(Task task) {
+        for (TaskListListener listener : listeners) {
+            listener.onTaskRemoved(task);
+        }
     }
 
     /**
@@ -153,9 +386,10 @@ public class TaskList {
     public ArrayList<Task> findTasks(String keyword) {
         ArrayList<Task> matchingTasks = new ArrayList<>();
 
-        for (Task task : tasks) {
-            if (task.containsKeyword(keyword)) {
-                matchingTasks.add(task);
+        TaskStore view = view();
+        for (int i = 0; i < view.size(); i++) {
+            if (view.containsKeyword(i, keyword)) {
+                matchingTasks.add(view.get(i));
             }
         }
 
@@ -171,10 +405,26 @@ public class TaskList {
      */
     public ArrayList<Task> getTasksByPriority() {
         ArrayList<Task> result = new ArrayList<>();
-        tasks.stream()
-                .filter(Task::hasPriority)
-                .sorted((t1, t2) -> Integer.compare(t1.getPriority().getLevel(), t2.getPriority().getLevel()))
-                .forEach(result::add);
+        TaskStore view = view();
+        for (int i = 0; i < view.size(); i++) {
+            if (view.getPriorityLevel(i) != Task.NO_PRIORITY) {
+                result.add(view.get(i));
+            }
+        }
+        result.sort((t1, t2) -> Integer.compare(t1.getPriorityLevel(), t2.getPriorityLevel()));
         return result;
     }
+
+    /**
+     * An opaque record of the tasks in a TaskList and their completion status at a point in time.
+     * When the tasks are kept in a versioned store it shares everything with the list, and costs
+     * only the nodes that later changes copy.
+     */
+    public static class Snapshot {
+        private final TaskStore savedTasks;
+
+        private Snapshot(TaskStore tasks) {
+            savedTasks = tasks;
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package clementine;
+
+import java.util.List;
+
+import clementine.task.Task;
+
+/**
+ * The TaskListListener interface is notified whenever tasks are added to or removed from a
+ * {@link TaskList}, so that indexes built over the tasks can be kept up to date incrementally.
+ * Methods are called on the thread that changed the list, after the change has been made.
+ *
+ * @author zhiyu
+ */
+public interface TaskListListener {
+    /**
+     * Called after a task is added to the list.
+     *
+     * @param task the task that was added
+     */
+    void onTaskAdded(Task task);
+
+    /**
+     * Called after a task is removed from the list.
+     *
+     * @param task the task that was removed
+     */
+    void onTaskRemoved(Task task);
+
+    /**
+     * Called when the whole content of the list may have changed, such as when the listener is
+     * first registered or the list is restored from a snapshot.
+     *
+     * @param tasks every task now in the list
+     */
+    void onTasksReplaced(List<Task> tasks);
+}
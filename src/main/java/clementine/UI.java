@@ -1,26 +1,30 @@
 package clementine;
 
-import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 import clementine.task.Task;
 
 /**
  * The UI class handles all user interface interactions for the Clementine chatbot.
- * This class manages output operations, displays messages to users, and formats output consistently.
+ * This class reads console input and formats every response consistently. It only builds the
+ * response strings; showing them is left to the {@link Renderer} chosen at startup.
  *
  * @author zhiyu
  *
  */
 public class UI {
+    // typical length of a numbered task line, used to size response buffers up front
+    private static final int ESTIMATED_TASK_LENGTH = 64;
+    private static final int FOOTER_LENGTH = 80;
+
     private Scanner scanner;
 
     /**
-     * Constructs a new UI object and initialises the Scanner for user input.
+     * Constructs a new UI object. The Scanner for console input is only created once a command
+     * is read, so modes that never read from the console do not hold on to standard input.
      */
     public UI() {
-        scanner = new Scanner(System.in);
-        assert scanner != null : "Scanner should be initialised";
     }
 
     /**
@@ -29,11 +33,7 @@ public class UI {
      * @return the intro message
      */
     public String showIntro() {
-        String response = "quack! i'm clementine\n what can i help you with today?\n ( •з• )";
-        showLine();
-        System.out.println(response);
-        showLine();
-        return response;
+        return "quack! i'm clementine\n what can i help you with today?\n ( •з• )";
     }
 
     /**
@@ -41,18 +41,7 @@ public class UI {
      * Shows a goodbye message to the user.
      */
     public String showOutro() {
-        String response = "bye! quack u later! hope you have a great day! •᷄ɞ•";
-        showLine();
-        System.out.println(response);
-        showLine();
-        return response;
-    }
-
-    /**
-     * Prints a decorative line separator to improve visual formatting of the output
-     */
-    public void showLine() {
-        System.out.println("______________________________________________\n");
+        return "bye! quack u later! hope you have a great day! •᷄ɞ•";
     }
 
     /**
@@ -60,6 +49,9 @@ public class UI {
      * @return the user's input as a String
      */
     public String readCommand() {
+        if (scanner == null) {
+            scanner = new Scanner(System.in);
+        }
         return scanner.nextLine();
     }
 
@@ -68,11 +60,7 @@ public class UI {
      * @param message the error message to display
      */
     public String showError(String message) {
-        String response = "OOPS!! " + message;
-        showLine();
-        System.out.println(response);
-        showLine();
-        return response;
+        return "OOPS!! " + message;
     }
 
     /**
@@ -83,48 +71,36 @@ public class UI {
      * @param taskType the type of task ("deadline", "event" or "todo")
      */
     public String showTaskAdded(Task task, int totalTasks, CommandType taskType) {
-        showLine();
         String response = "";
         switch(taskType) {
         case DEADLINE:
-            System.out.println("okay! ive added the deadline task quack!");
             response = "okay! ive added the deadline task quack!";
             break;
         case EVENT:
-            System.out.println("okay! ive added the event task for u! quack!");
             response = "okay! ive added the event task for u! quack!";
             break;
         case TODO:
         default:
-            System.out.println("okay! ive added the task quack!");
             response = "okay! ive added the task quack!";
             break;
         }
-        System.out.println(" " + task.toString());
-        System.out.println("now you have " + totalTasks + " remaining tasks!");
-        showLine();
         return response + "\n" + " " + task.toString() + "\n" + "now you have " + totalTasks + " remaining tasks!";
     }
 
     /**
-     * Displays the complete list of tasks to the user
-     * Each task is numbered and shown with its string representation.
-     * @param tasks an ArrayList of Task objects to display
+     * Displays one page of the complete list of tasks to the user.
+     * Each task is numbered by its position in the whole list and shown with its string representation.
+     * When the list spans several pages, a footer tells the user where they are and how to continue.
+     * @param tasks the List of all Task objects
+     * @param page the page of tasks to display; must not be past the last page
+     * @return the formatted page of tasks
      */
-    public String showTaskList(ArrayList<Task> tasks) {
-        String response = "";
+    public String showTaskList(List<Task> tasks, PageRequest page) {
         if (tasks.isEmpty()) {
-            response = "yay! u have no tasks right now :)";
-        } else {
-            response = "tasks to be done before freedom: ( •᷄ɞ•᷅ )\n";
-            for (int i = 0; i < tasks.size(); i++) {
-                response += (i + 1) + ". " + tasks.get(i).toString() + "\n";
-            }
+            return "yay! u have no tasks right now :)";
         }
-        showLine();
-        System.out.println(response);
-        showLine();
-        return response;
+        String header = "tasks to be done before freedom: ( •᷄ɞ•᷅ )\n";
+        return renderPage(header, tasks, page, "", ". ", "list");
     }
 
     /**
@@ -132,10 +108,6 @@ public class UI {
      * @param task the Task object that was marked as done
      */
     public String showMarkedTask(Task task) {
-        showLine();
-        System.out.println("good job! you've completed the task! quack!");
-        System.out.println(" " + task.toString());
-        showLine();
         return "good job! you've completed the task! quack!" + "\n" + " " + task.toString();
     }
 
@@ -144,13 +116,38 @@ public class UI {
      * @param task the Task object that was unmarked
      */
     public String showUnmarkedTask(Task task) {
-        showLine();
-        System.out.println("okay, ive changed this task to not done. quack!");
-        System.out.println(" " + task.toString());
-        showLine();
         return "okay, ive changed this task to not done. quack!" + "\n" + " " + task.toString();
     }
 
+    /**
+     * Displays confirmation that several tasks have been marked as completed.
+     * @param count the number of tasks marked
+     * @return a formatted string confirming the change
+     */
+    public String showMarkedTasks(int count) {
+        return "good job! you've completed " + count + " tasks! quack!";
+    }
+
+    /**
+     * Displays confirmation that several tasks have been marked as not completed.
+     * @param count the number of tasks unmarked
+     * @return a formatted string confirming the change
+     */
+    public String showUnmarkedTasks(int count) {
+        return "okay, ive changed " + count + " tasks to not done. quack!";
+    }
+
+    /**
+     * Displays confirmation that several tasks have been deleted at once.
+     * @param count the number of tasks deleted
+     * @param totalTasks the total number of remaining tasks after deletion
+     * @return a formatted string confirming the deletion
+     */
+    public String showDeletedTasks(int count, int totalTasks) {
+        return "quack! ive deleted " + count + " tasks for you :)\n"
+                + "now you have " + totalTasks + " remaining tasks";
+    }
+
     /**
      * Displays confirmtation that a task has been successfully deleted.
      * Shows the deleted task details and the updated total task count.
@@ -158,11 +155,6 @@ public class UI {
      * @param totalTasks the total number of remaining tasks after deletion
      */
     public String showDeletedTask(Task task, int totalTasks) {
-        showLine();
-        System.out.println("quack! ive deleted this task for you :)");
-        System.out.println(" " + task.toString());
-        System.out.println("now you have " + totalTasks + " remaining tasks");
-        showLine();
         return "quack! ive deleted this task for you :)" + "\n" + " " + task.toString() + "\n"
                 + "now you have " + totalTasks + " remaining tasks";
     }
@@ -172,9 +164,7 @@ public class UI {
      * @param errorMessage the specific error message describing what went wrong during loading
      */
     public String showLoadingError(String errorMessage) {
-        String response = "quack! error loading tasks: " + errorMessage;
-        System.out.println(response);
-        return response;
+        return "quack! error loading tasks: " + errorMessage;
     }
 
     /**
@@ -191,46 +181,188 @@ public class UI {
      * Displays the given list of tasks that match a {@code find} command.
      * @param tasks the list of tasks to display
      */
-    public String showFindTasks(ArrayList<Task> tasks) {
+    public String showFindTasks(List<Task> tasks) {
         if (tasks.isEmpty()) {
-            showLine();
-            System.out.println("oh quack! no matching tasks found!");
-            showLine();
             return "oh quack! no matching tasks found!";
-        } else {
-            String response = "quack! here's the tasks u might be looking for:\n";
-            for (int i = 0; i < tasks.size(); i++) {
-                response += (i + 1) + ". " + tasks.get(i).toString() + "\n";
-            }
-            showLine();
-            System.out.println(response);
-            showLine();
-            return response;
         }
+        String header = "quack! here's the tasks u might be looking for:\n";
+        StringBuilder response = new StringBuilder(estimateLength(header, tasks.size()));
+        response.append(header);
+        appendTasks(response, tasks, 0, tasks.size(), "", ". ");
+        return response.toString();
     }
 
     /**
-     * Displays a list of tasks that have priority assignments, sorted by priority level.
+     * Displays one page of the tasks that have priority assignments, sorted by priority level.
      * Shows tasks in ascending order of priority (lower numbers first).
      *
-     * @param tasks the list of priority tasks to display
+     * @param tasks the list of all priority tasks
+     * @param page the page of tasks to display; must not be past the last page
      * @return a formatted string showing the priority tasks or a message if none exist
      */
-    public String showPriorityTasks(ArrayList<Task> tasks) {
+    public String showPriorityTasks(List<Task> tasks, PageRequest page) {
         if (tasks.isEmpty()) {
-            showLine();
-            System.out.println("oh quack! no tasks with priority!");
-            showLine();
             return "oh quack! no tasks with priority!";
-        } else {
-            String response = "quack! here's the priority list:\n";
-            for (int i = 0; i < tasks.size(); i++) {
-                response += "[" + (i + 1) + "]" + tasks.get(i).toString() + "\n";
+        }
+        return renderPage("quack! here's the priority list:\n", tasks, page, "[", "]", "priority");
+    }
+
+    /**
+     * Renders one page of tasks into a single buffer sized for the page up front, so the work done
+     * depends only on the page size and not on how many tasks there are in total.
+     *
+     * @param header the first line of the response
+     * @param tasks all tasks of the listing
+     * @param page the page to render
+     * @param numberPrefix the text before each task's number
+     * @param numberSuffix the text between each task's number and the task
+     * @param command the command word to suggest for the next page
+     * @return the rendered page
+     */
+    private String renderPage(String header, List<Task> tasks, PageRequest page, String numberPrefix,
+            String numberSuffix, String command) {
+        int start = (int) page.getStartIndex();
+        int end = Math.min(tasks.size(), start + page.getSize());
+        assert start < tasks.size() : "Page should not be past the end of the list";
+
+        StringBuilder response = new StringBuilder(estimateLength(header, end - start) + FOOTER_LENGTH);
+        response.append(header);
+        appendTasks(response, tasks, start, end, numberPrefix, numberSuffix);
+
+        int pageCount = page.getPageCount(tasks.size());
+        if (pageCount > 1) {
+            response.append("showing ").append(start + 1).append('-').append(end).append(" of ")
+                    .append(tasks.size()).append(" (page ").append(page.getPage()).append(" of ")
+                    .append(pageCount).append(')');
+            if (page.getPage() < pageCount) {
+                response.append(", type '").append(command).append(" next' for more");
+            }
+        }
+        return response.toString();
+    }
+
+    private static void appendTasks(StringBuilder response, List<Task> tasks, int start, int end,
+            String numberPrefix, String numberSuffix) {
+        for (int i = start; i < end; i++) {
+            response.append(numberPrefix).append(i + 1).append(numberSuffix);
+            tasks.get(i).appendTo(response);
+            response.append('\n');
+        }
+    }
+
+    private static int estimateLength(String header, int taskCount) {
+        return header.length() + taskCount * ESTIMATED_TASK_LENGTH;
+    }
+
+    /**
+     * Displays a summary of a bulk import, including throughput and the first few invalid entries.
+     *
+     * @param result the outcome of the import
+     * @param totalTasks the total number of tasks after the import
+     * @return a formatted string summarising the import
+     */
+    public String showImportResult(ImportResult result, int totalTasks) {
+        String unit = result.getUnitName();
+        StringBuilder response = new StringBuilder();
+        response.append("quack! imported ").append(result.getTasks().size()).append(" tasks from ")
+                .append(result.getEntriesRead()).append(' ').append(unit).append(" in ")
+                .append(result.getElapsedMillis()).append(" ms (").append(result.getEntriesPerSecond())
+                .append(' ').append(unit).append("/s)\n");
+        response.append("now you have ").append(totalTasks).append(" remaining tasks!");
+        if (result.getDuplicateCount() > 0) {
+            response.append("\n").append(result.getDuplicateCount()).append(" tasks were already in your list");
+        }
+        if (result.getErrorCount() > 0) {
+            response.append("\n").append(result.getErrorCount()).append(' ').append(unit)
+                    .append(" could not be imported:");
+            for (String error : result.getReportedErrors()) {
+                response.append("\n ").append(error);
+            }
+            if (result.getErrorCount() > result.getReportedErrors().size()) {
+                response.append("\n ...");
             }
-            showLine();
-            System.out.println(response);
-            showLine();
-            return response;
         }
+        return response.toString();
+    }
+
+    /**
+     * Displays confirmation that an export has started in the background.
+     *
+     * @param taskCount the number of tasks being exported
+     * @param format the format the tasks are exported to
+     * @param filePath the file the tasks are written to
+     * @return a formatted string confirming the export
+     */
+    public String showExportStarted(int taskCount, TaskExporter.Format format, String filePath) {
+        return "quack! exporting " + taskCount + " tasks as " + format.name().toLowerCase()
+                + " to " + filePath + " in the background!";
+    }
+
+    /**
+     * Displays that an export running in the background could not write its file.
+     *
+     * @param filePath the file the tasks were being written to
+     * @param reason why the file could not be written
+     * @return a formatted string reporting the failure
+     */
+    public String showExportFailed(String filePath, String reason) {
+        return "oh quack! i couldn't export your tasks to " + filePath + ": " + reason;
+    }
+
+    /**
+     * Displays the messages from the conversation history that mention a keyword.
+     *
+     * @param keyword the keyword that was searched for
+     * @param result the most recent matching messages and the total number of matches
+     * @return a formatted string showing the matching messages or a message if there are none
+     */
+    public String showHistory(String keyword, ConversationLog.SearchResult result) {
+        List<Message> messages = result.getMessages();
+        if (messages.isEmpty()) {
+            return "oh quack! we haven't talked about " + keyword + " yet!";
+        }
+        StringBuilder response = new StringBuilder("quack! here's what we said about ")
+                .append(keyword).append(":\n");
+        for (Message message : messages) {
+            response.append(message.isFromUser() ? "you: " : "clementine: ")
+                    .append(message.getText()).append("\n");
+        }
+        if (result.getMatchCount() > messages.size()) {
+            response.append("(showing the last ").append(messages.size()).append(" of ")
+                    .append(result.getMatchCount()).append(" messages)");
+        } else {
+            response.setLength(response.length() - 1);
+        }
+        return response.toString();
+    }
+
+    /**
+     * Displays confirmation that the last change to the task list has been undone.
+     *
+     * @param taskCount the number of tasks in the list now
+     * @return a formatted string confirming the undo
+     */
+    public String showUndone(int taskCount) {
+        return "quack! ive undone your last change :)\nnow you have " + taskCount + " tasks";
+    }
+
+    /**
+     * Displays confirmation that an undone change has been made again.
+     *
+     * @param taskCount the number of tasks in the list now
+     * @return a formatted string confirming the redo
+     */
+    public String showRedone(int taskCount) {
+        return "quack! ive redone that change for you :)\nnow you have " + taskCount + " tasks";
+    }
+
+    /**
+     * Displays the latency metrics of the commands run so far.
+     *
+     * @param report the table of command and phase latencies
+     * @return a formatted string showing the metrics
+     */
+    public String showMetrics(String report) {
+        return "quack! here's how long things took:\n" + report;
     }
 }
@@ -0,0 +1,95 @@
+package clementine;
+
+import java.util.ArrayDeque;
+
+/**
+ * The UndoHistory class remembers the state of a TaskList before each change, so that changes can be
+ * undone and redone. Each state is a {@link TaskList.Snapshot}: with the tasks kept in a versioned
+ * store, a state shares all but O(log n) of its nodes with the next one, so keeping many steps is cheap
+ * and undoing one publishes the old version without copying the list. With other stores each state
+ * is a copy of the whole list, which is why {@link CommandProcessor#undoDepthFor(TaskList)} turns undo
+ * off for them unless asked. Only the most recent {@code depth} changes are kept.
+ *
+ * @author zhiyu
+ */
+public class UndoHistory {
+    private final int depth;
+    private final ArrayDeque<TaskList.Snapshot> undoStates = new ArrayDeque<>();
+    private final ArrayDeque<TaskList.Snapshot> redoStates = new ArrayDeque<>();
+
+    /**
+     * Constructs an empty history that keeps up to the given number of changes.
+     *
+     * @param depth the number of changes that can be undone, or 0 to keep none
+     */
+    public UndoHistory(int depth) {
+        assert depth >= 0 : "Undo depth should not be negative";
+        this.depth = depth;
+    }
+
+    /**
+     * Checks whether the history keeps any changes at all.
+     *
+     * @return true if changes can be undone
+     */
+    public boolean isEnabled() {
+        return depth > 0;
+    }
+
+    /**
+     * Records a change that has just been made, forgetting any changes that were undone before it.
+     *
+     * @param before the state of the list before the change
+     */
+    public void record(TaskList.Snapshot before) {
+        if (!isEnabled()) {
+            return;
+        }
+        push(undoStates, before);
+        redoStates.clear();
+    }
+
+    /**
+     * Undoes the most recent change that has not been undone yet.
+     *
+     * @param tasks the list the change was made to
+     * @throws ClementineException if undo is turned off or there is no change to undo
+     */
+    public void undo(TaskList tasks) throws ClementineException {
+        checkEnabled();
+        if (undoStates.isEmpty()) {
+            throw new ClementineException("quack! there's nothing to undo!");
+        }
+        push(redoStates, tasks.createSnapshot());
+        tasks.restore(undoStates.pop());
+    }
+
+    /**
+     * Makes the most recently undone change again.
+     *
+     * @param tasks the list the change was made to
+     * @throws ClementineException if undo is turned off or there is no undone change to redo
+     */
+    public void redo(TaskList tasks) throws ClementineException {
+        checkEnabled();
+        if (redoStates.isEmpty()) {
+            throw new ClementineException("quack! there's nothing to redo!");
+        }
+        push(undoStates, tasks.createSnapshot());
+        tasks.restore(redoStates.pop());
+    }
+
+    private void checkEnabled() throws ClementineException {
+        if (!isEnabled()) {
+            throw new ClementineException("quack! undo is turned off, start me with -Dclementine.taskStore=versioned"
+                    + " or -Dclementine.undoDepth=<N> to turn it on!");
+        }
+    }
+
+    private void push(ArrayDeque<TaskList.Snapshot> states, TaskList.Snapshot state) {
+        states.push(state);
+        if (states.size() > depth) {
+            states.removeLast();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package clementine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event spanning the execution of one command.
+ *
+ * @author zhiyu
+ */
+@Name("clementine.Command")
+@Label("Command")
+@Category("Clementine")
+@Description("Execution of one user command, including saving the tasks")
+public class CommandEvent extends jdk.jfr.Event {
+    @Label("Command Type")
+    private String commandType;
+
+    @Label("Task Count")
+    @Description("Number of tasks in the list after the command")
+    private int taskCount;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    /**
+     * Sets the type of the command, in lower case.
+     *
+     * @param commandType the command word, such as {@code todo}
+     */
+    public void setCommandType(String commandType) {
+        this.commandType = commandType;
+    }
+
+    /**
+     * Sets the number of tasks in the list after the command.
+     *
+     * @param taskCount the number of tasks
+     */
+    public void setTaskCount(int taskCount) {
+        this.taskCount = taskCount;
+    }
+
+    /**
+     * Sets whether the command succeeded.
+     *
+     * @param succeeded true if the command did not fail
+     */
+    public void setSucceeded(boolean succeeded) {
+        this.succeeded = succeeded;
+    }
+}
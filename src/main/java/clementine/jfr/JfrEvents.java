@@ -0,0 +1,17 @@
+package clementine.jfr;
+
+/**
+ * The JfrEvents class holds the switch for Clementine's Java Flight Recorder events.
+ * The events are only created when the JVM is started with {@code -Dclementine.jfr=true}.
+ * As the switch is a constant, the JIT compiler removes the event code entirely when it is off,
+ * so the events cost nothing unless asked for. Record them with, for example,
+ * {@code java -Dclementine.jfr=true -XX:StartFlightRecording=filename=clementine.jfr -jar clementine.jar}.
+ *
+ * @author zhiyu
+ */
+public final class JfrEvents {
+    public static final boolean ENABLED = Boolean.getBoolean("clementine.jfr");
+
+    private JfrEvents() {
+    }
+}
@@ -0,0 +1,55 @@
+package clementine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event spanning one read of the data file.
+ *
+ * @author zhiyu
+ */
+@Name("clementine.StorageLoad")
+@Label("Storage Load")
+@Category("Clementine")
+@Description("Reading the lines of the data file")
+public class StorageLoadEvent extends jdk.jfr.Event {
+    @Label("File")
+    private String path;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    @Label("Lines")
+    private int lines;
+
+    /**
+     * Sets the path of the data file.
+     *
+     * @param path the path of the file
+     */
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Sets the size of the data file.
+     *
+     * @param bytes the size of the file in bytes
+     */
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Sets the number of lines read.
+     *
+     * @param lines the number of lines in the file
+     */
+    public void setLines(int lines) {
+        this.lines = lines;
+    }
+}
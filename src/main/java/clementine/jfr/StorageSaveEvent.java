@@ -0,0 +1,55 @@
+package clementine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event spanning one write of the task list to its file.
+ *
+ * @author zhiyu
+ */
+@Name("clementine.StorageSave")
+@Label("Storage Save")
+@Category("Clementine")
+@Description("Writing the task list to the data file")
+public class StorageSaveEvent extends jdk.jfr.Event {
+    @Label("File")
+    private String path;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    @Label("Lines")
+    private int lines;
+
+    /**
+     * Sets the path of the data file.
+     *
+     * @param path the path of the file
+     */
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Sets the size of the data file.
+     *
+     * @param bytes the size of the file in bytes
+     */
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Sets the number of lines written.
+     *
+     * @param lines the number of tasks written
+     */
+    public void setLines(int lines) {
+        this.lines = lines;
+    }
+}
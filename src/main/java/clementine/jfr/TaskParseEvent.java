@@ -0,0 +1,42 @@
+package clementine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event spanning the parsing of the loaded lines into tasks at startup.
+ *
+ * @author zhiyu
+ */
+@Name("clementine.TaskParse")
+@Label("Task Parse")
+@Category("Clementine")
+@Description("Parsing the lines of the data file into tasks at startup")
+public class TaskParseEvent extends jdk.jfr.Event {
+    @Label("Lines")
+    private int lines;
+
+    @Label("Tasks")
+    @Description("Number of tasks parsed, which is lower than the lines if some could not be read")
+    private int tasks;
+
+    /**
+     * Sets the number of lines parsed.
+     *
+     * @param lines the number of lines in the file
+     */
+    public void setLines(int lines) {
+        this.lines = lines;
+    }
+
+    /**
+     * Sets the number of tasks parsed.
+     *
+     * @param tasks the number of lines that were parsed into tasks
+     */
+    public void setTasks(int tasks) {
+        this.tasks = tasks;
+    }
+}
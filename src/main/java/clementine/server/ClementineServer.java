@@ -0,0 +1,469 @@
+package clementine.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import clementine.Clementine;
+import clementine.ClementineException;
+import clementine.CommandMetrics;
+import clementine.Json;
+
+/**
+ * The ClementineServer class runs Clementine headless and serves commands over the network.
+ * It offers a line-based TCP protocol and an HTTP/JSON endpoint, both bound to the loopback
+ * interface, and routes every command to {@link Clementine#getResponse(String)}, either on a
+ * single shared instance or on the sending user's own instance through a {@link TenantManager}.
+ * Clients cannot use {@code import} or {@code export}, which would reach any file the server can.
+ * Each connection is handled on its own virtual thread when the JVM supports them, so idle
+ * clients are cheap.
+ *
+ * <p>TCP protocol: the client sends one command per line. The server replies with the response
+ * lines followed by a line containing a single {@code .}; response lines that start with
+ * {@code .} are sent with an extra leading {@code .}. Sending {@code user <id>} switches the
+ * connection to another user, and sending {@code bye} closes the connection.
+ *
+ * <p>HTTP protocol: {@code POST /command} with a body of {@code {"user": "...", "command": "..."}}
+ * returns {@code {"response": "..."}}. The user field is optional.
+ *
+ * @author zhiyu
+ */
+public class ClementineServer {
+    private static final String END_OF_RESPONSE = ".";
+    private static final String DEFAULT_USER = "default";
+
+    private final CommandHandler handler;
+    private final ExecutorService connectionExecutor = newConnectionExecutor();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final Set<Socket> openConnections = ConcurrentHashMap.newKeySet();
+    private ServerSocket tcpSocket;
+    private HttpServer httpServer;
+
+    /**
+     * Constructs a server that routes every user's commands to the same Clementine instance.
+     * Commands are applied one at a time since they share one task list. The instance's import and
+     * export commands are turned off, so that clients cannot read or write files on the server.
+     *
+     * @param clementine the Clementine instance to serve
+     */
+    public ClementineServer(Clementine clementine) {
+        clementine.disableFileCommands();
+        ReentrantLock commandLock = new ReentrantLock();
+        this.handler = new CommandHandler() {
+            @Override
+            public String respond(String userId, String input) {
+                commandLock.lock();
+                try {
+                    return clementine.getResponse(input);
+                } finally {
+                    commandLock.unlock();
+                }
+            }
+
+            @Override
+            public void shutdown() {
+                clementine.shutdown();
+            }
+        };
+    }
+
+    /**
+     * Constructs a server that routes each user's commands through the given handler,
+     * such as a {@link TenantManager}.
+     *
+     * @param handler the handler that applies commands for each user
+     */
+    public ClementineServer(CommandHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Returns an executor that runs each task on a new virtual thread, falling back to a
+     * cached pool of platform threads on JVMs without virtual thread support.
+     *
+     * @return an executor suitable for running one task per connection
+     */
+    static ExecutorService newConnectionExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "clementine-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Starts accepting TCP connections on the given loopback port.
+     *
+     * @param port the port to listen on, or 0 to pick a free port
+     * @return the port the server is listening on
+     * @throws IOException if the port cannot be bound
+     */
+    public int startTcp(int port) throws IOException {
+        tcpSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        connectionExecutor.execute(this::acceptTcpConnections);
+        return tcpSocket.getLocalPort();
+    }
+
+    /**
+     * Starts serving the HTTP/JSON endpoint on the given loopback port.
+     *
+     * @param port the port to listen on, or 0 to pick a free port
+     * @return the port the server is listening on
+     * @throws IOException if the port cannot be bound
+     */
+    public int startHttp(int port) throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        httpServer.createContext("/command", this::handleHttpCommand);
+        httpServer.setExecutor(connectionExecutor);
+        httpServer.start();
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting connections, closes the open ones and releases the server's resources.
+     */
+    public void stop() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+        }
+        if (tcpSocket != null) {
+            try {
+                tcpSocket.close();
+            } catch (IOException e) {
+                // the socket is being discarded anyway
+            }
+        }
+        // a thread blocked reading from a socket ignores interrupts, so close the sockets themselves
+        for (Socket socket : openConnections) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // the connection is being discarded anyway
+            }
+        }
+        connectionExecutor.shutdownNow();
+        try {
+            connectionExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        handler.shutdown();
+        stopped.countDown();
+    }
+
+    /**
+     * Blocks the calling thread until the server has been stopped.
+     *
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    private void acceptTcpConnections() {
+        while (!tcpSocket.isClosed()) {
+            try {
+                Socket socket = tcpSocket.accept();
+                openConnections.add(socket);
+                connectionExecutor.execute(() -> serveTcpConnection(socket));
+            } catch (SocketException e) {
+                // the server socket was closed by stop()
+                return;
+            } catch (IOException e) {
+                System.err.println("quack! error accepting connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads commands from one TCP connection until the client disconnects or sends {@code bye}.
+     *
+     * @param socket the connected client socket
+     */
+    private void serveTcpConnection(Socket socket) {
+        try (socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String userId = DEFAULT_USER;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String input = line.trim();
+                if (input.startsWith("user ")) {
+                    userId = input.substring("user ".length()).trim();
+                    writeTcpResponse(out, "quack! now serving " + userId);
+                    continue;
+                }
+                writeTcpResponse(out, handler.respond(userId, line));
+                if (input.equals("bye")) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // the client went away; nothing more to send
+        } finally {
+            openConnections.remove(socket);
+        }
+    }
+
+    private void writeTcpResponse(BufferedWriter out, String response) throws IOException {
+        for (String responseLine : response.split("\n", -1)) {
+            if (responseLine.startsWith(END_OF_RESPONSE)) {
+                out.write(END_OF_RESPONSE);
+            }
+            out.write(responseLine);
+            out.write('\n');
+        }
+        out.write(END_OF_RESPONSE);
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * Handles {@code POST /command} requests carrying a JSON body with a {@code command} field.
+     *
+     * @param exchange the HTTP request and response
+     * @throws IOException if the response cannot be sent
+     */
+    private void handleHttpCommand(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                sendJson(exchange, 405, "{\"error\":\"use POST\"}");
+                return;
+            }
+
+            String command;
+            String userId;
+            try (InputStream body = exchange.getRequestBody()) {
+                String json = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                command = Json.readStringField(json, "command");
+                userId = Json.readStringField(json, "user");
+            } catch (IllegalArgumentException e) {
+                command = null;
+                userId = null;
+            }
+            if (command == null) {
+                sendJson(exchange, 400, "{\"error\":\"expected a JSON body with a command field\"}");
+                return;
+            }
+
+            String response = handler.respond(userId == null ? DEFAULT_USER : userId, command);
+            sendJson(exchange, 200, "{\"response\":" + Json.quote(response) + "}");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Starts a headless Clementine server.
+     * Options: {@code --data <file>} (default {@code ./data/clementine.txt}),
+     * {@code --tcp-port <port>} (default 4567) and {@code --http-port <port>} (default 8080).
+     * A port of -1 disables that protocol. {@code --tenants <directory>} serves each user from their
+     * own file in that directory instead, keeping at most {@code --max-tenants <n>} (default 1000)
+     * task lists and {@code --max-tasks <n>} (default 1000000) tasks loaded at once.
+     * {@code --metrics-dump <file>} appends the command metrics to a file every
+     * {@code --metrics-interval <seconds>} (default 60). Invalid options print a usage message.
+     *
+     * @param args command line options
+     */
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (ClementineException e) {
+            System.err.println("quack! " + e.getMessage());
+            System.err.println(Options.USAGE);
+            return;
+        }
+
+        ClementineServer server = options.getTenantDirectory() == null
+                ? new ClementineServer(new Clementine(options.getDataPath()))
+                : new ClementineServer(new TenantManager(Paths.get(options.getTenantDirectory()),
+                        options.getMaxTenants(), options.getMaxTasks()));
+        if (options.getMetricsPath() != null) {
+            CommandMetrics.global().startDumping(Paths.get(options.getMetricsPath()), options.getMetricsInterval());
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            CommandMetrics.global().stopDumping();
+        }));
+        try {
+            if (options.getTcpPort() >= 0) {
+                System.out.println("quack! tcp server listening on port " + server.startTcp(options.getTcpPort()));
+            }
+            if (options.getHttpPort() >= 0) {
+                System.out.println("quack! http server listening on port " + server.startHttp(options.getHttpPort()));
+            }
+            server.awaitStop();
+        } catch (IOException e) {
+            System.err.println("quack! could not start server: " + e.getMessage());
+            server.stop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The command line options of the server, checked before anything is started.
+     */
+    static class Options {
+        static final String USAGE = "usage: ClementineServer [--data <file>] [--tcp-port <port>]"
+                + " [--http-port <port>] [--tenants <directory>] [--max-tenants <n>] [--max-tasks <n>]"
+                + " [--metrics-dump <file>] [--metrics-interval <seconds>]";
+        private static final int MAX_PORT = 65535;
+
+        private String dataPath = "./data/clementine.txt";
+        private int tcpPort = 4567;
+        private int httpPort = 8080;
+        private String tenantDirectory = null;
+        private int maxTenants = 1000;
+        private long maxTasks = 1_000_000;
+        private String metricsPath = null;
+        private long metricsInterval = 60;
+
+        /**
+         * Reads the options from the command line arguments, each option followed by its value.
+         *
+         * @param args command line arguments
+         * @return the options, with defaults for those not given
+         * @throws ClementineException if an option is unknown, has no value or has an invalid value
+         */
+        static Options parse(String[] args) throws ClementineException {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i += 2) {
+                String option = args[i];
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch (option) {
+                case "--data":
+                    options.dataPath = requireValue(option, value);
+                    break;
+                case "--tcp-port":
+                    options.tcpPort = parsePort(option, value);
+                    break;
+                case "--http-port":
+                    options.httpPort = parsePort(option, value);
+                    break;
+                case "--tenants":
+                    options.tenantDirectory = requireValue(option, value);
+                    break;
+                case "--max-tenants":
+                    options.maxTenants = (int) parsePositive(option, value, Integer.MAX_VALUE);
+                    break;
+                case "--max-tasks":
+                    options.maxTasks = parsePositive(option, value, Long.MAX_VALUE);
+                    break;
+                case "--metrics-dump":
+                    options.metricsPath = requireValue(option, value);
+                    break;
+                case "--metrics-interval":
+                    options.metricsInterval = Clementine.parseMetricsInterval(requireValue(option, value));
+                    break;
+                default:
+                    throw new ClementineException("unknown option " + option);
+                }
+            }
+            return options;
+        }
+
+        String getDataPath() {
+            return dataPath;
+        }
+
+        int getTcpPort() {
+            return tcpPort;
+        }
+
+        int getHttpPort() {
+            return httpPort;
+        }
+
+        String getTenantDirectory() {
+            return tenantDirectory;
+        }
+
+        int getMaxTenants() {
+            return maxTenants;
+        }
+
+        long getMaxTasks() {
+            return maxTasks;
+        }
+
+        String getMetricsPath() {
+            return metricsPath;
+        }
+
+        long getMetricsInterval() {
+            return metricsInterval;
+        }
+
+        private static String requireValue(String option, String value) throws ClementineException {
+            if (value == null) {
+                throw new ClementineException(option + " needs a value");
+            }
+            return value;
+        }
+
+        private static int parsePort(String option, String value) throws ClementineException {
+            long port = parseNumber(option, requireValue(option, value));
+            if (port < -1 || port > MAX_PORT) {
+                throw new ClementineException(option + " must be a port from 0 to " + MAX_PORT
+                        + ", or -1 to turn it off");
+            }
+            return (int) port;
+        }
+
+        private static long parsePositive(String option, String value, long max) throws ClementineException {
+            long number = parseNumber(option, requireValue(option, value));
+            if (number <= 0 || number > max) {
+                throw new ClementineException(option + " must be a positive number up to " + max);
+            }
+            return number;
+        }
+
+        private static long parseNumber(String option, String value) throws ClementineException {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new ClementineException(option + " must be a number, not " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package clementine.server;
+
+/**
+ * Routes commands received by a {@link ClementineServer} to the task list of the user who sent them.
+ *
+ * @author zhiyu
+ */
+public interface CommandHandler {
+    /**
+     * Applies a command on behalf of a user and returns the response.
+     *
+     * @param userId the identifier of the user sending the command
+     * @param input the command to apply
+     * @return the response to send back to the user
+     */
+    String respond(String userId, String input);
+
+    /**
+     * Saves any loaded state and releases the handler's resources.
+     */
+    void shutdown();
+}
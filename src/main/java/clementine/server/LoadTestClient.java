@@ -0,0 +1,163 @@
+package clementine.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The LoadTestClient class measures the throughput and latency of a running {@link ClementineServer}.
+ * It opens a number of concurrent TCP connections, sends the same command repeatedly over each one,
+ * and reports the overall requests per second together with latency percentiles.
+ *
+ * @author zhiyu
+ */
+public class LoadTestClient {
+    private final String host;
+    private final int port;
+    private final int clients;
+    private final int requestsPerClient;
+    private final String command;
+
+    /**
+     * Constructs a load test against the server at the given address.
+     *
+     * @param host the host the server is listening on
+     * @param port the TCP port the server is listening on
+     * @param clients the number of concurrent connections to open
+     * @param requestsPerClient the number of commands to send over each connection
+     * @param command the command to send
+     */
+    public LoadTestClient(String host, int port, int clients, int requestsPerClient, String command) {
+        this.host = host;
+        this.port = port;
+        this.clients = clients;
+        this.requestsPerClient = requestsPerClient;
+        this.command = command;
+    }
+
+    /**
+     * Runs the load test and returns a summary of the results.
+     *
+     * @return a report of requests per second and latency percentiles
+     * @throws Exception if any client fails to connect or receive its responses
+     */
+    public String run() throws Exception {
+        ExecutorService executor = ClementineServer.newConnectionExecutor();
+        List<Future<long[]>> results = new ArrayList<>();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            results.add(executor.submit(this::runClient));
+        }
+
+        long[] latencies = new long[clients * requestsPerClient];
+        int count = 0;
+        for (Future<long[]> result : results) {
+            long[] clientLatencies = result.get();
+            System.arraycopy(clientLatencies, 0, latencies, count, clientLatencies.length);
+            count += clientLatencies.length;
+        }
+        long elapsedNanos = System.nanoTime() - startTime;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        Arrays.sort(latencies);
+        double requestsPerSecond = latencies.length * 1_000_000_000.0 / elapsedNanos;
+        return String.format("%d requests from %d clients in %d ms%n"
+                        + "throughput: %.0f requests/s%n"
+                        + "latency: p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms",
+                latencies.length, clients, elapsedNanos / 1_000_000, requestsPerSecond,
+                percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.90),
+                percentileMillis(latencies, 0.99), latencies[latencies.length - 1] / 1_000_000.0);
+    }
+
+    /**
+     * Sends the command over a single connection and records the round trip time of each request.
+     *
+     * @return the latency of each request in nanoseconds
+     * @throws IOException if the connection fails
+     */
+    private long[] runClient() throws IOException {
+        long[] latencies = new long[requestsPerClient];
+        try (Socket socket = new Socket(host, port);
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            for (int i = 0; i < requestsPerClient; i++) {
+                long sendTime = System.nanoTime();
+                out.write(command);
+                out.write('\n');
+                out.flush();
+                readResponse(in);
+                latencies[i] = System.nanoTime() - sendTime;
+            }
+        }
+        return latencies;
+    }
+
+    private void readResponse(BufferedReader in) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.equals(".")) {
+                return;
+            }
+        }
+        throw new IOException("connection closed before the response ended");
+    }
+
+    private static double percentileMillis(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    /**
+     * Runs a load test against a local server.
+     * Options: {@code --host <host>} (default 127.0.0.1), {@code --port <port>} (default 4567),
+     * {@code --clients <n>} (default 100), {@code --requests <n>} per client (default 100)
+     * and {@code --command <command>} (default {@code list}).
+     *
+     * @param args command line options
+     * @throws Exception if the load test fails
+     */
+    public static void main(String[] args) throws Exception {
+        String host = "127.0.0.1";
+        int port = 4567;
+        int clients = 100;
+        int requests = 100;
+        String command = "list";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+            case "--host":
+                host = args[i + 1];
+                break;
+            case "--port":
+                port = Integer.parseInt(args[i + 1]);
+                break;
+            case "--clients":
+                clients = Integer.parseInt(args[i + 1]);
+                break;
+            case "--requests":
+                requests = Integer.parseInt(args[i + 1]);
+                break;
+            case "--command":
+                command = args[i + 1];
+                break;
+            default:
+                System.err.println("quack! unknown option " + args[i]);
+                return;
+            }
+        }
+        System.out.println(new LoadTestClient(host, port, clients, requests, command).run());
+    }
+}
@@ -0,0 +1,236 @@
+package clementine.server;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+import clementine.Clementine;
+import clementine.ClementineException;
+
+/**
+ * The TenantManager class hosts the task lists of many users in one process.
+ * Each user's tasks are stored in their own file under a data directory and are only loaded
+ * when that user sends their first command. Loaded task lists are kept in least-recently-used
+ * order, and idle ones are saved and unloaded once more users or more tasks are loaded than the
+ * configured budget allows.
+ *
+ * <p>Commands from the same user are applied one at a time, while commands from different users
+ * run in parallel. Users cannot import or export files, which could reach each other's tasks.
+ *
+ * @author zhiyu
+ */
+public class TenantManager implements CommandHandler {
+    private static final Pattern VALID_USER_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final Path dataDirectory;
+    private final int maxLoadedTenants;
+    private final long maxLoadedTasks;
+
+    // guards tenants, closingTenants, loadedTasks and every Tenant's activeRequests and countedTasks
+    private final ReentrantLock managerLock = new ReentrantLock();
+    private final LinkedHashMap<String, Tenant> tenants = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Void>> closingTenants = new HashMap<>();
+    private long loadedTasks;
+
+    /**
+     * Constructs a TenantManager that stores each user's tasks in {@code <dataDirectory>/<userId>.txt}.
+     *
+     * @param dataDirectory the directory holding the users' task files
+     * @param maxLoadedTenants the most task lists to keep loaded at once
+     * @param maxLoadedTasks the most tasks to keep loaded at once, across all users
+     */
+    public TenantManager(Path dataDirectory, int maxLoadedTenants, long maxLoadedTasks) {
+        assert maxLoadedTenants > 0 : "At least one tenant should be allowed to load";
+        this.dataDirectory = dataDirectory;
+        this.maxLoadedTenants = maxLoadedTenants;
+        this.maxLoadedTasks = maxLoadedTasks;
+    }
+
+    /**
+     * Applies a command to the given user's task list, loading it first if necessary.
+     *
+     * @param userId the identifier of the user; letters, digits, {@code _} and {@code -} only
+     * @param input the command to apply
+     * @return the response to the command, or an error message if the user ID is invalid
+     */
+    @Override
+    public String respond(String userId, String input) {
+        if (userId == null || !VALID_USER_ID.matcher(userId).matches()) {
+            return "OOPS!! quack! user ids can only contain letters, digits, _ and -";
+        }
+
+        Tenant tenant = acquire(userId);
+        try {
+            return tenant.respond(input);
+        } finally {
+            release(tenant);
+        }
+    }
+
+    /**
+     * Returns the number of task lists currently loaded.
+     *
+     * @return the number of loaded tenants
+     */
+    public int getLoadedTenantCount() {
+        managerLock.lock();
+        try {
+            return tenants.size();
+        } finally {
+            managerLock.unlock();
+        }
+    }
+
+    /**
+     * Saves and unloads every task list. Should only be called once no more commands will arrive.
+     */
+    @Override
+    public void shutdown() {
+        List<Tenant> remaining;
+        managerLock.lock();
+        try {
+            remaining = new ArrayList<>(tenants.values());
+            tenants.clear();
+            loadedTasks = 0;
+        } finally {
+            managerLock.unlock();
+        }
+        for (Tenant tenant : remaining) {
+            tenant.close();
+        }
+    }
+
+    /**
+     * Returns the tenant for the given user and registers a request on it, so that it cannot be
+     * evicted until the request is released. If the user's previous tenant is still being saved
+     * after an eviction, waits for that to finish so the new tenant loads the latest data.
+     */
+    private Tenant acquire(String userId) {
+        while (true) {
+            CompletableFuture<Void> pendingClose;
+            managerLock.lock();
+            try {
+                pendingClose = closingTenants.get(userId);
+                if (pendingClose == null) {
+                    Tenant tenant = tenants.computeIfAbsent(userId,
+                            id -> new Tenant(dataDirectory.resolve(id + ".txt").toString()));
+                    tenant.activeRequests++;
+                    return tenant;
+                }
+            } finally {
+                managerLock.unlock();
+            }
+            pendingClose.join();
+        }
+    }
+
+    /**
+     * Finishes a request on the tenant, updates the loaded task count and evicts idle tenants
+     * while the manager is over budget.
+     */
+    private void release(Tenant tenant) {
+        List<Tenant> evictedTenants = new ArrayList<>();
+        List<CompletableFuture<Void>> closeFutures = new ArrayList<>();
+        managerLock.lock();
+        try {
+            tenant.activeRequests--;
+            int taskCount = tenant.taskCount;
+            loadedTasks += taskCount - tenant.countedTasks;
+            tenant.countedTasks = taskCount;
+
+            Iterator<Map.Entry<String, Tenant>> eldestFirst = tenants.entrySet().iterator();
+            while (isOverBudget() && eldestFirst.hasNext()) {
+                Map.Entry<String, Tenant> entry = eldestFirst.next();
+                Tenant candidate = entry.getValue();
+                if (candidate.activeRequests > 0) {
+                    continue;
+                }
+                eldestFirst.remove();
+                loadedTasks -= candidate.countedTasks;
+                CompletableFuture<Void> closeFuture = new CompletableFuture<>();
+                closingTenants.put(entry.getKey(), closeFuture);
+                evictedTenants.add(candidate);
+                closeFutures.add(closeFuture);
+            }
+        } finally {
+            managerLock.unlock();
+        }
+
+        // save evicted tenants outside the manager lock so other users are not held up by the file I/O
+        for (int i = 0; i < evictedTenants.size(); i++) {
+            Tenant evicted = evictedTenants.get(i);
+            try {
+                evicted.close();
+            } finally {
+                managerLock.lock();
+                try {
+                    closingTenants.values().remove(closeFutures.get(i));
+                } finally {
+                    managerLock.unlock();
+                }
+                closeFutures.get(i).complete(null);
+            }
+        }
+    }
+
+    private boolean isOverBudget() {
+        return tenants.size() > maxLoadedTenants || loadedTasks > maxLoadedTasks;
+    }
+
+    /**
+     * A single user's task list, loaded lazily and guarded by its own lock.
+     */
+    private static class Tenant {
+        private final String filePath;
+        private final ReentrantLock lock = new ReentrantLock();
+        private Clementine clementine;
+        private volatile int taskCount;
+        private int activeRequests;
+        private int countedTasks;
+
+        Tenant(String filePath) {
+            this.filePath = filePath;
+        }
+
+        String respond(String input) {
+            lock.lock();
+            try {
+                if (clementine == null) {
+                    clementine = new Clementine(filePath);
+                    // a user could otherwise import or export another user's file
+                    clementine.disableFileCommands();
+                }
+                String response = clementine.getResponse(input);
+                taskCount = clementine.getTaskCount();
+                return response;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                if (clementine == null) {
+                    return;
+                }
+                try {
+                    clementine.flush();
+                } catch (ClementineException e) {
+                    System.err.println("quack! could not save " + filePath + ": " + e.getMessage());
+                }
+                clementine.shutdown();
+                clementine = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
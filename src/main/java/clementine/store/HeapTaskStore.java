@@ -0,0 +1,163 @@
+package clementine.store;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import clementine.task.DescriptionArena;
+import clementine.task.Task;
+
+/**
+ * The HeapTaskStore class keeps tasks as ordinary objects in an ArrayList, and hands out the
+ * objects themselves. It can be given a {@link DescriptionArena}, so that tasks added to it share
+ * one copy of each repeated description.
+ *
+ * <p>Snapshots share the task objects with the store, which marks them in place, so a snapshot
+ * also remembers whether each task was done and puts that back when it is restored.
+ *
+ * @author zhiyu
+ */
+public class HeapTaskStore implements TaskStore {
+    private final ArrayList<Task> tasks;
+    private final DescriptionArena descriptionArena;
+    // the status of each task when this store was taken as a snapshot, or null for a store in use
+    private final boolean[] savedCompletion;
+
+    /**
+     * Constructs a store holding the given tasks, which becomes the store's own list.
+     *
+     * @param tasks the tasks to start with
+     * @param descriptionArena the arena to intern descriptions in, or null to leave each task its own copy
+     */
+    public HeapTaskStore(ArrayList<Task> tasks, DescriptionArena descriptionArena) {
+        this.tasks = tasks;
+        this.descriptionArena = descriptionArena;
+        this.savedCompletion = null;
+        for (Task task : tasks) {
+            internDescription(task);
+        }
+    }
+
+    private HeapTaskStore(boolean[] savedCompletion, ArrayList<Task> tasks) {
+        this.tasks = tasks;
+        this.descriptionArena = null;
+        this.savedCompletion = savedCompletion;
+    }
+
+    private void internDescription(Task task) {
+        if (descriptionArena != null) {
+            task.internDescription(descriptionArena);
+        }
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public Task get(int index) {
+        return tasks.get(index);
+    }
+
+    @Override
+    public boolean isDone(int index) {
+        return savedCompletion != null ? savedCompletion[index] : tasks.get(index).isDone();
+    }
+
+    @Override
+    public int getPriorityLevel(int index) {
+        return tasks.get(index).getPriorityLevel();
+    }
+
+    @Override
+    public boolean containsKeyword(int index, String keyword) {
+        return tasks.get(index).containsKeyword(keyword);
+    }
+
+    @Override
+    public void add(Task task) {
+        internDescription(task);
+        tasks.add(task);
+    }
+
+    @Override
+    public void remove(int index) {
+        tasks.remove(index);
+    }
+
+    @Override
+    public void removeAll(int[] indices) {
+        int sizeBefore = tasks.size();
+        int next = 0;
+        int write = 0;
+        for (int read = 0; read < sizeBefore; read++) {
+            if (next < indices.length && indices[next] == read) {
+                next++;
+                continue;
+            }
+            tasks.set(write++, tasks.get(read));
+        }
+        tasks.subList(write, sizeBefore).clear();
+    }
+
+    @Override
+    public void setDone(int index, boolean isDone) {
+        if (isDone) {
+            tasks.get(index).taskDone();
+        } else {
+            tasks.get(index).taskUndone();
+        }
+    }
+
+    @Override
+    public void clear() {
+        tasks.clear();
+    }
+
+    @Override
+    public List<Task> asList() {
+        return tasks;
+    }
+
+    @Override
+    public ArrayList<Task> toArrayList() {
+        return tasks;
+    }
+
+    @Override
+    public boolean isVersioned() {
+        return false;
+    }
+
+    /**
+     * Copies the references to the tasks and whether each is done.
+     */
+    @Override
+    public TaskStore snapshot() {
+        boolean[] completion = new boolean[tasks.size()];
+        for (int i = 0; i < completion.length; i++) {
+            completion[i] = tasks.get(i).isDone();
+        }
+        return new HeapTaskStore(completion, new ArrayList<>(tasks));
+    }
+
+    /**
+     * Puts back the snapshot's task objects, marking each as it was when the snapshot was taken.
+     * The objects are shared with the snapshot and with tasks handed out earlier, so this must run on
+     * the thread that runs the commands; exports work on copies of the tasks for this reason.
+     */
+    @Override
+    public void restore(TaskStore snapshot) {
+        HeapTaskStore saved = (HeapTaskStore) snapshot;
+        tasks.clear();
+        tasks.addAll(saved.tasks);
+        for (int i = 0; i < tasks.size(); i++) {
+            setDone(i, saved.isDone(i));
+        }
+    }
+
+    @Override
+    public boolean persist() {
+        return false;
+    }
+}
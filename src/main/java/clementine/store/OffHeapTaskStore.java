@@ -0,0 +1,587 @@
+package clementine.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import clementine.Priority;
+import clementine.task.Deadline;
+import clementine.task.EpochMinutes;
+import clementine.task.Event;
+import clementine.task.Task;
+import clementine.task.Todo;
+
+/**
+ * The OffHeapTaskStore class keeps tasks outside the garbage-collected heap, so that very large
+ * lists add nothing for the collector to trace and pauses stay short. Each task is a fixed-width
+ * record in a direct buffer, and descriptions are appended to an arena at the end of the same buffer.
+ * {@link #get(int)} builds a new Task from a record each time it is called, so tasks handed out
+ * are short-lived copies; changes are made through the store.
+ *
+ * <p>The buffer can be a file mapped into memory with {@link #map(Path)}, in which case the file
+ * has exactly the layout in memory and opening it again is mostly a matter of mapping it.
+ * Adding and marking tasks write to the mapped memory straight away, filling in a record before the
+ * header counts it, and {@link #persist()} forces the changes to disk. Removing tasks and restoring a
+ * snapshot would move records that are already counted, so for a mapped store they write a new file
+ * instead, which atomically replaces the old one; a crash leaves either the old list or the new one,
+ * at the cost of copying the file for each such change.
+ *
+ * <p>The layout is a 32-byte header, then {@code recordCapacity} records of 32 bytes, then the
+ * description arena. Space freed by deleted tasks is reclaimed when the buffer is next rebuilt,
+ * which happens when either part is full. Each part is limited to what a buffer can index,
+ * about 2 GB. A change that would need more, or a new file that cannot be written, fails with a
+ * {@link TaskStoreException}.
+ *
+ * @author zhiyu
+ */
+public class OffHeapTaskStore implements TaskStore {
+    private static final int MAGIC = 0x434C5453;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int MAGIC_AT = 0;
+    private static final int VERSION_AT = 4;
+    private static final int SIZE_AT = 8;
+    private static final int RECORD_CAPACITY_AT = 12;
+    private static final int DESCRIPTION_END_AT = 16;
+    private static final int DESCRIPTION_CAPACITY_AT = 20;
+
+    private static final int RECORD_SIZE = 32;
+    private static final int KIND_AT = 0;
+    private static final int FLAGS_AT = 1;
+    private static final int PRIORITY_AT = 4;
+    private static final int FIRST_TIME_AT = 8;
+    private static final int SECOND_TIME_AT = 16;
+    private static final int DESCRIPTION_OFFSET_AT = 24;
+    private static final int DESCRIPTION_LENGTH_AT = 28;
+
+    private static final byte TODO = 0;
+    private static final byte DEADLINE = 1;
+    private static final byte EVENT = 2;
+    private static final byte DONE_FLAG = 1;
+    private static final byte LATIN1_FLAG = 2;
+
+    private static final int INITIAL_RECORD_CAPACITY = 64;
+    private static final int INITIAL_DESCRIPTION_CAPACITY = 64 * 32;
+    private static final int[] NO_INDICES = new int[0];
+
+    private final Path file;
+    private ByteBuffer buffer;
+    private int size;
+    private int recordCapacity;
+    private int descriptionEnd;
+    private int descriptionCapacity;
+    private long liveDescriptionBytes;
+
+    private OffHeapTaskStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns an empty store in direct memory that is not backed by a file.
+     *
+     * @return the new store
+     */
+    public static OffHeapTaskStore allocate() {
+        OffHeapTaskStore store = new OffHeapTaskStore(null);
+        try {
+            store.buffer = store.createBuffer(null, INITIAL_RECORD_CAPACITY, INITIAL_DESCRIPTION_CAPACITY);
+        } catch (IOException e) {
+            throw new AssertionError("Allocating direct memory should not do any I/O", e);
+        }
+        store.writeHeader();
+        return store;
+    }
+
+    /**
+     * Maps the given file into memory as a store, creating an empty store if the file doesn't
+     * exist or is empty. Nothing is read from an existing file but its header and records.
+     *
+     * @param file the file to keep the tasks in
+     * @return the store
+     * @throws IOException if the file cannot be mapped or is not a task store
+     */
+    public static OffHeapTaskStore map(Path file) throws IOException {
+        OffHeapTaskStore store = new OffHeapTaskStore(file);
+        // a new file left behind by a crash before it replaced this one; the old file is still whole
+        Files.deleteIfExists(store.newFile());
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            store.buffer = store.createBuffer(file, INITIAL_RECORD_CAPACITY, INITIAL_DESCRIPTION_CAPACITY);
+            store.writeHeader();
+            return store;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a task store");
+            }
+            store.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        store.readHeader();
+        return store;
+    }
+
+    private void readHeader() throws IOException {
+        if (buffer.getInt(MAGIC_AT) != MAGIC || buffer.getInt(VERSION_AT) != VERSION) {
+            throw new IOException(file + " is not a task store of version " + VERSION);
+        }
+        size = buffer.getInt(SIZE_AT);
+        recordCapacity = buffer.getInt(RECORD_CAPACITY_AT);
+        descriptionEnd = buffer.getInt(DESCRIPTION_END_AT);
+        descriptionCapacity = buffer.getInt(DESCRIPTION_CAPACITY_AT);
+        if (size < 0 || size > recordCapacity || descriptionEnd < 0 || descriptionEnd > descriptionCapacity
+                || (long) HEADER_SIZE + (long) recordCapacity * RECORD_SIZE + descriptionCapacity > buffer.capacity()) {
+            throw new IOException(file + " has a damaged header");
+        }
+        liveDescriptionBytes = 0;
+        for (int i = 0; i < size; i++) {
+            int record = recordAt(i);
+            byte kind = buffer.get(record + KIND_AT);
+            int offset = buffer.getInt(record + DESCRIPTION_OFFSET_AT);
+            int length = buffer.getInt(record + DESCRIPTION_LENGTH_AT);
+            if (kind < TODO || kind > EVENT || offset < 0 || length < 0 || (long) offset + length > descriptionEnd) {
+                throw new IOException(file + " has a damaged record for task " + (i + 1));
+            }
+            liveDescriptionBytes += length;
+        }
+    }
+
+    /**
+     * Writes the header, counting a new record only once its description is accounted for.
+     */
+    private void writeHeader() {
+        buffer.putInt(MAGIC_AT, MAGIC);
+        buffer.putInt(VERSION_AT, VERSION);
+        buffer.putInt(RECORD_CAPACITY_AT, recordCapacity);
+        buffer.putInt(DESCRIPTION_END_AT, descriptionEnd);
+        buffer.putInt(DESCRIPTION_CAPACITY_AT, descriptionCapacity);
+        buffer.putInt(SIZE_AT, size);
+    }
+
+    /**
+     * Creates a buffer for the given capacities and records them as the store's capacities.
+     *
+     * @param target the file to map into memory, or null for direct memory
+     */
+    private ByteBuffer createBuffer(Path target, int newRecordCapacity, int newDescriptionCapacity)
+            throws IOException {
+        long total = HEADER_SIZE + (long) newRecordCapacity * RECORD_SIZE + newDescriptionCapacity;
+        if (total > Integer.MAX_VALUE) {
+            throw new TaskStoreException("quack! the off-heap task store can't grow past 2 GB");
+        }
+        ByteBuffer newBuffer;
+        if (target == null) {
+            newBuffer = ByteBuffer.allocateDirect((int) total);
+        } else {
+            Path parentDir = target.toAbsolutePath().getParent();
+            if (parentDir != null) {
+                Files.createDirectories(parentDir);
+            }
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                newBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, total);
+            }
+        }
+        recordCapacity = newRecordCapacity;
+        descriptionCapacity = newDescriptionCapacity;
+        return newBuffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private int recordAt(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private int descriptionStart() {
+        return HEADER_SIZE + recordCapacity * RECORD_SIZE;
+    }
+
+    private Path newFile() {
+        return file.resolveSibling(file.getFileName() + ".grow");
+    }
+
+    /**
+     * Makes room for the given number of records and description bytes, rebuilding the buffer with
+     * larger parts if either is too small. Descriptions are compacted as they are copied, and the
+     * arena is kept at least twice the size of the live descriptions so rebuilds stay rare.
+     */
+    private void ensureCapacity(int extraRecords, int extraBytes) {
+        if (size + extraRecords <= recordCapacity && descriptionEnd + extraBytes <= descriptionCapacity) {
+            return;
+        }
+        rebuild(this, NO_INDICES, size + extraRecords, liveDescriptionBytes + extraBytes);
+    }
+
+    /**
+     * Copies the tasks of the source store, leaving out those at the given indices, into a new buffer
+     * that has room for at least the given number of records and description bytes. A store kept in
+     * a file is rebuilt in a new file next to it, which is forced to disk and then moved over the old
+     * one once the old one is no longer mapped.
+     *
+     * @param source the store to copy, which may be this store
+     * @param skipped the indices of the tasks to leave out, in increasing order
+     */
+    private void rebuild(OffHeapTaskStore source, int[] skipped, int neededRecords, long neededBytes) {
+        long newRecordCapacity = recordCapacity;
+        while (neededRecords > newRecordCapacity) {
+            newRecordCapacity *= 2;
+        }
+        long newDescriptionCapacity = descriptionCapacity;
+        while (newDescriptionCapacity < 2 * neededBytes) {
+            newDescriptionCapacity *= 2;
+        }
+        if (newRecordCapacity > Integer.MAX_VALUE / RECORD_SIZE || newDescriptionCapacity > Integer.MAX_VALUE) {
+            throw new TaskStoreException("quack! the off-heap task store can't grow past 2 GB");
+        }
+
+        ByteBuffer oldBuffer = buffer;
+        ByteBuffer sourceBuffer = source.buffer;
+        int sourceDescriptionStart = source.descriptionStart();
+        ByteBuffer newBuffer;
+        try {
+            newBuffer = createBuffer(file == null ? null : newFile(), (int) newRecordCapacity,
+                    (int) newDescriptionCapacity);
+        } catch (IOException e) {
+            throw new TaskStoreException("quack! couldn't grow the task store file: " + e.getMessage(), e);
+        }
+        int newDescriptionStart = descriptionStart();
+        int kept = 0;
+        int written = 0;
+        int next = 0;
+        for (int i = 0; i < source.size; i++) {
+            if (next < skipped.length && skipped[next] == i) {
+                next++;
+                continue;
+            }
+            int record = recordAt(kept);
+            newBuffer.put(record, sourceBuffer, recordAt(i), RECORD_SIZE);
+            int offset = sourceBuffer.getInt(recordAt(i) + DESCRIPTION_OFFSET_AT);
+            int length = sourceBuffer.getInt(recordAt(i) + DESCRIPTION_LENGTH_AT);
+            newBuffer.put(newDescriptionStart + written, sourceBuffer, sourceDescriptionStart + offset, length);
+            newBuffer.putInt(record + DESCRIPTION_OFFSET_AT, written);
+            kept++;
+            written += length;
+        }
+        buffer = newBuffer;
+        size = kept;
+        descriptionEnd = written;
+        liveDescriptionBytes = written;
+        writeHeader();
+        if (file != null) {
+            try {
+                forceToDisk();
+                // Windows refuses to replace a file that is still mapped
+                unmap(oldBuffer);
+                Files.move(newFile(), file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new TaskStoreException("quack! couldn't replace the task store file: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private void forceToDisk() {
+        MappedByteBuffer mapped = (MappedByteBuffer) buffer;
+        try {
+            mapped.force();
+        } catch (UncheckedIOException e) {
+            throw new TaskStoreException("quack! couldn't write the task store file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Releases a mapping that is no longer used, rather than waiting for the garbage collector to
+     * find the buffer. Where the JVM offers no way to do that, the mapping is left to the collector.
+     */
+    private static void unmap(ByteBuffer mapped) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(theUnsafe.get(null), mapped);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // the buffer is unreachable once replaced, so the collector unmaps it eventually
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        int record = recordAt(index);
+        String description = readDescription(record);
+        int priorityLevel = buffer.getInt(record + PRIORITY_AT);
+        Priority priority = priorityLevel == Task.NO_PRIORITY ? null : Priority.of(priorityLevel);
+        Task task;
+        switch (buffer.get(record + KIND_AT)) {
+        case DEADLINE:
+            task = new Deadline(description, EpochMinutes.toDateTime(buffer.getLong(record + FIRST_TIME_AT)), priority);
+            break;
+        case EVENT:
+            task = new Event(description, EpochMinutes.toDateTime(buffer.getLong(record + FIRST_TIME_AT)),
+                    EpochMinutes.toDateTime(buffer.getLong(record + SECOND_TIME_AT)), priority);
+            break;
+        default:
+            task = new Todo(description, priority);
+            break;
+        }
+        if (isDone(index)) {
+            task.taskDone();
+        }
+        return task;
+    }
+
+    private String readDescription(int record) {
+        byte[] bytes = new byte[buffer.getInt(record + DESCRIPTION_LENGTH_AT)];
+        buffer.get(descriptionStart() + buffer.getInt(record + DESCRIPTION_OFFSET_AT), bytes);
+        boolean isLatin1 = (buffer.get(record + FLAGS_AT) & LATIN1_FLAG) != 0;
+        return new String(bytes, isLatin1 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean isDone(int index) {
+        return (buffer.get(recordAt(index) + FLAGS_AT) & DONE_FLAG) != 0;
+    }
+
+    @Override
+    public int getPriorityLevel(int index) {
+        return buffer.getInt(recordAt(index) + PRIORITY_AT);
+    }
+
+    @Override
+    public boolean containsKeyword(int index, String keyword) {
+        int record = recordAt(index);
+        if ((buffer.get(record + FLAGS_AT) & LATIN1_FLAG) == 0) {
+            String description = readDescription(record);
+            int last = description.length() - keyword.length();
+            for (int i = 0; i <= last; i++) {
+                if (description.regionMatches(true, i, keyword, 0, keyword.length())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        int start = descriptionStart() + buffer.getInt(record + DESCRIPTION_OFFSET_AT);
+        int last = start + buffer.getInt(record + DESCRIPTION_LENGTH_AT) - keyword.length();
+        for (int i = start; i <= last; i++) {
+            if (latin1RegionMatches(i, keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compares the Latin-1 bytes from the given position with the keyword, ignoring case the same
+     * way {@link String#regionMatches(boolean, int, String, int, int)} does.
+     */
+    private boolean latin1RegionMatches(int position, String keyword) {
+        for (int j = 0; j < keyword.length(); j++) {
+            char c1 = (char) (buffer.get(position + j) & 0xFF);
+            char c2 = keyword.charAt(j);
+            if (c1 == c2) {
+                continue;
+            }
+            char u1 = Character.toUpperCase(c1);
+            char u2 = Character.toUpperCase(c2);
+            if (u1 != u2 && Character.toLowerCase(u1) != Character.toLowerCase(u2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void add(Task task) {
+        String description = task.getDescription();
+        boolean isLatin1 = true;
+        for (int i = 0; i < description.length(); i++) {
+            if (description.charAt(i) > 0xFF) {
+                isLatin1 = false;
+                break;
+            }
+        }
+        byte[] bytes = description.getBytes(isLatin1 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+        ensureCapacity(1, bytes.length);
+
+        buffer.put(descriptionStart() + descriptionEnd, bytes);
+        int record = recordAt(size);
+        long firstTime = 0;
+        long secondTime = 0;
+        byte kind = TODO;
+        if (task instanceof Deadline) {
+            kind = DEADLINE;
+            firstTime = ((Deadline) task).getByEpochMinute();
+        } else if (task instanceof Event) {
+            kind = EVENT;
+            firstTime = ((Event) task).getStartEpochMinute();
+            secondTime = ((Event) task).getEndEpochMinute();
+        }
+        buffer.put(record + KIND_AT, kind);
+        buffer.put(record + FLAGS_AT, (byte) ((task.isDone() ? DONE_FLAG : 0) | (isLatin1 ? LATIN1_FLAG : 0)));
+        buffer.putShort(record + FLAGS_AT + 1, (short) 0);
+        buffer.putInt(record + PRIORITY_AT, task.getPriorityLevel());
+        buffer.putLong(record + FIRST_TIME_AT, firstTime);
+        buffer.putLong(record + SECOND_TIME_AT, secondTime);
+        buffer.putInt(record + DESCRIPTION_OFFSET_AT, descriptionEnd);
+        buffer.putInt(record + DESCRIPTION_LENGTH_AT, bytes.length);
+
+        descriptionEnd += bytes.length;
+        liveDescriptionBytes += bytes.length;
+        size++;
+        writeHeader();
+    }
+
+    @Override
+    public void remove(int index) {
+        if (file != null) {
+            removeAll(new int[] {index});
+            return;
+        }
+        liveDescriptionBytes -= buffer.getInt(recordAt(index) + DESCRIPTION_LENGTH_AT);
+        for (int i = index + 1; i < size; i++) {
+            buffer.put(recordAt(i - 1), buffer, recordAt(i), RECORD_SIZE);
+        }
+        size--;
+        writeHeader();
+    }
+
+    @Override
+    public void removeAll(int[] indices) {
+        if (file != null) {
+            rebuild(this, indices, size - indices.length, liveDescriptionBytes);
+            return;
+        }
+        int next = 0;
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            if (next < indices.length && indices[next] == read) {
+                next++;
+                liveDescriptionBytes -= buffer.getInt(recordAt(read) + DESCRIPTION_LENGTH_AT);
+                continue;
+            }
+            if (write != read) {
+                buffer.put(recordAt(write), buffer, recordAt(read), RECORD_SIZE);
+            }
+            write++;
+        }
+        size = write;
+        writeHeader();
+    }
+
+    @Override
+    public void setDone(int index, boolean isDone) {
+        int flagsAt = recordAt(index) + FLAGS_AT;
+        byte flags = buffer.get(flagsAt);
+        buffer.put(flagsAt, (byte) (isDone ? flags | DONE_FLAG : flags & ~DONE_FLAG));
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        // forget the records before the descriptions they point to
+        buffer.putInt(SIZE_AT, 0);
+        descriptionEnd = 0;
+        liveDescriptionBytes = 0;
+        writeHeader();
+    }
+
+    @Override
+    public List<Task> asList() {
+        return new TaskView();
+    }
+
+    @Override
+    public ArrayList<Task> toArrayList() {
+        return new ArrayList<>(asList());
+    }
+
+    @Override
+    public boolean isVersioned() {
+        return false;
+    }
+
+    /**
+     * Copies the records and the descriptions they use into a new store in direct memory.
+     */
+    @Override
+    public TaskStore snapshot() {
+        OffHeapTaskStore copy = new OffHeapTaskStore(null);
+        try {
+            copy.buffer = copy.createBuffer(null, Math.max(size, INITIAL_RECORD_CAPACITY),
+                    Math.max(descriptionEnd, INITIAL_DESCRIPTION_CAPACITY));
+        } catch (IOException e) {
+            throw new AssertionError("Allocating direct memory should not do any I/O", e);
+        }
+        copy.buffer.put(HEADER_SIZE, buffer, HEADER_SIZE, size * RECORD_SIZE);
+        copy.buffer.put(copy.descriptionStart(), buffer, descriptionStart(), descriptionEnd);
+        copy.size = size;
+        copy.descriptionEnd = descriptionEnd;
+        copy.liveDescriptionBytes = liveDescriptionBytes;
+        copy.writeHeader();
+        return copy;
+    }
+
+    /**
+     * Puts back the tasks of a snapshot. A mapped store writes them to a new file that replaces the
+     * old one, so that a crash part way through cannot leave a mix of the two lists.
+     */
+    @Override
+    public void restore(TaskStore snapshot) {
+        if (file == null) {
+            clear();
+            for (int i = 0; i < snapshot.size(); i++) {
+                add(snapshot.get(i));
+            }
+            return;
+        }
+        OffHeapTaskStore source;
+        if (snapshot instanceof OffHeapTaskStore) {
+            source = (OffHeapTaskStore) snapshot;
+        } else {
+            source = allocate();
+            source.restore(snapshot);
+        }
+        rebuild(source, NO_INDICES, source.size, source.liveDescriptionBytes);
+    }
+
+    @Override
+    public boolean persist() {
+        if (file == null) {
+            return false;
+        }
+        forceToDisk();
+        return true;
+    }
+
+    /**
+     * A read-only list over the store that builds each task when it is asked for.
+     */
+    private class TaskView extends AbstractList<Task> implements RandomAccess {
+        @Override
+        public Task get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            return OffHeapTaskStore.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package clementine.store;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import clementine.task.Task;
+
+/**
+ * The PersistentTaskList class is an immutable list of tasks. Changing it returns a new list
+ * that shares all but O(log n) of its nodes with the old one, so every earlier version stays
+ * valid and costs almost nothing to keep.
+ *
+ * <p>The list is a balanced (AVL) binary tree ordered by position, in which each node also records
+ * the size of its subtree. Looking up, replacing, adding or removing the task at any position
+ * copies only the nodes on the path from the root to it.
+ *
+ * @author zhiyu
+ */
+public final class PersistentTaskList extends AbstractList<Task> {
+    private static final PersistentTaskList EMPTY = new PersistentTaskList(null);
+
+    private final Node root;
+
+    private PersistentTaskList(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the empty list.
+     *
+     * @return the empty list
+     */
+    public static PersistentTaskList empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns a list of the given tasks in the same order, built as a balanced tree in one pass.
+     *
+     * @param tasks the tasks to put in the list
+     * @return the list
+     */
+    public static PersistentTaskList of(List<Task> tasks) {
+        if (tasks instanceof PersistentTaskList) {
+            return (PersistentTaskList) tasks;
+        }
+        return new PersistentTaskList(build(tasks.toArray(new Task[0]), 0, tasks.size()));
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index, size());
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.task;
+            }
+        }
+    }
+
+    /**
+     * Returns a list with the given task added to the end.
+     *
+     * @param task the task to add
+     * @return the new list
+     */
+    public PersistentTaskList append(Task task) {
+        return new PersistentTaskList(insert(root, size(), task));
+    }
+
+    /**
+     * Returns a list with the task at the given position replaced.
+     *
+     * @param index the position of the task
+     * @param task the task to put there
+     * @return the new list
+     */
+    public PersistentTaskList with(int index, Task task) {
+        checkIndex(index, size());
+        return new PersistentTaskList(replace(root, index, task));
+    }
+
+    /**
+     * Returns a list without the task at the given position.
+     *
+     * @param index the position of the task
+     * @return the new list
+     */
+    public PersistentTaskList without(int index) {
+        checkIndex(index, size());
+        return new PersistentTaskList(remove(root, index));
+    }
+
+    /**
+     * Returns a list without the tasks at the given positions. The remaining tasks are gathered in
+     * one pass and built into a new balanced tree, so removing many tasks costs O(n) rather than
+     * a rebalancing removal for each; the new list shares no nodes with this one.
+     *
+     * @param indices the positions to remove, in strictly ascending order
+     * @return the new list
+     */
+    public PersistentTaskList withoutAll(int[] indices) {
+        if (indices.length == 0) {
+            return this;
+        }
+        int size = size();
+        for (int i = 0; i < indices.length; i++) {
+            checkIndex(indices[i], size);
+            if (i > 0 && indices[i] <= indices[i - 1]) {
+                throw new IllegalArgumentException("Indices should be in strictly ascending order");
+            }
+        }
+        Task[] kept = new Task[size - indices.length];
+        int next = 0;
+        int index = 0;
+        int count = 0;
+        for (Task task : this) {
+            if (next < indices.length && indices[next] == index) {
+                next++;
+            } else {
+                kept[count++] = task;
+            }
+            index++;
+        }
+        return new PersistentTaskList(build(kept, 0, count));
+    }
+
+    /**
+     * Walks the tree in order with a stack as deep as the tree, so iterating is linear
+     * rather than a lookup from the root for every task.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private final Node[] path = new Node[height(root)];
+            private int depth;
+
+            {
+                descendLeft(root);
+            }
+
+            private void descendLeft(Node node) {
+                for (; node != null; node = node.left) {
+                    path[depth++] = node;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return depth > 0;
+            }
+
+            @Override
+            public Task next() {
+                if (depth == 0) {
+                    throw new NoSuchElementException();
+                }
+                Node node = path[--depth];
+                descendLeft(node.right);
+                return node.task;
+            }
+        };
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static Node build(Task[] tasks, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        return new Node(tasks[middle], build(tasks, from, middle), build(tasks, middle + 1, to));
+    }
+
+    private static Node insert(Node node, int index, Task task) {
+        if (node == null) {
+            return new Node(task, null, null);
+        }
+        int leftSize = size(node.left);
+        if (index <= leftSize) {
+            return balance(node.task, insert(node.left, index, task), node.right);
+        }
+        return balance(node.task, node.left, insert(node.right, index - leftSize - 1, task));
+    }
+
+    private static Node replace(Node node, int index, Task task) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return new Node(node.task, replace(node.left, index, task), node.right);
+        }
+        if (index > leftSize) {
+            return new Node(node.task, node.left, replace(node.right, index - leftSize - 1, task));
+        }
+        return new Node(task, node.left, node.right);
+    }
+
+    private static Node remove(Node node, int index) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return balance(node.task, remove(node.left, index), node.right);
+        }
+        if (index > leftSize) {
+            return balance(node.task, node.left, remove(node.right, index - leftSize - 1));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.task, node.left, remove(node.right, 0));
+    }
+
+    /**
+     * Returns a node for the given task and subtrees, rotating them if their heights differ by two,
+     * which is the most a single insertion or removal below can unbalance them.
+     */
+    private static Node balance(Task task, Node left, Node right) {
+        if (height(left) > height(right) + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node(left.task, left.left, new Node(task, left.right, right));
+            }
+            Node middle = left.right;
+            return new Node(middle.task, new Node(left.task, left.left, middle.left),
+                    new Node(task, middle.right, right));
+        }
+        if (height(right) > height(left) + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node(right.task, new Node(task, left, right.left), right.right);
+            }
+            Node middle = right.left;
+            return new Node(middle.task, new Node(task, left, middle.left),
+                    new Node(right.task, middle.right, right.right));
+        }
+        return new Node(task, left, right);
+    }
+
+    /**
+     * A node of the tree, which is never changed once built so that versions can share it.
+     */
+    private static final class Node {
+        private final Task task;
+        private final Node left;
+        private final Node right;
+        private final int size;
+        private final int height;
+
+        private Node(Task task, Node left, Node right) {
+            this.task = task;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+}
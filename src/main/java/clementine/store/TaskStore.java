@@ -0,0 +1,143 @@
+package clementine.store;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import clementine.task.Task;
+
+/**
+ * The TaskStore interface is where a {@link clementine.TaskList} keeps its tasks.
+ * Positions are 0-indexed; the TaskList checks them before calling the store.
+ *
+ * <p>A store may hand out the Task objects it holds, or build a new Task for each call from data
+ * kept elsewhere. Callers should therefore change tasks only through the store, for example with
+ * {@link #setDone(int, boolean)}, and not hold on to a task expecting it to follow later changes.
+ *
+ * @author zhiyu
+ */
+public interface TaskStore {
+    /**
+     * Returns the number of tasks in the store.
+     *
+     * @return the number of tasks
+     */
+    int size();
+
+    /**
+     * Returns the task at the given position.
+     *
+     * @param index the position of the task
+     * @return the task, or a copy of it
+     */
+    Task get(int index);
+
+    /**
+     * Checks whether the task at the given position is done.
+     *
+     * @param index the position of the task
+     * @return true if the task is done
+     */
+    boolean isDone(int index);
+
+    /**
+     * Returns the priority level of the task at the given position.
+     *
+     * @param index the position of the task
+     * @return the priority level, or {@link Task#NO_PRIORITY} if the task has none
+     */
+    int getPriorityLevel(int index);
+
+    /**
+     * Checks whether the description of the task at the given position contains the keyword, ignoring case.
+     *
+     * @param index the position of the task
+     * @param keyword the keyword to look for
+     * @return true if the description contains the keyword
+     */
+    boolean containsKeyword(int index, String keyword);
+
+    /**
+     * Adds a task to the end of the store.
+     *
+     * @param task the task to add
+     * @throws TaskStoreException if the store has no room for the task
+     */
+    void add(Task task);
+
+    /**
+     * Removes the task at the given position, moving the tasks after it up by one.
+     *
+     * @param index the position of the task
+     * @throws TaskStoreException if the store cannot be rewritten without the task
+     */
+    void remove(int index);
+
+    /**
+     * Removes the tasks at the given positions in a single pass, moving each remaining task at most once.
+     *
+     * @param indices the positions to remove, in ascending order
+     * @throws TaskStoreException if the store cannot be rewritten without the tasks
+     */
+    void removeAll(int[] indices);
+
+    /**
+     * Marks the task at the given position as done or not done.
+     *
+     * @param index the position of the task
+     * @param isDone whether the task is done
+     */
+    void setDone(int index, boolean isDone);
+
+    /**
+     * Removes every task.
+     */
+    void clear();
+
+    /**
+     * Returns the tasks as a list that follows changes to the store. It may be read-only.
+     *
+     * @return the tasks in order
+     */
+    List<Task> asList();
+
+    /**
+     * Returns the tasks as an ArrayList, which may be the store's own list.
+     *
+     * @return the tasks in order
+     */
+    ArrayList<Task> toArrayList();
+
+    /**
+     * Returns a store holding the tasks as they are now, which later changes to this store do not
+     * affect, so that a command can read them all without seeing a change half made. A versioned
+     * store does this without copying; other stores copy their tasks or their buffer.
+     * The snapshot is for reading and for {@link #restore(TaskStore)}; it should not be changed.
+     *
+     * @return a store with the current tasks
+     */
+    TaskStore snapshot();
+
+    /**
+     * Checks whether this store keeps immutable versions, so that {@link #snapshot()} takes
+     * constant time and copies nothing. Snapshots of other stores cost a copy of every task.
+     *
+     * @return true if snapshots are free to take
+     */
+    boolean isVersioned();
+
+    /**
+     * Replaces the tasks with those in a snapshot, each with the status it had when the snapshot was taken.
+     *
+     * @param snapshot a store returned by {@link #snapshot()} on this store
+     * @throws TaskStoreException if the store cannot be rewritten with the snapshot's tasks
+     */
+    void restore(TaskStore snapshot);
+
+    /**
+     * Writes the tasks to the store's own file, if it is kept in one.
+     *
+     * @return true if the store saved itself, or false if the tasks need to be saved some other way
+     * @throws TaskStoreException if the store's file cannot be written
+     */
+    boolean persist();
+}
@@ -0,0 +1,27 @@
+package clementine.store;
+
+/**
+ * Thrown when a task store cannot make a change, such as when it has no room left for another task
+ * or the file it is kept in cannot be written. {@link clementine.TaskList} turns it into a
+ * {@link clementine.ClementineException}, so that the user is told rather than the command failing.
+ *
+ * @author zhiyu
+ */
+public class TaskStoreException extends RuntimeException {
+    /**
+     * Constructs a new TaskStoreException with the specified error message.
+     * @param message the descriptive error message explaining what went wrong
+     */
+    public TaskStoreException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new TaskStoreException with the specified error message and the error that caused it.
+     * @param message the descriptive error message explaining what went wrong
+     * @param cause the error that stopped the store from making the change
+     */
+    public TaskStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,161 @@
+package clementine.store;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+import clementine.task.DescriptionArena;
+import clementine.task.Task;
+
+/**
+ * The VersionedTaskStore class keeps each state of its tasks as an immutable version, so that
+ * reading never blocks on or sees a change that is still being made. Every change builds a new
+ * {@link PersistentTaskList} sharing most of its nodes with the current one and then publishes it
+ * with a single volatile write; changes are made one at a time. Tasks are never changed in place:
+ * marking one replaces it with a copy, so a task handed out keeps the status it had.
+ *
+ * <p>{@link #snapshot()} takes the current version without copying anything, so read commands
+ * in the server or in several windows can each work on their own consistent view of the list.
+ *
+ * @author zhiyu
+ */
+public class VersionedTaskStore implements TaskStore {
+    private final DescriptionArena descriptionArena;
+    private volatile PersistentTaskList version;
+
+    /**
+     * Constructs a store holding the given tasks.
+     *
+     * @param tasks the tasks to start with
+     * @param descriptionArena the arena to intern descriptions in, or null to leave each task its own copy
+     */
+    public VersionedTaskStore(List<Task> tasks, DescriptionArena descriptionArena) {
+        this.descriptionArena = descriptionArena;
+        for (Task task : tasks) {
+            internDescription(task);
+        }
+        this.version = PersistentTaskList.of(tasks);
+    }
+
+    private VersionedTaskStore(DescriptionArena descriptionArena, PersistentTaskList version) {
+        this.descriptionArena = descriptionArena;
+        this.version = version;
+    }
+
+    private void internDescription(Task task) {
+        if (descriptionArena != null) {
+            task.internDescription(descriptionArena);
+        }
+    }
+
+    /**
+     * Returns the current version of the tasks, which later changes to the store don't affect.
+     *
+     * @return the current version
+     */
+    public PersistentTaskList getVersion() {
+        return version;
+    }
+
+    @Override
+    public int size() {
+        return version.size();
+    }
+
+    @Override
+    public Task get(int index) {
+        return version.get(index);
+    }
+
+    @Override
+    public boolean isDone(int index) {
+        return version.get(index).isDone();
+    }
+
+    @Override
+    public int getPriorityLevel(int index) {
+        return version.get(index).getPriorityLevel();
+    }
+
+    @Override
+    public boolean containsKeyword(int index, String keyword) {
+        return version.get(index).containsKeyword(keyword);
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        internDescription(task);
+        version = version.append(task);
+    }
+
+    @Override
+    public synchronized void remove(int index) {
+        version = version.without(index);
+    }
+
+    @Override
+    public synchronized void removeAll(int[] indices) {
+        version = version.withoutAll(indices);
+    }
+
+    @Override
+    public synchronized void setDone(int index, boolean isDone) {
+        Task task = version.get(index);
+        if (task.isDone() != isDone) {
+            version = version.with(index, task.withDone(isDone));
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        version = PersistentTaskList.empty();
+    }
+
+    @Override
+    public List<Task> asList() {
+        return new CurrentVersionView();
+    }
+
+    @Override
+    public ArrayList<Task> toArrayList() {
+        return new ArrayList<>(version);
+    }
+
+    @Override
+    public boolean isVersioned() {
+        return true;
+    }
+
+    @Override
+    public TaskStore snapshot() {
+        return new VersionedTaskStore(descriptionArena, version);
+    }
+
+    /**
+     * Publishes the snapshot's version as the current one, without copying anything.
+     */
+    @Override
+    public synchronized void restore(TaskStore snapshot) {
+        version = ((VersionedTaskStore) snapshot).version;
+    }
+
+    @Override
+    public boolean persist() {
+        return false;
+    }
+
+    /**
+     * A read-only list over whichever version is current when it is read.
+     */
+    private class CurrentVersionView extends AbstractList<Task> {
+        @Override
+        public Task get(int index) {
+            return version.get(index);
+        }
+
+        @Override
+        public int size() {
+            return version.size();
+        }
+    }
+}
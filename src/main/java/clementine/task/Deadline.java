@@ -9,11 +9,12 @@ import clementine.Priority;
  * Represents a task with a deadline in the Clementine task management application.
  * A Deadline task extends the basic Task functionality by adding a specific due date and time.
  * This class handles display formatting and storage serialization for deadline-based tasks.
+ * The due date is kept as minutes since the epoch rather than as a LocalDateTime, to keep each task small.
  *
  * @author zhiyu
  */
 public class Deadline extends Task {
-    protected LocalDateTime by;
+    private final long byMinute;
 
     /**
      * Constructs a new Deadline task with the specified description and due date.
@@ -22,7 +23,7 @@ public class Deadline extends Task {
      */
     public Deadline(String description, LocalDateTime by) {
         super(description);
-        this.by = by;
+        this.byMinute = EpochMinutes.of(by);
     }
 
     /**
@@ -34,32 +35,50 @@ public class Deadline extends Task {
      */
     public Deadline(String description, LocalDateTime by, Priority priority) {
         super(description, priority);
-        this.by = by;
+        this.byMinute = EpochMinutes.of(by);
     }
 
     /**
-     * Returns a string representation of the deadline task for display to users.
+     * Returns the deadline date and time of this task.
+     * @return the date and time this task is due
+     */
+    public LocalDateTime getBy() {
+        return EpochMinutes.toDateTime(byMinute);
+    }
+
+    /**
+     * Returns the deadline of this task as minutes since the epoch, without creating a LocalDateTime.
+     * @return the deadline in minutes since 1 Jan 1970 00:00
+     */
+    public long getByEpochMinute() {
+        return byMinute;
+    }
+
+    /**
+     * Appends a string representation of the deadline task for display to users.
      * Formats the deadline date/time in a user-friendly format.
-     * @return a formatted string in the format "[D][status] description (by: date)"
+     * @param out the builder to append the format "[D][status] description (by: date)" to
      */
     @Override
-    public String toString() {
-        String formattedDate = Parser.formatDateTime(by);
-        return "[D]" + super.toString() + " (by:" + formattedDate + ")";
+    public void appendTo(StringBuilder out) {
+        out.append("[D]");
+        super.appendTo(out);
+        out.append(" (by:");
+        Parser.appendDateTime(out, getBy());
+        out.append(')');
     }
 
     /**
-     * Returns a string representation of the deadline task suitable for file storage.
+     * Appends a string representation of the deadline task suitable for file storage.
      * Uses a consistent format that can be parsed when loading from storage.
-     * @return a formatted string for storage in the format "D | status | description | /by date"
+     * @param out the builder to append the format "D | status | description | /by date" to
      */
     @Override
-    public String storeData() {
-        String dateString = Parser.formatDateTimeForStorage(by);
-        if (hasPriority()) {
-            return "D | " + super.storeData() + " | /by " + dateString + " | " + getPriority().getLevel();
-        } else {
-            return "D | " + super.storeData() + " | /by " + dateString;
-        }
+    public void appendStoreData(StringBuilder out) {
+        out.append("D | ");
+        super.appendStoreData(out);
+        out.append(" | /by ");
+        Parser.appendDateTimeForStorage(out, getBy());
+        appendStoredPriority(out);
     }
 }
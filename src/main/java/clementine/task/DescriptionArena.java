@@ -0,0 +1,116 @@
+package clementine.task;
+
+import java.util.Arrays;
+
+/**
+ * The DescriptionArena class lets tasks with the same description share one copy of its bytes.
+ * Many descriptions repeat, such as "submit report" or "team sync", so interning them saves the
+ * bytes of every repeat.
+ *
+ * <p>The arena is a concurrent hash table split into segments, each an open-addressing table of
+ * the byte arrays themselves with its own lock, so tasks can be interned from several threads at
+ * once, for example by the server's connections. Keeping the arrays directly, rather than in map
+ * entries, means a distinct description costs the arena only a few bytes of table.
+ *
+ * <p>Entries are never removed, as tasks may share them, so an arena grows with the number of
+ * distinct descriptions it has seen until it is dropped along with its tasks.
+ *
+ * @author zhiyu
+ */
+public class DescriptionArena {
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment[] latin1Segments = createSegments();
+    private final Segment[] utf8Segments = createSegments();
+
+    private static Segment[] createSegments() {
+        Segment[] segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+        return segments;
+    }
+
+    /**
+     * Returns the shared copy of the given encoded description, adding it if it is new.
+     * Latin-1 and UTF-8 descriptions are kept apart, as the same bytes can spell different text in each.
+     *
+     * @param bytes the encoded description
+     * @param isLatin1 whether the bytes are Latin-1 rather than UTF-8
+     * @return an array equal to {@code bytes} that is shared by every task with this description
+     */
+    byte[] intern(byte[] bytes, boolean isLatin1) {
+        int hash = spread(Arrays.hashCode(bytes));
+        Segment[] segments = isLatin1 ? latin1Segments : utf8Segments;
+        return segments[hash & (SEGMENT_COUNT - 1)].intern(bytes, hash);
+    }
+
+    /**
+     * Returns the number of distinct descriptions in the arena.
+     *
+     * @return the number of distinct descriptions
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            size += latin1Segments[i].size();
+            size += utf8Segments[i].size();
+        }
+        return size;
+    }
+
+    /**
+     * Mixes the high bits of the hash into the low ones, which pick the segment and the slot.
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * One part of the table: an open-addressing hash set of byte arrays, kept at most half full.
+     */
+    private static final class Segment {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private byte[][] slots = new byte[INITIAL_CAPACITY][];
+        private int size;
+
+        synchronized byte[] intern(byte[] bytes, int hash) {
+            int mask = slots.length - 1;
+            // the low bits chose the segment, so the slot is picked with the bits above them
+            for (int slot = (hash >>> 4) & mask; ; slot = (slot + 1) & mask) {
+                byte[] existing = slots[slot];
+                if (existing == null) {
+                    slots[slot] = bytes;
+                    if (++size * 2 > slots.length) {
+                        grow();
+                    }
+                    return bytes;
+                }
+                if (Arrays.equals(existing, bytes)) {
+                    return existing;
+                }
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private void grow() {
+            byte[][] oldSlots = slots;
+            slots = new byte[oldSlots.length * 2][];
+            int mask = slots.length - 1;
+            for (byte[] bytes : oldSlots) {
+                if (bytes == null) {
+                    continue;
+                }
+                int slot = (spread(Arrays.hashCode(bytes)) >>> 4) & mask;
+                while (slots[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = bytes;
+            }
+        }
+    }
+}
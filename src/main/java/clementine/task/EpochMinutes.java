@@ -0,0 +1,38 @@
+package clementine.task;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Converts between date-times and the number of minutes since 1 Jan 1970 00:00, which is how
+ * deadlines and events keep their times. A long takes far less memory than a LocalDateTime, which
+ * holds a separate date and time object. The app only ever works to the minute, so nothing is lost.
+ *
+ * @author zhiyu
+ */
+public final class EpochMinutes {
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    private EpochMinutes() {
+    }
+
+    /**
+     * Returns the given date-time as minutes since the epoch, dropping any seconds.
+     *
+     * @param dateTime the date-time to convert
+     * @return the number of whole minutes since 1 Jan 1970 00:00
+     */
+    public static long of(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_MINUTE);
+    }
+
+    /**
+     * Returns the date-time the given number of minutes after the epoch.
+     *
+     * @param epochMinute the number of minutes since 1 Jan 1970 00:00
+     * @return the corresponding date-time
+     */
+    public static LocalDateTime toDateTime(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * SECONDS_PER_MINUTE, 0, ZoneOffset.UTC);
+    }
+}
@@ -9,12 +9,13 @@ import clementine.Priority;
  * Represents a task with a specific start and end time in the Clementine task management application.
  * An Event task extends the basic Task functionality by adding time range information.
  * This class handles display formatting and storage serialization for time-bound events.
+ * The start and end are kept as minutes since the epoch rather than as LocalDateTimes, to keep each task small.
  *
  * @author zhiyu
  */
 public class Event extends Task {
-    protected LocalDateTime start;
-    protected LocalDateTime end;
+    private final long startMinute;
+    private final long endMinute;
 
     /**
      * Constructs a new Event task with the specified description, start time, and end time.
@@ -24,8 +25,8 @@ public class Event extends Task {
      */
     public Event(String description, LocalDateTime start, LocalDateTime end) {
         super(description);
-        this.start = start;
-        this.end = end;
+        this.startMinute = EpochMinutes.of(start);
+        this.endMinute = EpochMinutes.of(end);
     }
 
     /**
@@ -38,35 +39,71 @@ public class Event extends Task {
      */
     public Event(String description, LocalDateTime start, LocalDateTime end, Priority priority) {
         super(description, priority);
-        this.start = start;
-        this.end = end;
+        this.startMinute = EpochMinutes.of(start);
+        this.endMinute = EpochMinutes.of(end);
     }
+
+    /**
+     * Returns the start date and time of this event.
+     * @return the date and time the event starts
+     */
+    public LocalDateTime getStart() {
+        return EpochMinutes.toDateTime(startMinute);
+    }
+
+    /**
+     * Returns the end date and time of this event.
+     * @return the date and time the event ends
+     */
+    public LocalDateTime getEnd() {
+        return EpochMinutes.toDateTime(endMinute);
+    }
+
+    /**
+     * Returns the start of this event as minutes since the epoch, without creating a LocalDateTime.
+     * @return the start in minutes since 1 Jan 1970 00:00
+     */
+    public long getStartEpochMinute() {
+        return startMinute;
+    }
+
+    /**
+     * Returns the end of this event as minutes since the epoch, without creating a LocalDateTime.
+     * @return the end in minutes since 1 Jan 1970 00:00
+     */
+    public long getEndEpochMinute() {
+        return endMinute;
+    }
+
     /**
-     * Returns a string representation of the event task for display to users.
+     * Appends a string representation of the event task for display to users.
      * Formats both start and end times in a user-friendly format.
-     * @return a formatted string in the format "[E][status] description (from: start_time to: end_time)"
+     * @param out the builder to append the format "[E][status] description (from: start_time to: end_time)" to
      */
     @Override
-    public String toString() {
-        String started = Parser.formatDateTime(this.start);
-        String ended = Parser.formatDateTime(this.end);
-        return "[E]" + super.toString() + " (from:" + started + " to:" + ended + ")";
+    public void appendTo(StringBuilder out) {
+        out.append("[E]");
+        super.appendTo(out);
+        out.append(" (from:");
+        Parser.appendDateTime(out, getStart());
+        out.append(" to:");
+        Parser.appendDateTime(out, getEnd());
+        out.append(')');
     }
 
     /**
-     * Returns a string representation of the event task suitable for file storage.
+     * Appends a string representation of the event task suitable for file storage.
      * Uses a consistent format that can be parsed when loading from storage.
-     * @return a formatted string for storage in the format "E | status | description | /from start_date/to end_date"
+     * @param out the builder to append the format "E | status | description | /from start_date/to end_date" to
      */
     @Override
-    public String storeData() {
-        String started = Parser.formatDateTimeForStorage(this.start);
-        String ended = Parser.formatDateTimeForStorage(this.end);
-        if (hasPriority()) {
-            return "E | " + super.storeData() + " | /from " + started + "/to " + ended + " | "
-                    + getPriority().getLevel();
-        } else {
-            return "E | " + super.storeData() + " | /from " + started + "/to " + ended;
-        }
+    public void appendStoreData(StringBuilder out) {
+        out.append("E | ");
+        super.appendStoreData(out);
+        out.append(" | /from ");
+        Parser.appendDateTimeForStorage(out, getStart());
+        out.append("/to ");
+        Parser.appendDateTimeForStorage(out, getEnd());
+        appendStoredPriority(out);
     }
 }
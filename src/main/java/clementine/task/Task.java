@@ -1,15 +1,25 @@
 package clementine.task;
 
+import java.nio.charset.StandardCharsets;
+
 import clementine.Priority;
 
 /**
  * Represents a generic task with a description and a completion status.
+ * The priority is kept as its level rather than as a Priority object, to keep each task small.
+ * For the same reason the description is kept as encoded bytes rather than as a String: Latin-1,
+ * one byte per character, when every character fits, and UTF-8 otherwise. Searching and rendering
+ * work on the bytes directly, so a String is only created when {@link #getDescription()} is called.
  * @author zhiyu
  */
-public class Task {
-    protected String description;
+public class Task implements Cloneable {
+    /** The priority level of a task without a priority; levels are always positive. */
+    public static final int NO_PRIORITY = 0;
+
     protected boolean isDone;
-    private Priority priority;
+    private byte[] description;
+    private boolean isLatin1;
+    private int priorityLevel;
 
     /**
      * Constructs a new Task with the specified description.
@@ -17,11 +27,11 @@ public class Task {
      * @param description the description of the task
      */
     public Task(String description) {
-        this.description = description;
         assert description != null && !description.trim().isEmpty()
                 : "Task description cannot be null or empty";
+        setDescription(description);
         this.isDone = false;
-        this.priority = null;
+        this.priorityLevel = NO_PRIORITY;
     }
 
     /**
@@ -32,8 +42,28 @@ public class Task {
      * @param priority the priority level for this task
      */
     public Task(String description, Priority priority) {
-        this.description = description;
-        this.priority = priority;
+        setDescription(description);
+        setPriority(priority);
+    }
+
+    private void setDescription(String text) {
+        isLatin1 = true;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0xFF) {
+                isLatin1 = false;
+                break;
+            }
+        }
+        description = text.getBytes(isLatin1 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Replaces this task's copy of its description with the one shared through the given arena.
+     *
+     * @param arena the arena to share the description through
+     */
+    public void internDescription(DescriptionArena arena) {
+        description = arena.intern(description, isLatin1);
     }
 
     /**
@@ -42,16 +72,25 @@ public class Task {
      * @return the Priority object, or null if no priority is set
      */
     public Priority getPriority() {
-        return this.priority;
+        return hasPriority() ? Priority.of(priorityLevel) : null;
+    }
+
+    /**
+     * Returns the priority level of this task without creating a Priority object.
+     *
+     * @return the priority level, or {@link #NO_PRIORITY} if no priority is set
+     */
+    public int getPriorityLevel() {
+        return priorityLevel;
     }
 
     /**
      * Sets the priority for this task.
      *
-     * @param priority the Priority object to assign to this task
+     * @param priority the Priority object to assign to this task, or null to remove its priority
      */
     public void setPriority(Priority priority) {
-        this.priority = priority;
+        this.priorityLevel = priority == null ? NO_PRIORITY : priority.getLevel();
     }
 
     /**
@@ -60,7 +99,7 @@ public class Task {
      * @return true if the task has a priority, false otherwise
      */
     public boolean hasPriority() {
-        return priority != null;
+        return priorityLevel != NO_PRIORITY;
     }
     /**
      * Returns the status icon for display purposes.
@@ -83,7 +122,21 @@ public class Task {
      * @return the task description as a String
      */
     public String getDescription() {
-        return this.description;
+        return new String(description, isLatin1 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends the description to the given builder without creating a String for it.
+     * @param out the builder to append to
+     */
+    private void appendDescription(StringBuilder out) {
+        if (!isLatin1) {
+            out.append(getDescription());
+            return;
+        }
+        for (byte b : description) {
+            out.append((char) (b & 0xFF));
+        }
     }
 
     /**
@@ -93,7 +146,19 @@ public class Task {
      */
     @Override
     public String toString() {
-        return "[" + getStatusIcon() + "] " + this.description;
+        StringBuilder out = new StringBuilder(description.length + 48);
+        appendTo(out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the string representation of the task to the given builder, as returned by
+     * {@link #toString()}. Lets long listings be rendered into one buffer without a string per task.
+     * @param out the builder to append to
+     */
+    public void appendTo(StringBuilder out) {
+        out.append('[').append(getStatusIcon()).append("] ");
+        appendDescription(out);
     }
 
     /**
@@ -112,14 +177,58 @@ public class Task {
         assert !this.isDone : "Task should be marked as undone after calling taskUndone()";
     }
 
+    /**
+     * Returns a copy of this task, which later changes to this task do not affect.
+     * @return the copy
+     */
+    public Task copy() {
+        return withDone(isDone);
+    }
+
+    /**
+     * Returns a copy of this task with the given completion status, leaving this task as it is.
+     * The copy shares this task's description bytes, so it costs only the task object itself.
+     * @param isDone whether the copy is completed
+     * @return the copy
+     */
+    public Task withDone(boolean isDone) {
+        try {
+            Task copy = (Task) super.clone();
+            copy.isDone = isDone;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("Tasks should be cloneable", e);
+        }
+    }
+
     /**
      * Returns a string representation of the task suitable for file storage.
-     * Provides the basic format that subclasses can extend with additional information.
-     * @return a formatted string for storage in the format "completion_status | description"
+     * @return the line {@link #appendStoreData} writes for this task
      */
     public String storeData() {
-        String data = getCompletion() + " | " + this.description;
-        return getCompletion() + " | " + this.description;
+        StringBuilder out = new StringBuilder(description.length + 48);
+        appendStoreData(out);
+        return out.toString();
+    }
+
+    /**
+     * Appends a string representation of the task suitable for file storage.
+     * Provides the basic format that subclasses can extend with additional information.
+     * @param out the builder to append the format "completion_status | description" to
+     */
+    public void appendStoreData(StringBuilder out) {
+        out.append(getCompletion()).append(" | ");
+        appendDescription(out);
+    }
+
+    /**
+     * Appends the priority level as the last field of the storage format, if the task has one.
+     * @param out the builder to append to
+     */
+    protected void appendStoredPriority(StringBuilder out) {
+        if (hasPriority()) {
+            out.append(" | ").append(priorityLevel);
+        }
     }
 
     /**
@@ -132,13 +241,50 @@ public class Task {
 
     /**
      * Checks if the task's description contains the given keyword,
-     * ignoring case sensitivity.
+     * ignoring case sensitivity. Compares in place rather than lowercasing copies of both strings,
+     * as this runs for every task on every search.
      * @param keyword the keyword to search for in the task description
      * @return {@code true} if the description contains the keyword,
      *         {@code false} otherwise
      */
     public boolean containsKeyword(String keyword) {
-        return this.description.toLowerCase().contains(keyword.toLowerCase());
+        if (!isLatin1) {
+            String text = getDescription();
+            int last = text.length() - keyword.length();
+            for (int i = 0; i <= last; i++) {
+                if (text.regionMatches(true, i, keyword, 0, keyword.length())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        int last = description.length - keyword.length();
+        for (int i = 0; i <= last; i++) {
+            if (latin1RegionMatches(i, keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compares the Latin-1 description from the given offset with the keyword, ignoring case
+     * the same way {@link String#regionMatches(boolean, int, String, int, int)} does.
+     */
+    private boolean latin1RegionMatches(int offset, String keyword) {
+        for (int j = 0; j < keyword.length(); j++) {
+            char c1 = (char) (description[offset + j] & 0xFF);
+            char c2 = keyword.charAt(j);
+            if (c1 == c2) {
+                continue;
+            }
+            char u1 = Character.toUpperCase(c1);
+            char u2 = Character.toUpperCase(c2);
+            if (u1 != u2 && Character.toLowerCase(u1) != Character.toLowerCase(u2)) {
+                return false;
+            }
+        }
+        return true;
     }
 
 }
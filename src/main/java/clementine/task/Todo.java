@@ -29,26 +29,25 @@ public class Todo extends Task {
     }
 
     /**
-     * Returns a string representation of the todo task for display to users.
+     * Appends a string representation of the todo task for display to users.
      * Adds the todo-specific type indicator to the base task format.
-     * @return a formatted string in the format "[T][status_icon] description"
+     * @param out the builder to append the format "[T][status_icon] description" to
      */
     @Override
-    public String toString() {
-        return "[T]" + super.toString();
+    public void appendTo(StringBuilder out) {
+        out.append("[T]");
+        super.appendTo(out);
     }
 
     /**
-     * Returns a string representation of the todo task suitable for file storage.
+     * Appends a string representation of the todo task suitable for file storage.
      * Adds the todo-specific type indicator to the base storage format.
-     * @return a formatted string for storage in the format "T | completion_status | description"
+     * @param out the builder to append the format "T | completion_status | description" to
      */
     @Override
-    public String storeData() {
-        if (hasPriority()) {
-            return "T | " + super.storeData() + " | " + getPriority().getLevel();
-        } else {
-            return "T | " + super.storeData();
-        }
+    public void appendStoreData(StringBuilder out) {
+        out.append("T | ");
+        super.appendStoreData(out);
+        appendStoredPriority(out);
     }
 }
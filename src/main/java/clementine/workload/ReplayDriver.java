@@ -0,0 +1,238 @@
+package clementine.workload;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import clementine.Clementine;
+import clementine.LatencyHistogram;
+
+/**
+ * The ReplayDriver class runs a stream of commands, such as one written by {@link WorkloadGenerator},
+ * and reports the throughput along with latency percentiles overall and for each command word.
+ * Commands are sent one after another, either straight to {@link Clementine#getResponse(String)}
+ * in this JVM, or over TCP to a running {@link clementine.server.ClementineServer}.
+ * Responses that report an error are counted, so that rejected commands are not mistaken for fast ones.
+ *
+ * @author zhiyu
+ */
+public class ReplayDriver {
+    private static final String ERROR_PREFIX = "OOPS!!";
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final List<String> commands;
+
+    /**
+     * Constructs a driver for the given commands.
+     *
+     * @param commands the commands to replay, in order
+     */
+    public ReplayDriver(List<String> commands) {
+        this.commands = commands;
+    }
+
+    /**
+     * Replays the commands against a fresh Clementine instance in this JVM, started from a copy of
+     * the given data file so that the file itself is left as it was. The whole stream is first run
+     * {@code warmupRounds} times on fresh copies without being measured, to give the JIT compiler
+     * a chance to optimise the code paths under test.
+     *
+     * @param dataFile the tasks to start from, or null to start from an empty list
+     * @param warmupRounds the number of unmeasured runs before the measured one
+     * @return a report of the throughput and latencies
+     * @throws IOException if the data file cannot be copied
+     */
+    public String replayInProcess(Path dataFile, int warmupRounds) throws IOException {
+        for (int round = 0; round < warmupRounds; round++) {
+            runInProcess(dataFile, new Results());
+        }
+        Results results = new Results();
+        runInProcess(dataFile, results);
+        return results.report("in-process");
+    }
+
+    private void runInProcess(Path dataFile, Results results) throws IOException {
+        Path workingCopy = Files.createTempFile("clementine-replay", ".txt");
+        try {
+            if (dataFile != null) {
+                Files.copy(dataFile, workingCopy, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Clementine clementine = new Clementine(workingCopy.toString());
+            results.start();
+            for (String command : commands) {
+                long sendTime = System.nanoTime();
+                String response = clementine.getResponse(command);
+                results.record(command, System.nanoTime() - sendTime, response.startsWith(ERROR_PREFIX));
+            }
+            results.finish();
+            clementine.shutdown();
+        } finally {
+            Files.deleteIfExists(workingCopy);
+        }
+    }
+
+    /**
+     * Replays the commands over one TCP connection to a running server. The server keeps the
+     * changes, so start it from the workload's data file before each run that should be compared.
+     *
+     * @param host the host the server is listening on
+     * @param port the TCP port the server is listening on
+     * @return a report of the throughput and latencies
+     * @throws IOException if the connection fails
+     */
+    public String replayOverTcp(String host, int port) throws IOException {
+        Results results = new Results();
+        try (Socket socket = new Socket(host, port);
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            results.start();
+            for (String command : commands) {
+                long sendTime = System.nanoTime();
+                out.write(command);
+                out.write('\n');
+                out.flush();
+                boolean isError = readResponse(in);
+                results.record(command, System.nanoTime() - sendTime, isError);
+            }
+            results.finish();
+        }
+        return results.report("tcp " + host + ":" + port);
+    }
+
+    /**
+     * Reads one response from the server.
+     *
+     * @return whether the response reports an error
+     */
+    private boolean readResponse(BufferedReader in) throws IOException {
+        String firstLine = in.readLine();
+        String line = firstLine;
+        while (line != null) {
+            if (line.equals(".")) {
+                return firstLine.startsWith(ERROR_PREFIX);
+            }
+            line = in.readLine();
+        }
+        throw new IOException("connection closed before the response ended");
+    }
+
+    /**
+     * The latencies of one measured run, overall and for each command word.
+     */
+    private static class Results {
+        private final LatencyHistogram overall = new LatencyHistogram();
+        private final Map<String, LatencyHistogram> byCommand = new TreeMap<>();
+        private final Map<String, Integer> errorsByCommand = new TreeMap<>();
+        private int errors;
+        private long startNanos;
+        private long elapsedNanos;
+
+        void start() {
+            startNanos = System.nanoTime();
+        }
+
+        void finish() {
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+
+        void record(String command, long nanos, boolean isError) {
+            int space = command.indexOf(' ');
+            String word = space < 0 ? command : command.substring(0, space);
+            overall.record(nanos);
+            byCommand.computeIfAbsent(word, key -> new LatencyHistogram()).record(nanos);
+            if (isError) {
+                errors++;
+                errorsByCommand.merge(word, 1, Integer::sum);
+            }
+        }
+
+        String report(String target) {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("%d commands (%d errors) against %s in %d ms%n",
+                    overall.getCount(), errors, target, elapsedNanos / 1_000_000));
+            report.append(String.format("throughput: %.0f commands/s%n",
+                    overall.getCount() * 1_000_000_000.0 / Math.max(1, elapsedNanos)));
+            report.append(String.format("%-10s %8s %7s", "command", "count", "errors"));
+            for (double percentile : PERCENTILES) {
+                report.append(String.format(" %10s", "p" + (percentile == (int) percentile
+                        ? String.valueOf((int) percentile) : String.valueOf(percentile))));
+            }
+            report.append(String.format(" %10s%n", "max"));
+            appendRow(report, "all", overall, errors);
+            for (Map.Entry<String, LatencyHistogram> entry : byCommand.entrySet()) {
+                appendRow(report, entry.getKey(), entry.getValue(), errorsByCommand.getOrDefault(entry.getKey(), 0));
+            }
+            return report.toString().trim();
+        }
+
+        private static void appendRow(StringBuilder report, String name, LatencyHistogram histogram, int errors) {
+            report.append(String.format("%-10s %8d %7d", name, histogram.getCount(), errors));
+            for (double percentile : PERCENTILES) {
+                report.append(String.format(" %8.3fms", histogram.getPercentileNanos(percentile) / 1_000_000.0));
+            }
+            report.append(String.format(" %8.3fms%n", histogram.getMaxNanos() / 1_000_000.0));
+        }
+    }
+
+    /**
+     * Replays a workload file and prints the report.
+     * Options: {@code --commands <file>} (default workload.txt), {@code --data <file>} with the tasks to
+     * start from (default workload-data.txt, ignored over TCP) and {@code --warmup <rounds>} (default 1).
+     * With {@code --tcp-port <port>} and optionally {@code --host <host>} (default 127.0.0.1), the
+     * commands are sent to a running server instead of being run in this JVM.
+     *
+     * @param args command line options
+     * @throws IOException if a file cannot be read or the connection fails
+     */
+    public static void main(String[] args) throws IOException {
+        String commandsPath = "workload.txt";
+        String dataPath = "workload-data.txt";
+        int warmupRounds = 1;
+        String host = "127.0.0.1";
+        int tcpPort = -1;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+            case "--commands":
+                commandsPath = args[i + 1];
+                break;
+            case "--data":
+                dataPath = args[i + 1];
+                break;
+            case "--warmup":
+                warmupRounds = Integer.parseInt(args[i + 1]);
+                break;
+            case "--host":
+                host = args[i + 1];
+                break;
+            case "--tcp-port":
+                tcpPort = Integer.parseInt(args[i + 1]);
+                break;
+            default:
+                System.err.println("quack! unknown option " + args[i]);
+                return;
+            }
+        }
+
+        ReplayDriver driver = new ReplayDriver(Files.readAllLines(Paths.get(commandsPath), StandardCharsets.UTF_8));
+        if (tcpPort >= 0) {
+            System.out.println(driver.replayOverTcp(host, tcpPort));
+        } else {
+            Path dataFile = Paths.get(dataPath);
+            System.out.println(driver.replayInProcess(Files.exists(dataFile) ? dataFile : null, warmupRounds));
+        }
+    }
+}
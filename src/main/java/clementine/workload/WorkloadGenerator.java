@@ -0,0 +1,303 @@
+package clementine.workload;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import clementine.PageRequest;
+import clementine.Priority;
+import clementine.TaskList;
+import clementine.task.Deadline;
+import clementine.task.Event;
+import clementine.task.Task;
+import clementine.task.Todo;
+
+/**
+ * The WorkloadGenerator class writes realistic command streams for capacity testing.
+ * It produces a data file holding the tasks to start from, and a stream of commands drawn from a
+ * weighted mix of operations. It keeps track of how long the list would be, so marks and deletes
+ * always name an existing task and list pages stay within range. As in the app, adds are rejected
+ * once the list holds {@link TaskList#MAX_TASKS} tasks, so lists longer than that only grow through
+ * the starting data file.
+ *
+ * <p>Everything is drawn from a random generator seeded with the given seed, so the same seed,
+ * mix and list size always produce the same files and runs can be compared.
+ *
+ * @author zhiyu
+ */
+public class WorkloadGenerator {
+    /**
+     * The kinds of command a workload is made of.
+     */
+    public enum Operation {
+        TODO,
+        DEADLINE,
+        EVENT,
+        MARK,
+        UNMARK,
+        DELETE,
+        FIND,
+        LIST,
+        PRIORITY
+    }
+
+    public static final String DEFAULT_MIX =
+            "todo=10,deadline=6,event=4,mark=15,unmark=5,delete=20,find=15,list=20,priority=5";
+
+    private static final String[] WORDS = {
+        "read", "book", "finish", "homework", "buy", "milk", "call", "mum", "project", "report",
+        "meeting", "essay", "gym", "lunch", "review", "slides", "quiz", "revise", "notes", "laundry"
+    };
+    private static final String MISSING_WORD = "zebra";
+    private static final LocalDateTime FIRST_DATE = LocalDateTime.of(2025, 1, 1, 9, 0);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HHmm");
+
+    private final long seed;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int listSize;
+    private final SplittableRandom commandRandom;
+    private int simulatedSize;
+    private int nextDescription;
+
+    /**
+     * Constructs a generator for the given mix of operations and starting list size.
+     *
+     * @param seed the seed all choices are drawn from
+     * @param mix the relative weight of each operation; operations left out are never chosen
+     * @param listSize the number of tasks in the starting data file
+     */
+    public WorkloadGenerator(long seed, Map<Operation, Integer> mix, int listSize) {
+        assert listSize >= 0 : "List size should not be negative";
+        this.seed = seed;
+        this.listSize = listSize;
+        this.commandRandom = new SplittableRandom(seed);
+        this.simulatedSize = listSize;
+        this.nextDescription = listSize;
+
+        List<Operation> chosen = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Operation, Integer> entry : new EnumMap<>(mix).entrySet()) {
+            if (entry.getValue() > 0) {
+                total += entry.getValue();
+                chosen.add(entry.getKey());
+                cumulative.add(total);
+            }
+        }
+        if (chosen.isEmpty()) {
+            throw new IllegalArgumentException("the mix needs at least one operation with a positive weight");
+        }
+        this.operations = chosen.toArray(new Operation[0]);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Parses a mix such as {@code todo=20,find=10}, giving each named operation its weight.
+     *
+     * @param spec the comma-separated operation weights
+     * @return the weight of each named operation
+     * @throws IllegalArgumentException if an operation is unknown or a weight is not a number
+     */
+    public static Map<Operation, Integer> parseMix(String spec) {
+        EnumMap<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("expected <operation>=<weight> but got " + part);
+            }
+            Operation operation = Operation.valueOf(pair[0].trim().toUpperCase());
+            mix.put(operation, Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    /**
+     * Writes the starting tasks in the data file format, one per line. A quarter of the tasks
+     * have a priority and a third are done. The tasks depend only on the seed and list size.
+     *
+     * @param out where to write the tasks
+     * @throws IOException if writing fails
+     */
+    public void writeInitialTasks(Appendable out) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed ^ 0x5DEECE66DL);
+        for (int i = 0; i < listSize; i++) {
+            String description = randomDescription(random, i);
+            Priority priority = random.nextInt(4) == 0 ? Priority.of(1 + random.nextInt(5)) : null;
+            LocalDateTime date = randomDate(random);
+            Task task;
+            switch (i % 3) {
+            case 0:
+                task = priority == null ? new Todo(description) : new Todo(description, priority);
+                break;
+            case 1:
+                task = priority == null ? new Deadline(description, date) : new Deadline(description, date, priority);
+                break;
+            default:
+                LocalDateTime end = date.plusHours(2);
+                task = priority == null
+                        ? new Event(description, date, end)
+                        : new Event(description, date, end, priority);
+                break;
+            }
+            if (random.nextInt(3) == 0) {
+                task.taskDone();
+            }
+            out.append(task.storeData()).append('\n');
+        }
+    }
+
+    /**
+     * Writes the next commands of the stream, one per line.
+     *
+     * @param count the number of commands to write
+     * @param out where to write the commands
+     * @throws IOException if writing fails
+     */
+    public void writeCommands(int count, Appendable out) throws IOException {
+        for (int i = 0; i < count; i++) {
+            out.append(nextCommand()).append('\n');
+        }
+    }
+
+    /**
+     * Returns the next command of the stream.
+     *
+     * @return a command as the user would type it
+     */
+    public String nextCommand() {
+        Operation operation = pickOperation();
+        boolean needsTask = operation == Operation.MARK || operation == Operation.UNMARK
+                || operation == Operation.DELETE;
+        if (needsTask && simulatedSize == 0) {
+            operation = Operation.TODO;
+        }
+
+        switch (operation) {
+        case TODO:
+            return add("todo " + randomDescription(commandRandom, nextDescription++) + randomPriority());
+        case DEADLINE:
+            return add("deadline " + randomDescription(commandRandom, nextDescription++)
+                    + " /by " + randomDate(commandRandom).format(DATE_FORMAT) + randomPriority());
+        case EVENT:
+            LocalDateTime start = randomDate(commandRandom);
+            return add("event " + randomDescription(commandRandom, nextDescription++)
+                    + " /from " + start.format(DATE_FORMAT)
+                    + " /to " + start.plusHours(2).format(DATE_FORMAT) + randomPriority());
+        case MARK:
+            return "mark " + (1 + commandRandom.nextInt(simulatedSize));
+        case UNMARK:
+            return "unmark " + (1 + commandRandom.nextInt(simulatedSize));
+        case DELETE:
+            return "delete " + (1 + commandRandom.nextInt(simulatedSize--));
+        case FIND:
+            boolean isMiss = commandRandom.nextInt(10) == 0;
+            return "find " + (isMiss ? MISSING_WORD : WORDS[commandRandom.nextInt(WORDS.length)]);
+        case LIST:
+            int pageCount = PageRequest.of(1, PageRequest.DEFAULT_PAGE_SIZE).getPageCount(simulatedSize);
+            if (pageCount <= 1 || commandRandom.nextInt(10) < 7) {
+                return "list";
+            }
+            return "list page " + (1 + commandRandom.nextInt(pageCount));
+        case PRIORITY:
+            return "priority";
+        default:
+            throw new AssertionError("Unknown operation " + operation);
+        }
+    }
+
+    private Operation pickOperation() {
+        int pick = commandRandom.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new AssertionError("Pick should fall below the total weight");
+    }
+
+    /**
+     * Counts an add towards the list size unless the app would reject it for a full list.
+     */
+    private String add(String command) {
+        if (simulatedSize < TaskList.MAX_TASKS) {
+            simulatedSize++;
+        }
+        return command;
+    }
+
+    private String randomPriority() {
+        return commandRandom.nextInt(5) == 0 ? " /priority " + (1 + commandRandom.nextInt(5)) : "";
+    }
+
+    private static String randomDescription(SplittableRandom random, int number) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + number;
+    }
+
+    private static LocalDateTime randomDate(SplittableRandom random) {
+        return FIRST_DATE.plusMinutes(random.nextInt(500_000));
+    }
+
+    /**
+     * Writes a workload to files.
+     * Options: {@code --seed <n>} (default 42), {@code --commands <n>} (default 10000),
+     * {@code --list-size <n>} tasks to start with (default 50), {@code --mix <operation=weight,...>}
+     * (default {@value #DEFAULT_MIX}), {@code --out <file>} for the commands (default workload.txt)
+     * and {@code --data-out <file>} for the starting tasks (default workload-data.txt).
+     *
+     * @param args command line options
+     * @throws IOException if the files cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        long seed = 42;
+        int commands = 10_000;
+        int listSize = 50;
+        String mix = DEFAULT_MIX;
+        String commandsPath = "workload.txt";
+        String dataPath = "workload-data.txt";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+            case "--seed":
+                seed = Long.parseLong(args[i + 1]);
+                break;
+            case "--commands":
+                commands = Integer.parseInt(args[i + 1]);
+                break;
+            case "--list-size":
+                listSize = Integer.parseInt(args[i + 1]);
+                break;
+            case "--mix":
+                mix = args[i + 1];
+                break;
+            case "--out":
+                commandsPath = args[i + 1];
+                break;
+            case "--data-out":
+                dataPath = args[i + 1];
+                break;
+            default:
+                System.err.println("quack! unknown option " + args[i]);
+                return;
+            }
+        }
+
+        WorkloadGenerator generator = new WorkloadGenerator(seed, parseMix(mix), listSize);
+        try (BufferedWriter data = Files.newBufferedWriter(Paths.get(dataPath), StandardCharsets.UTF_8)) {
+            generator.writeInitialTasks(data);
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(commandsPath), StandardCharsets.UTF_8)) {
+            generator.writeCommands(commands, out);
+        }
+        System.out.println("quack! wrote " + listSize + " tasks to " + dataPath + " and "
+                + commands + " commands to " + commandsPath);
+    }
+}
@@ -0,0 +1,91 @@
+package clementine;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import clementine.workload.WorkloadGenerator;
+
+/**
+ * Checks that hot commands stay within the number of bytes they are allowed to allocate.
+ * Each command is run until the JIT compiler has settled, then the bytes allocated by this thread
+ * are averaged over many runs. A budget that is exceeded means a change has added allocations to a
+ * path that runs on every command; either remove them or raise the budget on purpose.
+ */
+public class AllocationBudgetTest {
+    private static final int LIST_SIZE = 90;
+    private static final int WARMUP_RUNS = 2_000;
+    private static final int MEASURED_RUNS = 500;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void find_withinBudget() throws IOException {
+        Clementine clementine = startWithTasks(LIST_SIZE);
+        assertWithinBudget("find report", 8_000, () -> clementine.getResponse("find report"));
+        assertWithinBudget("find zebra", 1_000, () -> clementine.getResponse("find zebra"));
+    }
+
+    @Test
+    public void list_withinBudget() throws IOException {
+        Clementine clementine = startWithTasks(LIST_SIZE);
+        assertWithinBudget("list", 40_000, () -> clementine.getResponse("list"));
+    }
+
+    @Test
+    public void mark_withinBudget() throws IOException {
+        Clementine clementine = startWithTasks(LIST_SIZE);
+        assertWithinBudget("mark", 48_000, () -> clementine.getResponse("mark 1"));
+    }
+
+    @Test
+    public void add_withinBudget() throws IOException {
+        Clementine clementine = startWithTasks(LIST_SIZE);
+        // each add is deleted again so the list stays below the cap; the budget covers both commands
+        assertWithinBudget("todo", 120_000, () -> {
+            clementine.getResponse("todo read book /priority 2");
+            return clementine.getResponse("delete " + (LIST_SIZE + 1));
+        });
+        assertWithinBudget("deadline", 120_000, () -> {
+            clementine.getResponse("deadline essay /by 25/12/2025 1800");
+            return clementine.getResponse("delete " + (LIST_SIZE + 1));
+        });
+        assertWithinBudget("event", 120_000, () -> {
+            clementine.getResponse("event meeting /from 1/1/2026 14:00 /to 1/1/2026 16:00");
+            return clementine.getResponse("delete " + (LIST_SIZE + 1));
+        });
+    }
+
+    private Clementine startWithTasks(int taskCount) throws IOException {
+        WorkloadGenerator generator =
+                new WorkloadGenerator(1, WorkloadGenerator.parseMix(WorkloadGenerator.DEFAULT_MIX), taskCount);
+        StringBuilder data = new StringBuilder();
+        generator.writeInitialTasks(data);
+        Path dataFile = tempDir.resolve("tasks.txt");
+        Files.writeString(dataFile, data);
+        return new Clementine(dataFile.toString());
+    }
+
+    private static void assertWithinBudget(String command, long budgetBytes, Supplier<String> run) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            run.get();
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            run.get();
+        }
+        long bytesPerRun = (threads.getCurrentThreadAllocatedBytes() - before) / MEASURED_RUNS;
+        assertTrue(bytesPerRun <= budgetBytes,
+                command + " allocated " + bytesPerRun + " bytes per run, over its budget of " + budgetBytes);
+    }
+}
@@ -0,0 +1,84 @@
+package clementine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+
+import clementine.store.VersionedTaskStore;
+
+public class CommandProcessorTest {
+    @TempDir
+    Path tempDir;
+
+    private CommandProcessor processor;
+    private TaskList tasks;
+
+    @BeforeEach
+    public void setUp() {
+        processor = new CommandProcessor(new UI(), new Storage(tempDir.resolve("tasks.txt").toString()), 0);
+        tasks = new TaskList(new ArrayList<>());
+    }
+
+    @Test
+    public void export_changedAfterwards_writesTasksAsTheyWere() throws ClementineException, IOException {
+        processor.executeCommand("todo read book", tasks);
+        Path file = tempDir.resolve("tasks.csv");
+        processor.executeCommand("export csv " + file, tasks);
+        processor.executeCommand("mark 1", tasks);
+        processor.shutdown();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains("read book"));
+        assertTrue(lines.get(1).contains("false"), lines.get(1));
+    }
+
+    @Test
+    public void export_versionedListChangedAfterwards_writesTasksAsTheyWere() throws ClementineException, IOException {
+        TaskList versionedTasks = new TaskList(new VersionedTaskStore(new ArrayList<>(), null));
+        processor.executeCommand("todo read book", versionedTasks);
+        Path file = tempDir.resolve("tasks.csv");
+        processor.executeCommand("export csv " + file, versionedTasks);
+        processor.executeCommand("mark 1", versionedTasks);
+        processor.executeCommand("todo buy milk", versionedTasks);
+        processor.shutdown();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains("false"), lines.get(1));
+    }
+
+    @Test
+    public void export_invalidPath_rejectsBeforeStarting() {
+        Executable export = () -> processor.executeCommand("export csv tasks\0.csv", tasks);
+        ClementineException e = assertThrows(ClementineException.class, export);
+        assertTrue(e.getMessage().startsWith("quack! i can't export to"), e.getMessage());
+    }
+
+    @Test
+    public void export_unwritableFile_reportsFailureOnce() throws ClementineException, IOException {
+        Path notADirectory = tempDir.resolve("notes.txt");
+        Files.writeString(notADirectory, "not a directory");
+        processor.executeCommand("todo read book", tasks);
+        String exportResponse = processor.executeCommand("export csv " + notADirectory.resolve("tasks.csv"), tasks);
+        processor.shutdown();
+
+        // a quick failure is already shown with the export's own response, otherwise with the next one
+        String response = processor.executeCommand("list", tasks);
+        String notice = "oh quack! i couldn't export your tasks to ";
+        assertTrue(exportResponse.startsWith(notice) != response.startsWith(notice), exportResponse + response);
+        assertTrue(response.contains("1. [T][ ] read book"), response);
+        assertEquals(-1, processor.executeCommand("list", tasks).indexOf("couldn't export"));
+    }
+}
@@ -0,0 +1,64 @@
+package clementine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ConversationLogTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void search_spilledAndRecentMessages_findsBoth() throws ClementineException {
+        ConversationLog log = new ConversationLog(tempDir, 2);
+        log.record(Message.fromUser("todo read book"));
+        log.record(Message.fromClementine("added:\n[T][ ] read BOOK\\now"));
+        log.record(Message.fromUser("list"));
+        log.record(Message.fromUser("find book"));
+
+        assertEquals(2, log.getRecentMessages().size());
+        ConversationLog.SearchResult result = log.search("book", 10);
+        assertEquals(3, result.getMatchCount());
+        assertEquals("added:\n[T][ ] read BOOK\\now", result.getMessages().get(1).getText());
+        assertTrue(result.getMessages().get(0).isFromUser());
+        // an escaped line feed must not match a keyword containing the letter n
+        assertEquals(1, log.search("\\n", 10).getMatchCount());
+    }
+
+    @Test
+    public void search_limit_keepsMostRecentMatches() throws ClementineException {
+        ConversationLog log = new ConversationLog(tempDir, 0);
+        for (int i = 1; i <= 5; i++) {
+            log.record(Message.fromUser("mark " + i));
+        }
+
+        ConversationLog.SearchResult result = log.search("MARK", 2);
+        assertEquals(5, result.getMatchCount());
+        assertEquals("mark 4", result.getMessages().get(0).getText());
+        assertEquals("mark 5", result.getMessages().get(1).getText());
+    }
+
+    @Test
+    public void close_reopened_keepsHistoryInBoundedSegments() throws ClementineException, IOException {
+        ConversationLog log = new ConversationLog(tempDir, 5, 20, 2);
+        for (int i = 1; i <= 10; i++) {
+            log.record(Message.fromUser("message number " + i));
+        }
+        log.close();
+
+        try (Stream<Path> segments = Files.list(tempDir)) {
+            assertEquals(2, segments.count());
+        }
+        ConversationLog reopened = new ConversationLog(tempDir, 5, 20, 2);
+        List<Message> matches = reopened.search("message", 10).getMessages();
+        assertEquals("message number 10", matches.get(matches.size() - 1).getText());
+    }
+}
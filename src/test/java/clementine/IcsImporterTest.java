@@ -0,0 +1,74 @@
+package clementine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import clementine.task.Event;
+import clementine.task.Task;
+
+public class IcsImporterTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void importFile_summaryWithSeparator_reportsEntryAndKeepsOthers() throws ClementineException, IOException {
+        Path file = tempDir.resolve("calendar.ics");
+        Files.writeString(file, "BEGIN:VCALENDAR\r\n"
+                + "BEGIN:VTODO\r\nSUMMARY:eggs | milk\r\nEND:VTODO\r\n"
+                + "BEGIN:VTODO\r\nSUMMARY:buy bread\r\nEND:VTODO\r\n"
+                + "END:VCALENDAR\r\n");
+
+        ImportResult result = new IcsImporter().importFile(file.toString(), new ArrayList<>());
+
+        assertEquals(1, result.getTasks().size());
+        assertEquals("buy bread", result.getTasks().get(0).getDescription());
+        assertEquals(1, result.getErrorCount());
+        assertTrue(result.getReportedErrors().get(0).contains("'|'"), result.getReportedErrors().get(0));
+    }
+
+    @Test
+    public void importFile_alarmInsideEvent_keepsEventProperties() throws ClementineException, IOException {
+        Path file = tempDir.resolve("alarm.ics");
+        Files.writeString(file, "BEGIN:VCALENDAR\r\n"
+                + "BEGIN:VEVENT\r\nSUMMARY:team meeting\r\nDTSTART:20241225T140000\r\n"
+                + "BEGIN:VALARM\r\nACTION:DISPLAY\r\nSUMMARY:reminder\r\nDURATION:PT15M\r\n"
+                + "TRIGGER:-PT15M\r\nEND:VALARM\r\n"
+                + "DTEND:20241225T153000\r\nEND:VEVENT\r\n"
+                + "END:VCALENDAR\r\n");
+
+        ImportResult result = new IcsImporter().importFile(file.toString(), new ArrayList<>());
+
+        assertEquals(1, result.getTasks().size());
+        Event event = (Event) result.getTasks().get(0);
+        assertEquals("team meeting", event.getDescription());
+        assertEquals(LocalDateTime.of(2024, 12, 25, 14, 0), event.getStart());
+        assertEquals(LocalDateTime.of(2024, 12, 25, 15, 30), event.getEnd());
+    }
+
+    @Test
+    public void importFile_longFoldedSummary_unfoldsIt() throws ClementineException, IOException {
+        StringBuilder ics = new StringBuilder("BEGIN:VCALENDAR\r\nBEGIN:VTODO\r\nSUMMARY:read");
+        StringBuilder expected = new StringBuilder("read");
+        for (int i = 0; i < 5000; i++) {
+            ics.append("\r\n  chapter ").append(i);
+            expected.append(" chapter ").append(i);
+        }
+        ics.append("\r\nEND:VTODO\r\nEND:VCALENDAR\r\n");
+        Path file = tempDir.resolve("long.ics");
+        Files.writeString(file, ics);
+
+        ImportResult result = new IcsImporter().importFile(file.toString(), new ArrayList<>());
+
+        Task task = result.getTasks().get(0);
+        assertEquals(expected.toString(), task.getDescription());
+    }
+}
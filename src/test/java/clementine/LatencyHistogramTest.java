@@ -0,0 +1,43 @@
+package clementine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketIndex_everyBucket_containsItsUpperBound() {
+        for (int i = 0; i < 600; i++) {
+            long upperBound = LatencyHistogram.bucketUpperBound(i);
+            assertEquals(i, LatencyHistogram.bucketIndex(upperBound));
+            assertEquals(i + 1, LatencyHistogram.bucketIndex(upperBound + 1));
+        }
+    }
+
+    @Test
+    public void getPercentileNanos_uniformDurations_withinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertEquals(500_500, histogram.getMeanNanos());
+        long p50 = histogram.getPercentileNanos(50);
+        long p99 = histogram.getPercentileNanos(99);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.07, "p50 was " + p50);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99 was " + p99);
+        assertEquals(1_000_000, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void getPercentileNanos_negativeOrEmpty_returnsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(0, histogram.getPercentileNanos(50));
+        assertEquals(0, new LatencyHistogram().getPercentileNanos(99));
+    }
+}
@@ -10,6 +10,8 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -152,6 +154,22 @@ public class ParserTest {
         assertEquals(2, task.getPriority().getLevel());
     }
 
+    @Test
+    public void parseTask_deadlineAndEvent_keepTimesAndStorageFormat() {
+        String deadlineLine = "D | 1 | submit assignment | /by 29/02/2024 2359 | 2";
+        Deadline deadline = (Deadline) Parser.parseTask(deadlineLine);
+        assertEquals(LocalDateTime.of(2024, 2, 29, 23, 59), deadline.getBy());
+        assertEquals(deadlineLine, deadline.storeData());
+        assertEquals(Priority.of(2), deadline.getPriority());
+
+        String eventLine = "E | 0 | reunion | /from 31/12/1969 2330/to 01/01/1970 0030";
+        Event event = (Event) Parser.parseTask(eventLine);
+        assertEquals(LocalDateTime.of(1969, 12, 31, 23, 30), event.getStart());
+        assertEquals(LocalDateTime.of(1970, 1, 1, 0, 30), event.getEnd());
+        assertEquals(eventLine, event.storeData());
+        assertFalse(event.hasPriority());
+    }
+
     @Test
     public void parseTask_validEventFromStorage() {
         Task task = Parser.parseTask("E | 0 | meeting | /from 12/12/2024 1400 /to 12/12/2024 1600");
@@ -296,6 +314,14 @@ public class ParserTest {
         });
     }
 
+    @Test
+    public void parseNewTask_descriptionWithStorageSeparator_throwsException() {
+        assertThrows(ClementineException.class, () -> Parser.parseTodoTask("todo eggs | milk"));
+        assertThrows(ClementineException.class, () -> Parser.parseDeadlineTask("deadline a | b /by 1/1/2025"));
+        assertThrows(ClementineException.class, () ->
+                Parser.parseEventTask("event a|b /from 1/1/2025 /to 2/1/2025"));
+    }
+
     @Test
     public void parseDateTime_validFormats() throws DateTimeParseException {
         // Test various date-time formats
@@ -379,6 +405,97 @@ public class ParserTest {
     }
 
 
+    @Test
+    public void parseImportPath_validPath() throws ClementineException {
+        assertEquals("data/backlog.txt", Parser.parseImportPath("import data/backlog.txt "));
+    }
+
+    @Test
+    public void parseImportPath_missingPath_throwsException() {
+        assertThrows(ClementineException.class, () -> {
+            Parser.parseImportPath("import");
+        });
+    }
+
+    @Test
+    public void parseExportCommand_validFormatAndPath() throws ClementineException {
+        assertEquals(TaskExporter.Format.ICS, Parser.parseExportFormat("export ICS data/my tasks.ics"));
+        assertEquals("data/my tasks.ics", Parser.parseExportPath("export ICS data/my tasks.ics"));
+    }
+
+    @Test
+    public void parseExportCommand_missingPathOrUnknownFormat_throwsException() {
+        assertThrows(ClementineException.class, () -> {
+            Parser.parseExportPath("export csv");
+        });
+        assertThrows(ClementineException.class, () -> {
+            Parser.parseExportFormat("export pdf tasks.pdf");
+        });
+    }
+
+    @Test
+    public void parsePipeline_validCommands_splitsInOrder() throws ClementineException {
+        assertEquals(List.of("mark 1", "delete 7", "todo x"),
+                Parser.parsePipeline("mark 1;  delete 7 ;; todo x;"));
+    }
+
+    @Test
+    public void isPipeline_semicolonInDescription_isOneCommand() throws ClementineException {
+        assertFalse(Parser.isPipeline("todo buy eggs; milk"));
+        assertEquals("buy eggs; milk", Parser.parseTodoTask("todo buy eggs; milk").getDescription());
+        assertFalse(Parser.isPipeline("todo read book"));
+        assertTrue(Parser.isPipeline("todo buy eggs; mark 1"));
+        assertTrue(Parser.isPipeline("mark 1; delete 7 ;; todo x;"));
+    }
+
+    @Test
+    public void parsePipeline_unknownCommand_throwsException() {
+        assertThrows(ClementineException.class, () -> {
+            Parser.parsePipeline("mark 1; jump 2");
+        });
+    }
+
+    @Test
+    public void parseTaskNumbers_rangesAndLists_returnsSortedDistinct() throws ClementineException {
+        int[] result = Parser.parseTaskNumbers("delete 9-12, 3,7,10", "delete", 12);
+        assertEquals("[3, 7, 9, 10, 11, 12]", Arrays.toString(result));
+        assertTrue(Parser.isMultipleTaskSelection("mark 1-50", "mark"));
+        assertFalse(Parser.isMultipleTaskSelection("mark 5", "mark"));
+    }
+
+    @Test
+    public void parseTaskNumbers_outOfBoundsOrReversed_throwsException() {
+        assertThrows(ClementineException.class, () -> {
+            Parser.parseTaskNumbers("mark 1-51", "mark", 50);
+        });
+        assertThrows(ClementineException.class, () -> {
+            Parser.parseTaskNumbers("mark 5-2", "mark", 50);
+        });
+    }
+
+    @Test
+    public void parsePageRequest_pageAndSize_returnsRequestedPage() throws ClementineException {
+        PageRequest page = Parser.parsePageRequest("list size 20 page 3", "list");
+        assertEquals(3, page.getPage());
+        assertEquals(20, page.getSize());
+        assertEquals(40, page.getStartIndex());
+        assertEquals(PageRequest.DEFAULT_PAGE_SIZE, Parser.parsePageRequest("list", "list").getSize());
+        assertTrue(Parser.parsePageRequest("list next", "list").isNext());
+    }
+
+    @Test
+    public void parsePageRequest_invalidOptions_throwsException() {
+        assertThrows(ClementineException.class, () -> {
+            Parser.parsePageRequest("list page 0", "list");
+        });
+        assertThrows(ClementineException.class, () -> {
+            Parser.parsePageRequest("list everything", "list");
+        });
+        assertThrows(ClementineException.class, () -> {
+            Parser.parsePageRequest("list size", "list");
+        });
+    }
+
     @Test
     public void parseTask_validTodoWithPriority() {
         Task task = Parser.parseTask("T | 0 | finish ip project | 1");
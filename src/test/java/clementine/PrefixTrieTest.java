@@ -0,0 +1,53 @@
+package clementine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import clementine.task.Todo;
+
+public class PrefixTrieTest {
+
+    @Test
+    public void complete_sharedPrefixes_returnsMatchesInOrder() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("read book");
+        trie.add("Read notes");
+        trie.add("return book");
+        trie.add("buy milk");
+
+        assertEquals(List.of("read book", "Read notes"), trie.complete("REA", 10));
+        assertEquals(List.of("read book", "Read notes", "return book"), trie.complete("re", 10));
+        assertEquals(List.of("read book"), trie.complete("re", 1));
+        assertEquals(List.of(), trie.complete("sell", 10));
+    }
+
+    @Test
+    public void remove_afterAdds_prunesOnlyRemovedEntries() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("read");
+        trie.add("read book");
+        trie.add("read book");
+
+        trie.remove("read book");
+        assertEquals(List.of("read", "read book"), trie.complete("read", 10));
+        trie.remove("read book");
+        trie.remove("rea");
+        assertEquals(List.of("read"), trie.complete("r", 10));
+        trie.remove("read");
+        assertEquals(0, trie.size());
+        assertEquals(List.of(), trie.complete("", 10));
+    }
+
+    @Test
+    public void suggest_commandWordsAndDescriptions_completesLastCommand() {
+        CommandSuggester suggester = new CommandSuggester();
+        suggester.onTasksReplaced(List.of(new Todo("read book")));
+
+        assertEquals(List.of("deadline", "delete"), suggester.suggest("de", 5));
+        assertEquals(List.of("list; find read book"), suggester.suggest("list; find re", 5));
+        assertEquals(List.of(), suggester.suggest("find read book", 5));
+    }
+}
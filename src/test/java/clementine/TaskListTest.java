@@ -12,6 +12,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import clementine.task.Deadline;
+import clementine.task.DescriptionArena;
 import clementine.task.Event;
 import clementine.task.Task;
 import clementine.task.Todo;
@@ -69,6 +70,20 @@ public class TaskListTest {
         });
     }
 
+    @Test
+    public void addTasks_beyondMaxCapacity_appendsInOrder() throws ClementineException {
+        ArrayList<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            batch.add(new Todo("task " + i));
+        }
+        taskList.addTask(testTask1);
+        taskList.addTasks(batch);
+
+        assertEquals(151, taskList.taskSize());
+        assertEquals(testTask1, taskList.getTask(1));
+        assertEquals("task 149", taskList.getTask(151).getDescription());
+    }
+
     // Additional get task tests
     @Test
     public void getTask_validIndex_returnsTask() throws ClementineException {
@@ -313,4 +328,71 @@ public class TaskListTest {
         taskList.markTask(1);
         assertTrue(task.isDone());
     }
+
+    @Test
+    public void restore_afterChanges_revertsListAndStatus() throws ClementineException {
+        taskList.addTask(testTask1);
+        taskList.addTask(testTask2);
+        TaskList.Snapshot snapshot = taskList.createSnapshot();
+
+        taskList.markTask(1);
+        taskList.deleteTask(2);
+        taskList.addTask(new Todo("extra task"));
+        taskList.restore(snapshot);
+
+        assertEquals(2, taskList.taskSize());
+        assertEquals(testTask2, taskList.getTask(2));
+        assertFalse(testTask1.isDone());
+    }
+
+    @Test
+    public void deleteTasks_multipleIndices_keepsRemainingOrder() throws ClementineException {
+        for (int i = 1; i <= 6; i++) {
+            taskList.addTask(new Todo("task " + i));
+        }
+        int deleted = taskList.deleteTasks(new int[] {1, 3, 4, 6});
+
+        assertEquals(4, deleted);
+        assertEquals(2, taskList.taskSize());
+        assertEquals("task 2", taskList.getTask(1).getDescription());
+        assertEquals("task 5", taskList.getTask(2).getDescription());
+    }
+
+    @Test
+    public void deleteDoneTasks_removesOnlyCompletedTasks() throws ClementineException {
+        taskList.addTask(testTask1);
+        taskList.addTask(testTask2);
+        taskList.markTasks(new int[] {1});
+
+        assertEquals(1, taskList.deleteDoneTasks());
+        assertEquals(testTask2, taskList.getTask(1));
+    }
+
+    @Test
+    public void addTask_withDescriptionArena_sharesRepeatedDescriptions() throws ClementineException {
+        DescriptionArena arena = new DescriptionArena();
+        TaskList arenaList = new TaskList(new ArrayList<>(), arena);
+        arenaList.addTask(new Todo("team sync"));
+        arenaList.addTask(new Todo("team sync", Priority.of(1)));
+        arenaList.addTask(new Todo("café with ÆSIR"));
+        arenaList.addTask(new Todo("read 本"));
+
+        assertEquals(3, arena.size());
+        assertEquals("team sync", arenaList.getTask(2).getDescription());
+        assertEquals("[T][ ] café with ÆSIR", arenaList.getTask(3).toString());
+        assertEquals("T | 0 | read 本", arenaList.getTask(4).storeData());
+    }
+
+    @Test
+    public void findTasks_nonAsciiDescriptions_ignoresCase() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("Café with ÆSIR"));
+        tasks.add(new Todo("read 本 Together"));
+        TaskList mixedList = new TaskList(tasks);
+
+        assertEquals(1, mixedList.findTasks("CAFÉ").size());
+        assertEquals(1, mixedList.findTasks("æsir").size());
+        assertEquals(1, mixedList.findTasks("本 toGETHER").size());
+        assertEquals(0, mixedList.findTasks("cafe").size());
+    }
 }
@@ -0,0 +1,118 @@
+package clementine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+
+import clementine.store.VersionedTaskStore;
+import clementine.task.Todo;
+
+public class UndoHistoryTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void undo_deleteAndMark_restoresListAndSavesIt() throws ClementineException, IOException {
+        Path file = tempDir.resolve("tasks.txt");
+        CommandProcessor processor = new CommandProcessor(new UI(), new Storage(file.toString()), 5);
+        TaskList tasks = new TaskList(new VersionedTaskStore(new ArrayList<>(), null));
+        processor.executeCommand("todo read book", tasks);
+        processor.executeCommand("todo buy milk", tasks);
+        processor.executeCommand("mark 1", tasks);
+        processor.executeCommand("delete 2", tasks);
+
+        processor.executeCommand("undo", tasks);
+        assertEquals(2, tasks.taskSize());
+        assertEquals(List.of("T | 1 | read book", "T | 0 | buy milk"), Files.readAllLines(file));
+
+        processor.executeCommand("undo", tasks);
+        assertFalse(tasks.getTask(1).isDone());
+        processor.executeCommand("redo", tasks);
+        processor.executeCommand("redo", tasks);
+        assertEquals(1, tasks.taskSize());
+        assertTrue(tasks.getTask(1).isDone());
+        assertEquals(List.of("T | 1 | read book"), Files.readAllLines(file));
+        assertThrows(ClementineException.class, () -> processor.executeCommand("redo", tasks));
+    }
+
+    @Test
+    public void undo_batchAndReads_undoesTheBatchAsOneChange() throws ClementineException {
+        Storage storage = new Storage(tempDir.resolve("tasks.txt").toString());
+        CommandProcessor processor = new CommandProcessor(new UI(), storage, 5);
+        TaskList tasks = new TaskList(new VersionedTaskStore(new ArrayList<>(), null));
+        processor.executeCommand("todo read book", tasks);
+        processor.executeBatch(List.of("todo buy milk", "todo walk dog", "mark 1"), tasks);
+        processor.executeCommand("list", tasks);
+        processor.executeCommand("find book", tasks);
+
+        processor.executeCommand("undo", tasks);
+        assertEquals(1, tasks.taskSize());
+        assertFalse(tasks.getTask(1).isDone());
+        assertThrows(ClementineException.class, () -> processor.executeBatch(List.of("list", "undo"), tasks));
+    }
+
+    @Test
+    public void record_pastDepth_forgetsOldestChange() throws ClementineException {
+        UndoHistory history = new UndoHistory(2);
+        TaskList tasks = new TaskList(new VersionedTaskStore(new ArrayList<>(), null));
+        for (int i = 1; i <= 3; i++) {
+            TaskList.Snapshot before = tasks.createSnapshot();
+            tasks.addTask(new Todo("task " + i));
+            history.record(before);
+        }
+
+        history.undo(tasks);
+        history.undo(tasks);
+        assertEquals(1, tasks.taskSize());
+        assertThrows(ClementineException.class, () -> history.undo(tasks));
+    }
+
+    @Test
+    public void undo_heapStore_putsBackTheSameTasks() throws ClementineException {
+        UndoHistory history = new UndoHistory(3);
+        Todo book = new Todo("read book");
+        TaskList tasks = new TaskList(new ArrayList<>(List.of(book)));
+        history.record(tasks.createSnapshot());
+        tasks.markTask(1);
+        history.record(tasks.createSnapshot());
+        tasks.deleteTask(1);
+
+        history.undo(tasks);
+        assertSame(book, tasks.getTask(1));
+        assertTrue(book.isDone());
+        history.undo(tasks);
+        assertFalse(book.isDone());
+        history.redo(tasks);
+        assertTrue(book.isDone());
+
+        history.record(tasks.createSnapshot());
+        tasks.unmarkTask(1);
+        assertThrows(ClementineException.class, () -> history.redo(tasks));
+    }
+
+    @Test
+    public void undoDepthFor_copyingStores_turnsUndoOff() throws ClementineException {
+        TaskList heapTasks = new TaskList(new ArrayList<>());
+        assertEquals(0, CommandProcessor.undoDepthFor(heapTasks));
+        assertTrue(CommandProcessor.undoDepthFor(new TaskList(new VersionedTaskStore(new ArrayList<>(), null))) > 0);
+
+        CommandProcessor processor = new CommandProcessor(new UI(),
+                new Storage(tempDir.resolve("tasks.txt").toString()), CommandProcessor.undoDepthFor(heapTasks));
+        processor.executeCommand("todo read book", heapTasks);
+        Executable undo = () -> processor.executeCommand("undo", heapTasks);
+        ClementineException e = assertThrows(ClementineException.class, undo);
+        assertTrue(e.getMessage().contains("turned off"), e.getMessage());
+    }
+}
@@ -0,0 +1,192 @@
+package clementine.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import clementine.Clementine;
+import clementine.ClementineException;
+
+public class ClementineServerTest {
+    @TempDir
+    Path tempDir;
+
+    private ClementineServer server;
+    private Path dataFile;
+
+    @BeforeEach
+    public void setUp() {
+        dataFile = tempDir.resolve("tasks.txt");
+        server = new ClementineServer(new Clementine(dataFile.toString()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void tcp_commands_repliesWithTerminatedResponses() throws IOException {
+        int port = server.startTcp(0);
+        try (Socket socket = connect(port)) {
+            BufferedReader in = reader(socket);
+            PrintWriter out = writer(socket);
+
+            out.println("todo read book");
+            assertTrue(readTcpResponse(in).contains("read book"));
+            out.println("todo .hidden file");
+            readTcpResponse(in);
+            out.println("list");
+            assertTrue(readTcpResponse(in).contains("2. [T][ ] .hidden file"));
+            out.println("bye");
+            readTcpResponse(in);
+            assertEquals(null, in.readLine());
+        }
+    }
+
+    @Test
+    public void tcp_export_refusesToWriteFiles() throws IOException {
+        int port = server.startTcp(0);
+        try (Socket socket = connect(port)) {
+            BufferedReader in = reader(socket);
+            PrintWriter out = writer(socket);
+
+            out.println("todo read book");
+            readTcpResponse(in);
+            out.println("export csv ../other.txt");
+            assertTrue(readTcpResponse(in).contains("isn't available"));
+            out.println("import " + dataFile);
+            assertTrue(readTcpResponse(in).contains("isn't available"));
+        }
+        assertFalse(Files.exists(tempDir.resolveSibling("other.txt")));
+        assertFalse(Files.exists(Path.of("../other.txt")));
+        assertEquals(List.of("T | 0 | read book"), Files.readAllLines(dataFile));
+    }
+
+    @Test
+    public void http_command_repliesWithJson() throws IOException {
+        int port = server.startHttp(0);
+
+        HttpURLConnection connection = post(port, "{\"command\": \"todo read book\"}");
+
+        assertEquals(200, connection.getResponseCode());
+        String body = readAll(connection.getInputStream());
+        assertTrue(body.startsWith("{\"response\":"), body);
+        assertTrue(body.contains("read book"), body);
+    }
+
+    @Test
+    public void http_malformedBody_rejectsRequest() throws IOException {
+        int port = server.startHttp(0);
+
+        HttpURLConnection notJson = post(port, "todo read book");
+        assertEquals(400, notJson.getResponseCode());
+        assertTrue(readAll(notJson.getErrorStream()).contains("command field"));
+
+        HttpURLConnection unterminated = post(port, "{\"command\": \"todo read book");
+        assertEquals(400, unterminated.getResponseCode());
+
+        HttpURLConnection get = (HttpURLConnection) new URL("http://127.0.0.1:" + port + "/command").openConnection();
+        assertEquals(405, get.getResponseCode());
+    }
+
+    @Test
+    public void stop_openConnection_closesItAndSavesTasks() throws IOException, InterruptedException {
+        int port = server.startTcp(0);
+        try (Socket socket = connect(port)) {
+            BufferedReader in = reader(socket);
+            writer(socket).println("todo read book");
+            readTcpResponse(in);
+
+            server.stop();
+            server.awaitStop();
+
+            assertEquals(null, in.readLine());
+        }
+        assertThrows(IOException.class, () -> connect(port).close());
+        assertEquals(List.of("T | 0 | read book"), Files.readAllLines(dataFile));
+    }
+
+    @Test
+    public void parseOptions_validOptions_readsThem() throws ClementineException {
+        ClementineServer.Options options = ClementineServer.Options.parse(new String[] {
+            "--tcp-port", "-1", "--http-port", "0", "--max-tenants", "5", "--metrics-interval", "10"});
+
+        assertEquals(-1, options.getTcpPort());
+        assertEquals(0, options.getHttpPort());
+        assertEquals(5, options.getMaxTenants());
+        assertEquals(10, options.getMetricsInterval());
+        assertEquals(1_000_000, options.getMaxTasks());
+    }
+
+    @Test
+    public void parseOptions_invalidOptions_throwsException() {
+        for (String[] args : List.of(new String[] {"--port", "abc"}, new String[] {"--tcp-port", "abc"},
+                new String[] {"--http-port", "70000"}, new String[] {"--max-tenants", "0"},
+                new String[] {"--max-tasks", "-5"}, new String[] {"--tcp-port"},
+                new String[] {"--data", "tasks.txt", "--tenants"}, new String[] {"--port", "1", "--verbose"})) {
+            assertThrows(ClementineException.class, () -> ClementineServer.Options.parse(args), String.join(" ", args));
+        }
+    }
+
+    private static Socket connect(int port) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setSoTimeout(10_000);
+        return socket;
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private static PrintWriter writer(Socket socket) throws IOException {
+        return new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+    }
+
+    private static String readTcpResponse(BufferedReader in) throws IOException {
+        StringBuilder response = new StringBuilder();
+        String line;
+        while (!(line = in.readLine()).equals(".")) {
+            response.append(line.startsWith(".") ? line.substring(1) : line).append('\n');
+        }
+        return response.toString();
+    }
+
+    private static HttpURLConnection post(int port, String body) throws IOException {
+        HttpURLConnection connection =
+                (HttpURLConnection) new URL("http://127.0.0.1:" + port + "/command").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+
+    private static String readAll(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package clementine.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TenantManagerTest {
+    private static final String INVALID_USER = "OOPS!! quack! user ids can only contain letters, digits, _ and -";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void respond_moreTenantsThanAllowed_evictsLeastRecentlyUsed() throws IOException {
+        TenantManager manager = new TenantManager(tempDir, 2, 1000);
+        manager.respond("alice", "todo read book");
+        manager.respond("bob", "todo buy milk");
+        manager.respond("alice", "list");
+        manager.respond("carol", "todo walk dog");
+
+        assertEquals(2, manager.getLoadedTenantCount());
+        assertEquals(List.of("T | 0 | buy milk"), Files.readAllLines(tempDir.resolve("bob.txt")));
+        manager.shutdown();
+    }
+
+    @Test
+    public void respond_moreTasksThanAllowed_evictsIdleTenants() {
+        TenantManager manager = new TenantManager(tempDir, 10, 3);
+        manager.respond("alice", "todo read book");
+        manager.respond("alice", "todo buy milk");
+        manager.respond("bob", "todo walk dog");
+        assertEquals(2, manager.getLoadedTenantCount());
+
+        manager.respond("bob", "todo feed cat");
+
+        assertEquals(1, manager.getLoadedTenantCount());
+        manager.shutdown();
+    }
+
+    @Test
+    public void respond_evictedTenant_reloadsItsTasks() {
+        TenantManager manager = new TenantManager(tempDir, 1, 1000);
+        manager.respond("alice", "todo read book");
+        manager.respond("alice", "mark 1");
+        manager.respond("alice", "deadline submit report /by 25/12/2024 1800");
+        manager.respond("bob", "todo buy milk");
+
+        String list = manager.respond("alice", "list");
+
+        assertTrue(list.contains("1. [T][X] read book"), list);
+        assertTrue(list.contains("2. [D][ ] submit report"), list);
+        assertFalse(list.contains("buy milk"), list);
+        manager.shutdown();
+    }
+
+    @Test
+    public void respond_invalidUserId_rejectsWithoutCreatingFiles() throws IOException {
+        TenantManager manager = new TenantManager(tempDir, 10, 1000);
+
+        assertEquals(INVALID_USER, manager.respond("../alice", "todo read book"));
+        assertEquals(INVALID_USER, manager.respond("", "todo read book"));
+        assertEquals(INVALID_USER, manager.respond(null, "todo read book"));
+        assertEquals(INVALID_USER, manager.respond("a".repeat(65), "todo read book"));
+
+        assertEquals(0, manager.getLoadedTenantCount());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+        manager.shutdown();
+    }
+
+    @Test
+    public void respond_importOrExport_refusesToTouchFiles() throws IOException {
+        TenantManager manager = new TenantManager(tempDir, 10, 1000);
+        manager.respond("bob", "todo buy milk");
+        manager.respond("alice", "todo read book");
+
+        assertTrue(manager.respond("alice", "export csv ../other.txt").contains("isn't available"));
+        assertTrue(manager.respond("alice", "export csv bob.txt").contains("isn't available"));
+        assertTrue(manager.respond("alice", "import bob.txt").contains("isn't available"));
+        assertTrue(manager.respond("alice", "todo walk dog; export csv bob.txt").contains("isn't available"));
+        manager.shutdown();
+
+        assertFalse(Files.exists(tempDir.resolveSibling("other.txt")));
+        assertEquals(List.of("T | 0 | buy milk"), Files.readAllLines(tempDir.resolve("bob.txt")));
+        assertEquals(List.of("T | 0 | read book"), Files.readAllLines(tempDir.resolve("alice.txt")));
+    }
+
+    @Test
+    public void respond_concurrentUsers_keepsEachUsersTasks() throws Exception {
+        // a budget of one tenant makes the users evict and reload each other while they run
+        TenantManager manager = new TenantManager(tempDir, 1, 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<?>> results = new ArrayList<>();
+        for (String user : List.of("alice", "bob")) {
+            results.add(executor.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    manager.respond(user, "todo " + user + " task " + i);
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+        manager.shutdown();
+
+        for (String user : List.of("alice", "bob")) {
+            List<String> lines = Files.readAllLines(tempDir.resolve(user + ".txt"));
+            assertEquals(50, lines.size());
+            for (int i = 0; i < 50; i++) {
+                assertEquals("T | 0 | " + user + " task " + i, lines.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package clementine.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import clementine.ClementineException;
+import clementine.Priority;
+import clementine.TaskList;
+import clementine.task.Deadline;
+import clementine.task.Event;
+import clementine.task.Task;
+import clementine.task.Todo;
+
+public class OffHeapTaskStoreTest {
+    private static final LocalDateTime DATE = LocalDateTime.of(2025, 3, 14, 15, 9);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void add_everyKindOfTask_readsBackTheSame() {
+        OffHeapTaskStore store = OffHeapTaskStore.allocate();
+        List<Task> tasks = sampleTasks();
+        for (Task task : tasks) {
+            store.add(task);
+        }
+
+        assertEquals(tasks.size(), store.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).storeData(), store.get(i).storeData());
+            assertEquals(tasks.get(i).getPriorityLevel(), store.getPriorityLevel(i));
+        }
+        assertEquals(DATE, ((Deadline) store.get(1)).getBy());
+        assertTrue(store.isDone(1));
+        assertTrue(store.containsKeyword(3, "CAFÉ"));
+        assertTrue(store.containsKeyword(4, "本 TOGETHER"));
+        assertFalse(store.containsKeyword(0, "zebra"));
+    }
+
+    @Test
+    public void removeAll_afterGrowing_keepsOrderAndReclaimsSpace() {
+        OffHeapTaskStore store = OffHeapTaskStore.allocate();
+        List<String> expected = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 500; i++) {
+                String description = "task " + round + " " + i + " " + "x".repeat(i % 40);
+                store.add(new Todo(description));
+                expected.add(description);
+            }
+            int[] everyOther = new int[store.size() / 2];
+            for (int i = 0; i < everyOther.length; i++) {
+                everyOther[i] = i * 2;
+            }
+            store.removeAll(everyOther);
+            for (int i = everyOther.length - 1; i >= 0; i--) {
+                expected.remove(everyOther[i]);
+            }
+        }
+        store.remove(0);
+        expected.remove(0);
+
+        assertEquals(expected.size(), store.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), store.get(i).getDescription());
+        }
+    }
+
+    @Test
+    public void map_reopenedFile_hasTheSameTasks() throws IOException {
+        Path file = tempDir.resolve("tasks.bin");
+        OffHeapTaskStore store = OffHeapTaskStore.map(file);
+        for (int i = 0; i < 300; i++) {
+            store.add(new Event("event " + i, DATE.plusDays(i), DATE.plusDays(i).plusHours(2), Priority.of(1 + i % 3)));
+        }
+        store.setDone(7, true);
+        store.remove(0);
+        assertTrue(store.persist());
+
+        OffHeapTaskStore reopened = OffHeapTaskStore.map(file);
+        assertEquals(299, reopened.size());
+        assertEquals(store.get(6).storeData(), reopened.get(6).storeData());
+        assertTrue(reopened.isDone(6));
+        assertEquals(DATE.plusDays(299), ((Event) reopened.get(298)).getStart());
+        assertFalse(Files.exists(tempDir.resolve("tasks.bin.grow")));
+    }
+
+    @Test
+    public void map_otherFile_throwsException() throws IOException {
+        Path file = tempDir.resolve("notes.txt");
+        Files.writeString(file, "T | 0 | this is the text data file, not a task store");
+        assertThrows(IOException.class, () -> OffHeapTaskStore.map(file));
+    }
+
+    @Test
+    public void map_damagedRecord_throwsException() throws IOException {
+        Path file = tempDir.resolve("tasks.bin");
+        OffHeapTaskStore store = OffHeapTaskStore.map(file);
+        store.add(new Todo("read book"));
+        store.persist();
+
+        // the description length of the first record, pointing past the end of the descriptions
+        ByteBuffer length = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, 1_000);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(length, 32 + 28);
+        }
+        assertThrows(IOException.class, () -> OffHeapTaskStore.map(file));
+    }
+
+    @Test
+    public void map_removeAndRestore_replaceTheFileAsAWhole() throws IOException {
+        Path file = tempDir.resolve("tasks.bin");
+        Files.writeString(tempDir.resolve("tasks.bin.grow"), "left behind by a crash");
+        OffHeapTaskStore store = OffHeapTaskStore.map(file);
+        assertFalse(Files.exists(tempDir.resolve("tasks.bin.grow")));
+        for (Task task : sampleTasks()) {
+            store.add(task);
+        }
+        TaskStore snapshot = store.snapshot();
+
+        store.removeAll(new int[] {0, 2});
+        store.remove(0);
+        store.persist();
+        OffHeapTaskStore reopened = OffHeapTaskStore.map(file);
+        assertEquals(2, reopened.size());
+        assertEquals("café with ÆSIR", reopened.get(0).getDescription());
+
+        store.restore(snapshot);
+        store.persist();
+        reopened = OffHeapTaskStore.map(file);
+        assertEquals(5, reopened.size());
+        assertTrue(reopened.isDone(1));
+        assertEquals("read 本 together", reopened.get(4).getDescription());
+        assertFalse(Files.exists(tempDir.resolve("tasks.bin.grow")));
+    }
+
+    @Test
+    public void snapshot_laterChanges_doNotShowInIt() {
+        OffHeapTaskStore store = OffHeapTaskStore.allocate();
+        for (Task task : sampleTasks()) {
+            store.add(task);
+        }
+        TaskStore snapshot = store.snapshot();
+        store.setDone(0, true);
+        store.remove(3);
+        for (int i = 0; i < 100; i++) {
+            store.add(new Todo("more " + i));
+        }
+
+        assertEquals(5, snapshot.size());
+        assertFalse(snapshot.isDone(0));
+        assertTrue(snapshot.containsKeyword(3, "café"));
+        assertEquals(104, store.size());
+
+        store.restore(snapshot);
+        assertEquals(5, store.size());
+        assertFalse(store.isDone(0));
+        assertTrue(store.isDone(1));
+        assertEquals("café with ÆSIR", store.get(3).getDescription());
+    }
+
+    @Test
+    public void taskList_offHeapStore_marksThroughTheStore() throws ClementineException {
+        TaskList taskList = new TaskList(OffHeapTaskStore.allocate());
+        taskList.addTask(new Todo("read book"));
+        taskList.addTask(new Todo("return book"));
+        taskList.markTask(2);
+
+        assertTrue(taskList.getTask(2).isDone());
+        assertEquals(1, taskList.deleteDoneTasks());
+        assertEquals("[T][ ] read book", taskList.asList().get(0).toString());
+        assertEquals(1, taskList.findTasks("READ").size());
+    }
+
+    @Test
+    public void taskList_unwritableMappedStore_reportsErrorAndKeepsTasks() throws ClementineException, IOException {
+        Path file = tempDir.resolve("tasks.bin");
+        TaskList taskList = new TaskList(OffHeapTaskStore.map(file));
+        taskList.addTask(new Todo("read book"));
+        taskList.addTask(new Todo("return book"));
+        taskList.markTask(2);
+        taskList.saveTo(null);
+        // the new file the store is rebuilt in can't be created where a directory is in the way
+        Path inTheWay = tempDir.resolve("tasks.bin.grow").resolve("in the way");
+        Files.createDirectories(inTheWay);
+
+        ClementineException e = assertThrows(ClementineException.class, () -> taskList.deleteTask(1));
+        assertTrue(e.getMessage().startsWith("quack! couldn't grow the task store file"), e.getMessage());
+        assertThrows(ClementineException.class, () -> taskList.deleteDoneTasks());
+        assertEquals(2, taskList.taskSize());
+        Files.delete(inTheWay);
+        assertEquals(2, OffHeapTaskStore.map(file).size());
+    }
+
+    private static List<Task> sampleTasks() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        Deadline deadline = new Deadline("return book", DATE, Priority.of(2));
+        deadline.taskDone();
+        tasks.add(deadline);
+        tasks.add(new Event("project meeting", DATE, DATE.plusHours(2)));
+        tasks.add(new Todo("café with ÆSIR", Priority.of(40)));
+        tasks.add(new Todo("read 本 together"));
+        return tasks;
+    }
+}
@@ -0,0 +1,146 @@
+package clementine.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import clementine.ClementineException;
+import clementine.TaskList;
+import clementine.task.Task;
+import clementine.task.Todo;
+
+public class VersionedTaskStoreTest {
+    @Test
+    public void persistentTaskList_randomChanges_matchesArrayList() {
+        Random random = new Random(49);
+        List<Task> expected = new ArrayList<>();
+        PersistentTaskList actual = PersistentTaskList.empty();
+        for (int step = 0; step < 5000; step++) {
+            int choice = random.nextInt(4);
+            if (choice < 2 || expected.isEmpty()) {
+                Task task = new Todo("task " + step);
+                expected.add(task);
+                actual = actual.append(task);
+            } else if (choice == 2) {
+                int index = random.nextInt(expected.size());
+                Task task = new Todo("replacement " + step);
+                expected.set(index, task);
+                actual = actual.with(index, task);
+            } else {
+                int index = random.nextInt(expected.size());
+                expected.remove(index);
+                actual = actual.without(index);
+            }
+        }
+
+        assertEquals(expected, actual);
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), actual.get(i));
+        }
+        assertEquals(expected, PersistentTaskList.of(expected));
+    }
+
+    @Test
+    public void persistentTaskList_withoutAll_keepsTheOthersInOrder() {
+        List<Task> expected = new ArrayList<>();
+        PersistentTaskList list = PersistentTaskList.empty();
+        for (int i = 0; i < 1000; i++) {
+            Task task = new Todo("task " + i);
+            expected.add(task);
+            list = list.append(task);
+        }
+        PersistentTaskList actual = list;
+        int[] removed = {0, 1, 2, 500, 501, 998, 999};
+        for (int i = removed.length - 1; i >= 0; i--) {
+            expected.remove(removed[i]);
+        }
+
+        PersistentTaskList remaining = actual.withoutAll(removed);
+
+        assertEquals(expected, remaining);
+        assertEquals(1000, actual.size());
+        Task added = new Todo("added afterwards");
+        expected.add(added);
+        assertSame(added, remaining.append(added).get(expected.size() - 1));
+        assertThrows(IllegalArgumentException.class, () -> actual.withoutAll(new int[] {3, 3}));
+    }
+
+    @Test
+    public void snapshot_laterChanges_doNotShowInIt() {
+        VersionedTaskStore store = new VersionedTaskStore(new ArrayList<>(), null);
+        store.add(new Todo("read book"));
+        store.add(new Todo("return book"));
+        store.add(new Todo("buy milk"));
+        TaskStore snapshot = store.snapshot();
+
+        store.setDone(0, true);
+        store.remove(1);
+        store.add(new Todo("walk dog"));
+
+        assertEquals(3, snapshot.size());
+        assertFalse(snapshot.isDone(0));
+        assertEquals("return book", snapshot.get(1).getDescription());
+        assertTrue(store.isDone(0));
+        assertEquals("buy milk", store.get(1).getDescription());
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    public void setDone_taskHandedOut_keepsItsStatus() {
+        VersionedTaskStore store = new VersionedTaskStore(List.of(new Todo("read book")), null);
+        Task before = store.get(0);
+        store.setDone(0, true);
+
+        assertFalse(before.isDone());
+        assertTrue(store.get(0).isDone());
+        assertEquals(before.getDescription(), store.get(0).getDescription());
+    }
+
+    @Test
+    public void taskList_readsDuringWrites_alwaysSeeAWholeVersion() throws Exception {
+        TaskList taskList = new TaskList(new VersionedTaskStore(new ArrayList<>(), null));
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            try {
+                for (int round = 0; round < 2000; round++) {
+                    taskList.addTask(new Todo("report " + round));
+                    taskList.addTask(new Todo("report " + round));
+                    taskList.markTask(1);
+                    taskList.deleteTask(1);
+                    taskList.deleteTask(1);
+                }
+            } catch (ClementineException e) {
+                throw new AssertionError(e);
+            } finally {
+                isWriting.set(false);
+            }
+        });
+        writer.start();
+
+        while (isWriting.get()) {
+            List<Task> snapshot = taskList.readView();
+            List<Task> firstRead = new ArrayList<>(snapshot);
+            List<Boolean> completion = new ArrayList<>();
+            for (Task task : firstRead) {
+                completion.add(task.isDone());
+            }
+            Thread.yield();
+            assertEquals(firstRead.size(), snapshot.size());
+            for (int i = 0; i < firstRead.size(); i++) {
+                assertSame(firstRead.get(i), snapshot.get(i));
+                assertEquals(completion.get(i), snapshot.get(i).isDone());
+            }
+        }
+        writer.join();
+        assertTrue(taskList.isEmpty());
+    }
+}
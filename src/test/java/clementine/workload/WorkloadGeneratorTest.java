@@ -0,0 +1,52 @@
+package clementine.workload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import clementine.Clementine;
+
+public class WorkloadGeneratorTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void writeCommands_sameSeed_sameWorkload() throws IOException {
+        assertEquals(generate(7), generate(7));
+        assertNotEquals(generate(7), generate(8));
+    }
+
+    @Test
+    public void writeCommands_replayed_noCommandIsRejected() throws IOException {
+        WorkloadGenerator generator =
+                new WorkloadGenerator(3, WorkloadGenerator.parseMix(WorkloadGenerator.DEFAULT_MIX), 60);
+        StringBuilder data = new StringBuilder();
+        generator.writeInitialTasks(data);
+        Path dataFile = tempDir.resolve("data.txt");
+        Files.writeString(dataFile, data);
+
+        Clementine clementine = new Clementine(dataFile.toString());
+        assertEquals(60, clementine.getTaskCount());
+        for (int i = 0; i < 2000; i++) {
+            String command = generator.nextCommand();
+            String response = clementine.getResponse(command);
+            assertFalse(response.startsWith("OOPS!!"), command + " was rejected: " + response);
+        }
+    }
+
+    private static String generate(long seed) throws IOException {
+        WorkloadGenerator generator =
+                new WorkloadGenerator(seed, WorkloadGenerator.parseMix("todo=1,mark=1,find=1"), 10);
+        StringBuilder out = new StringBuilder();
+        generator.writeInitialTasks(out);
+        generator.writeCommands(500, out);
+        return out.toString();
+    }
+}